@@ -0,0 +1,90 @@
+package com.codenjoy.dojo;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.Threads;
+import com.codenjoy.dojo.client.WebSocketRunner;
+import com.codenjoy.dojo.client.local.FrameSource;
+import com.codenjoy.dojo.client.local.StandInServer;
+import com.codenjoy.dojo.games.Boards;
+import com.codenjoy.dojo.games.mollymage.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link FleetRunner}: one tick for all the simulated bots
+ * (the server sends the board to everyone and waits for all the answers)
+ * with platform or virtual (JDK 21+ only, otherwise it is the same
+ * platform mode) threads.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="FleetBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleetBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int bots;
+
+    @Param({"false", "true"})
+    public boolean virtual;
+
+    private StandInServer server;
+    private FleetRunner fleet;
+
+    @Setup
+    public void setup() throws Exception {
+        WebSocketRunner.PRINT_TO_CONSOLE = false;
+        Threads.VIRTUAL = virtual;
+        server = new StandInServer(0, FrameSource.repeat(Boards.load("mollymage"))).start();
+
+        List<FleetRunner.Bot> list = new ArrayList<>();
+        for (int index = 0; index < bots; index++) {
+            list.add(new FleetRunner.Bot("mollymage", server.url("bot" + index, "123")));
+        }
+        fleet = new FleetRunner(list);
+        fleet.loaders(game -> b -> "ACT", game -> new Board());
+        fleet.start(TimeUnit.MINUTES.toMillis(1));
+        server.awaitPlayers(bots, TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        fleet.close();
+        server.close();
+    }
+
+    @Benchmark
+    public boolean tick() throws InterruptedException {
+        server.tick();
+        return server.awaitAnswers(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,200 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.games.mollymage.Board;
+import com.codenjoy.dojo.games.mollymage.Categories;
+import com.codenjoy.dojo.games.mollymage.Element;
+import com.codenjoy.dojo.services.Point;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.codenjoy.dojo.games.mollymage.Element.*;
+import static com.codenjoy.dojo.games.mollymage.ElementUtils.barriers;
+import static com.codenjoy.dojo.games.mollymage.ElementUtils.heroes;
+import static com.codenjoy.dojo.services.PointImpl.pt;
+
+/**
+ * Compares {@link LayerIndex} based queries with the full
+ * scan of the field that was used before the index,
+ * and {@link Category} lookups with element loops.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="BoardIndexBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardIndexBenchmark {
+
+    @Param({"30", "100"})
+    public int size;
+
+    private Board board;
+
+    @Setup
+    public void setup() {
+        board = (Board) new Board().forString(mollymage(size, 42));
+    }
+
+    public static String mollymage(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder result = new StringBuilder();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                Element element;
+                if (x == 0 || y == 0 || x == size - 1 || y == size - 1
+                        || (x % 2 == 0 && y % 2 == 0))
+                {
+                    element = WALL;
+                } else {
+                    int dice = random.nextInt(100);
+                    element = (dice < 30) ? TREASURE_BOX
+                            : (dice < 33) ? GHOST
+                            : (dice < 35) ? POTION_TIMER_3
+                            : (dice < 37) ? OTHER_HERO
+                            : (dice < 38) ? POTION_COUNT_INCREASE
+                            : NONE;
+                }
+                result.append(element.ch());
+            }
+        }
+        result.setCharAt(size + 1, HERO.ch());
+        return result.toString();
+    }
+
+    private List<Point> scan(Element... elements) {
+        List<Point> result = new LinkedList<>();
+        AbstractLayeredBoard<Element>.GetLayer layer = board.layer(0);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Element value = layer.getAt(x, y);
+                for (Element element : elements) {
+                    if (value == element) {
+                        result.add(pt(x, y));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Point scanFirst(Element... elements) {
+        AbstractLayeredBoard<Element>.GetLayer layer = board.layer(0);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Element value = layer.getAt(x, y);
+                for (Element element : elements) {
+                    if (value == element) {
+                        return pt(x, y);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public List<Point> get_barriers_index() {
+        return board.get(barriers);
+    }
+
+    @Benchmark
+    public List<Point> get_barriers_scan() {
+        return scan(barriers);
+    }
+
+    @Benchmark
+    public void forEachAt_barriers_index(Blackhole hole) {
+        board.forEachAt((x, y) -> hole.consume(x + y), barriers);
+    }
+
+    @Benchmark
+    public int firstIndexOf_hero_index() {
+        return board.firstIndexOf(heroes);
+    }
+
+    @Benchmark
+    public Point getFirst_hero_index() {
+        return board.getFirst(heroes);
+    }
+
+    @Benchmark
+    public Point getFirst_hero_scan() {
+        return scanFirst(heroes);
+    }
+
+    @Benchmark
+    public boolean isGameOver_index() {
+        return board.isGameOver();
+    }
+
+    @Benchmark
+    public boolean isGameOver_scan() {
+        return scanFirst(HERO_DEAD) != null;
+    }
+
+    @Benchmark
+    public int count_potions_index() {
+        return board.count(POTION_TIMER_3);
+    }
+
+    @Benchmark
+    public int count_potions_scan() {
+        return scan(POTION_TIMER_3).size();
+    }
+
+    @Benchmark
+    public int isAt_barriers_elements() {
+        int result = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (board.isAt(x, y, barriers)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int isAt_barriers_category() {
+        int result = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (board.isAt(x, y, Categories.BARRIERS)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
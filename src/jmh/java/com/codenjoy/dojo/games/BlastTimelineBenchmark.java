@@ -0,0 +1,101 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.games.mollymage.BlastTimeline;
+import com.codenjoy.dojo.games.mollymage.Board;
+import com.codenjoy.dojo.services.Point;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+
+/**
+ * Safe move check of every cell of mollymage board:
+ * {@link Board#getFutureBlasts()} list lookup (as it was)
+ * vs {@link BlastTimeline} built once per tick.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="BlastTimelineBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlastTimelineBenchmark {
+
+    private Board board;
+    private BlastTimeline timeline;
+
+    @Setup
+    public void setup() {
+        board = (Board) Boards.create("mollymage");
+        board.forString(Boards.load("mollymage"));
+        timeline = new BlastTimeline();
+    }
+
+    @Benchmark
+    public int futureBlastsList() {
+        int result = 0;
+        for (int x = 0; x < board.size(); x++) {
+            for (int y = 0; y < board.size(); y++) {
+                // так было в isFutureBlastAt - список на каждую проверку
+                List<Point> blasts = board.getFutureBlasts();
+                if (blasts.contains(pt(x, y))) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int futureBlastAt() {
+        int result = 0;
+        for (int x = 0; x < board.size(); x++) {
+            for (int y = 0; y < board.size(); y++) {
+                if (board.isFutureBlastAt(pt(x, y))) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int blastTimeline() {
+        timeline.build(board);
+        int result = 0;
+        for (int x = 0; x < board.size(); x++) {
+            for (int y = 0; y < board.size(); y++) {
+                if (timeline.isBurning(x, y, 1)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.ClientBoard;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Representative boards of all games (taken from their tests)
+ * for benchmarks: src/jmh/resources/boards/[game].txt contains
+ * the board exactly as the server sends it.
+ */
+public final class Boards {
+
+    private Boards() {
+        // утилитный класс
+    }
+
+    public static String load(String game) {
+        String name = "/boards/" + game + ".txt";
+        try (InputStream input = Boards.class.getResourceAsStream(name)) {
+            if (input == null) {
+                throw new IllegalArgumentException("No board for game: " + game);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static ClientBoard create(String game) {
+        try {
+            return (ClientBoard) Class.forName("com.codenjoy.dojo.games." + game + ".Board")
+                    .getConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No board for game: " + game, e);
+        }
+    }
+
+    /**
+     * @param data Board as the server sends it.
+     * @param scale How many times every layer should be repeated
+     *              in each direction.
+     * @return Board with every layer {@code scale} times bigger,
+     *         all other json fields are the same.
+     */
+    public static String scale(String data, int scale) {
+        if (scale == 1) {
+            return data;
+        }
+        if (!data.startsWith("{")) {
+            return tile(data, scale);
+        }
+        JSONObject json = new JSONObject(data);
+        JSONArray layers = json.getJSONArray("layers");
+        for (int index = 0; index < layers.length(); index++) {
+            layers.put(index, tile(layers.getString(index), scale));
+        }
+        // в expansion на каждую клетку 3 символа сил
+        if (json.has("forces")) {
+            json.put("forces", tile(json.getString("forces"), scale, 3));
+        }
+        return json.toString();
+    }
+
+    private static String tile(String layer, int scale) {
+        return tile(layer, scale, 1);
+    }
+
+    private static String tile(String layer, int scale, int width) {
+        layer = layer.replace("\n", "");
+        int size = (int) Math.sqrt(layer.length() / width);
+        int length = size * width;
+        StringBuilder result = new StringBuilder(layer.length() * scale * scale);
+        for (int y = 0; y < size * scale; y++) {
+            String row = layer.substring((y % size) * length, (y % size + 1) * length);
+            for (int x = 0; x < scale; x++) {
+                result.append(row);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.AbstractBoard;
+import com.codenjoy.dojo.client.ClientBoard;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.printer.CharElement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and common queries of {@link AbstractBoard} for every game
+ * on the boards from {@link Boards}. Most frequent element of the
+ * first layer is used for get/isAt queries, the rarest one
+ * (usually hero) - for getFirst.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="BoardsBenchmark -p game=mollymage -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardsBenchmark {
+
+    @Param({"a2048", "chess", "clifford", "collapse", "excitebike",
+            "expansion", "fifteen", "football", "hex", "icancode",
+            "japanese", "knibert", "moebius", "mollymage", "namdreab",
+            "pong", "puzzlebox", "quadro", "quake2d", "rawelbbub",
+            "reversi", "rubicscube", "sample", "selfdefense", "sokoban",
+            "spacerace", "startandjump", "sudoku", "vacuum", "verland",
+            "xonix"})
+    public String game;
+
+    /**
+     * Boards from tests are small, so every layer
+     * can be repeated several times in each direction.
+     */
+    @Param({"1", "2"})
+    public int scale;
+
+    private String data;
+    private AbstractBoard board;
+    private int size;
+    private CharElement[] common;
+    private CharElement[] rare;
+    private int center;
+
+    @Setup
+    public void setup() {
+        data = Boards.scale(Boards.load(game), scale);
+        board = (AbstractBoard) Boards.create(game);
+        board.forString(data);
+        size = board.size();
+        center = size / 2;
+
+        Map<CharElement, Integer> counts = new LinkedHashMap<>();
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                counts.merge((CharElement) board.getAt(x, y), 1, Integer::sum);
+            }
+        }
+        common = new CharElement[]{ counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue()).get().getKey() };
+        rare = new CharElement[]{ counts.entrySet().stream()
+                .min(Map.Entry.comparingByValue()).get().getKey() };
+    }
+
+    @Benchmark
+    public ClientBoard forString() {
+        return board.forString(data);
+    }
+
+    @Benchmark
+    public List<Point> get() {
+        return board.get(common);
+    }
+
+    @Benchmark
+    public Point getFirst() {
+        return board.getFirst(rare);
+    }
+
+    @Benchmark
+    public int isAt() {
+        int result = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (board.isAt(x, y, common)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List getNear() {
+        return board.getNear(center, center);
+    }
+
+    @Benchmark
+    public int countNear() {
+        return board.countNear(center, center, common[0]);
+    }
+
+    @Benchmark
+    public String toString_() {
+        return board.toString();
+    }
+
+    @Benchmark
+    public String boardAsString() {
+        return board.boardAsString();
+    }
+}
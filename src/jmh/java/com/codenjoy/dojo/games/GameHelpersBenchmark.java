@@ -0,0 +1,101 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.ClientBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game specific helpers of the boards from {@link Boards}.
+ * Helper is a public method of the game Board without arguments,
+ * written as "game.method".
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="GameHelpersBenchmark -p helper=mollymage.getFutureBlasts -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameHelpersBenchmark {
+
+    @Param({"chess.getBarriers",
+            "clifford.getBarriers",
+            "clifford.getHero",
+            "excitebike.getHero",
+            "expansion.getAllForces",
+            "expansion.getMyForces",
+            "expansion.getFreeSpaces",
+            "fifteen.getHero",
+            "football.getBall",
+            "hex.getBarriers",
+            "icancode.getHero",
+            "icancode.getWalls",
+            "japanese.getPixels",
+            "knibert.getBarriers",
+            "lemonade.getHistory",
+            "lunolet.getRelief",
+            "mollymage.getBarriers",
+            "mollymage.getFutureBlasts",
+            "namdreab.getHeroHead",
+            "pong.getBall",
+            "puzzlebox.getAllMyBoxes",
+            "quake2d.getHero",
+            "rawelbbub.getBarriers",
+            "reversi.isMyTurn",
+            "sample.getBarriers",
+            "sokoban.getHero",
+            "spacerace.getHero",
+            "tetris.getGlass",
+            "vacuum.getBarriers",
+            "verland.getInfections",
+            "xonix.getHostileLand"})
+    public String helper;
+
+    private ClientBoard board;
+    private MethodHandle method;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        String game = helper.substring(0, helper.indexOf('.'));
+        String name = helper.substring(helper.indexOf('.') + 1);
+
+        board = Boards.create(game);
+        board.forString(Boards.load(game));
+        method = MethodHandles.publicLookup()
+                .unreflect(board.getClass().getMethod(name))
+                .asType(MethodType.methodType(Object.class, ClientBoard.class));
+    }
+
+    @Benchmark
+    public Object helper() throws Throwable {
+        return method.invokeExact(board);
+    }
+}
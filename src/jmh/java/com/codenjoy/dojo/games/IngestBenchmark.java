@@ -0,0 +1,91 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.AbstractLayeredBoard;
+import com.codenjoy.dojo.client.CharSlice;
+import com.codenjoy.dojo.client.ClientBoard;
+import com.codenjoy.dojo.client.WebSocketRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * Ingest of the frame received by {@link WebSocketRunner}:
+ * regex + {@link ClientBoard#forString(String)} (as it was)
+ * vs prefix check + zero-copy {@link ClientBoard#forChars(CharSequence)}.
+ * With {@code reuse=true} the board buffers are reused between ticks,
+ * {@code gc.alloc.rate.norm} of {@code zeroCopy} shows what is left
+ * allocated per tick.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="IngestBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngestBenchmark {
+
+    @Param({"icancode", "expansion", "mollymage"})
+    public String game;
+
+    @Param({"1", "4"})
+    public int scale;
+
+    @Param({"true", "false"})
+    public boolean reuse;
+
+    private String frame;
+    private ClientBoard board;
+    private CharSlice slice;
+
+    @Setup
+    public void setup() {
+        // expansion умеет печатать только маленькие доски, но тут печать не нужна
+        frame = "board=" + Boards.scale(Boards.load(game), scale);
+        board = Boards.create(game);
+        ((AbstractLayeredBoard) board).setReuseBuffers(reuse);
+        slice = new CharSlice();
+    }
+
+    @Benchmark
+    public ClientBoard regex() {
+        Matcher matcher = WebSocketRunner.BOARD_PATTERN.matcher(frame);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException();
+        }
+        return board.forString(matcher.group(1));
+    }
+
+    @Benchmark
+    public ClientBoard zeroCopy() {
+        if (!frame.startsWith(WebSocketRunner.BOARD_PREFIX)) {
+            throw new IllegalArgumentException();
+        }
+        return board.forChars(slice.wrap(frame, WebSocketRunner.BOARD_PREFIX.length(), frame.length()));
+    }
+}
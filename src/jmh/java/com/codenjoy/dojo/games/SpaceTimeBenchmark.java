@@ -0,0 +1,87 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.games.mollymage.Board;
+import com.codenjoy.dojo.games.mollymage.Categories;
+import com.codenjoy.dojo.games.mollymage.Element;
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.path.SpaceTimeFinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SpaceTimeFinder} over mollymage board with its blast timeline:
+ * escape from the cell (no target - the whole horizon is searched)
+ * and A* to the far corner.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="SpaceTimeBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceTimeBenchmark {
+
+    @Param({"1", "2"})
+    public int scale;
+
+    private Board board;
+    private SpaceTimeFinder finder;
+    private IntIntPredicate barriers;
+    private int x;
+    private int y;
+
+    @Setup
+    public void setup() {
+        board = (Board) Boards.create("mollymage");
+        board.forString(Boards.scale(Boards.load("mollymage"), scale));
+        finder = new SpaceTimeFinder();
+        barriers = board.predicate(Categories.BARRIERS);
+        // на доске нет героя - стартуем из свободной клетки где можно выжить
+        for (int cell = board.size() * board.size() / 2; cell > 0; cell--) {
+            x = cell % board.size();
+            y = cell / board.size();
+            if (board.isAt(x, y, Element.NONE)) {
+                escape();
+                if (finder.survived() == finder.horizon()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Direction escape() {
+        return finder.escape(board.size(), x, y, barriers, board.getBlastTimeline());
+    }
+
+    @Benchmark
+    public Direction aStar() {
+        return finder.aStar(board.size(), x, y, 1, 1, barriers, board.getBlastTimeline());
+    }
+}
@@ -0,0 +1,66 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.ClientBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of games with text (not layered) boards.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="TextBoardsBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBoardsBenchmark {
+
+    @Param({"kata", "lemonade", "lunolet", "sampletext", "tetris"})
+    public String game;
+
+    private String data;
+    private ClientBoard board;
+
+    @Setup
+    public void setup() {
+        data = Boards.load(game);
+        board = Boards.create(game);
+        board.forString(data);
+    }
+
+    @Benchmark
+    public ClientBoard forString() {
+        return board.forString(data);
+    }
+
+    @Benchmark
+    public String toString_() {
+        return board.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.codenjoy.dojo.games;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.client.Deadline;
+import com.codenjoy.dojo.games.expansion.Board;
+import com.codenjoy.dojo.games.expansion.Command;
+import com.codenjoy.dojo.games.expansion.TurnPlanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TurnPlanner} over expansion board (scale 2 is 22x22):
+ * time of the fixed count of candidates with 1 and 2 threads.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="TurnPlannerBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnPlannerBenchmark {
+
+    private static final int CANDIDATES = 4096;
+
+    @Param({"1", "2"})
+    public int scale;
+
+    @Param({"1", "2"})
+    public int threads;
+
+    private Board board;
+    private TurnPlanner planner;
+
+    @Setup
+    public void setup() {
+        board = (Board) Boards.create("expansion");
+        board.forString(Boards.scale(Boards.load("expansion"), scale));
+        planner = new TurnPlanner(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        planner.close();
+    }
+
+    @Benchmark
+    public Command plan() {
+        return planner.plan(board, Deadline.in(TimeUnit.SECONDS.toNanos(10)), CANDIDATES);
+    }
+}
@@ -0,0 +1,100 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.BoardIndexBenchmark;
+import com.codenjoy.dojo.client.ElementCosts;
+import com.codenjoy.dojo.games.mollymage.Board;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointBitSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.codenjoy.dojo.games.mollymage.Element.*;
+import static com.codenjoy.dojo.games.mollymage.ElementUtils.barriers;
+
+/**
+ * Single source and multi target searches of {@link PathFinder}
+ * on mollymage boards. BFS on 50x50 board should stay sub-millisecond.
+ *
+ * mvn -Pjmh verify -DskipTests -Djmh.args="PathFinderBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+
+    @Param({"50", "100"})
+    public int size;
+
+    private Board board;
+    private Point hero;
+    private IntIntPredicate barrier;
+    private IntIntPredicate target;
+    private Cost cost;
+    private PathFinder finder;
+
+    @Setup
+    public void setup() {
+        board = (Board) new Board().forString(BoardIndexBenchmark.mollymage(size, 42));
+        hero = board.getHero();
+        PointBitSet walls = board.getBits(WALL);
+        barrier = walls::contains;
+        target = board.getBits(POTION_COUNT_INCREASE)::contains;
+        cost = new ElementCosts<>(board)
+                .set(5, TREASURE_BOX)
+                .barrier(WALL);
+        finder = new PathFinder();
+    }
+
+    @Benchmark
+    public int bfs() {
+        return finder.bfs(size, hero.getX(), hero.getY(), barrier);
+    }
+
+    @Benchmark
+    public int bfs_boardPredicate() {
+        return finder.bfs(size, hero.getX(), hero.getY(), board.predicate(barriers));
+    }
+
+    @Benchmark
+    public int nearest() {
+        return finder.nearest(size, hero.getX(), hero.getY(), barrier, target);
+    }
+
+    @Benchmark
+    public int dijkstra() {
+        return finder.dijkstra(size, hero.getX(), hero.getY(), cost);
+    }
+
+    @Benchmark
+    public int aStar() {
+        return finder.aStar(size, hero.getX(), hero.getY(), size - 2, size - 2, cost);
+    }
+}
@@ -0,0 +1,272 @@
+package com.codenjoy.dojo;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.ClientBoard;
+import com.codenjoy.dojo.client.Closeable;
+import com.codenjoy.dojo.client.Solver;
+import com.codenjoy.dojo.client.Threads;
+import com.codenjoy.dojo.client.TickMetrics;
+import com.codenjoy.dojo.client.UrlParser;
+import com.codenjoy.dojo.client.WebSocketRunner;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.codenjoy.dojo.client.runner.ReflectLoader.loadJavaBoard;
+import static com.codenjoy.dojo.client.runner.ReflectLoader.loadJavaSolver;
+
+/**
+ * Runs many bots in one process: all of them share one {@link WebSocketClient}
+ * and one bounded pool of solver threads (see {@link WebSocketRunner#runShared}),
+ * on JDK 21+ virtual threads are used instead (see {@link Threads}).
+ * Bots are read from the file with {@code game url} lines,
+ * empty lines and lines started with {@code #} are skipped.
+ * Failure of one bot (can't load solver, can't connect, error in solver)
+ * doesn't affect others.
+ */
+public class FleetRunner implements Closeable {
+
+    /**
+     * Сколько потоков решают борды всех ботов.
+     */
+    public static int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Как часто печатать метрики всех ботов (в секундах, 0 - не печатать).
+     */
+    public static int REPORT_PERIOD = 60;
+
+    public static class Bot {
+
+        private final String game;
+        private final String url;
+        // пишет поток старта, читают report() и close()
+        private volatile WebSocketRunner runner;
+        private volatile Exception error;
+
+        public Bot(String game, String url) {
+            this.game = game;
+            this.url = url;
+        }
+
+        public String game() {
+            return game;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public String name() {
+            try {
+                return new UrlParser(url).userName;
+            } catch (RuntimeException e) {
+                return url;
+            }
+        }
+
+        public WebSocketRunner runner() {
+            return runner;
+        }
+
+        public Exception error() {
+            return error;
+        }
+
+        public boolean isRunning() {
+            WebSocketRunner runner = this.runner;
+            return runner != null && runner.isConnected();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s", game, name());
+        }
+    }
+
+    private final List<Bot> bots;
+    private final ExecutorService solvers;
+    private final ExecutorService starters;
+    private final WebSocketClient client;
+    private Function<String, Solver> solverLoader = game -> loadJavaSolver(game);
+    private Function<String, ClientBoard> boardLoader = game -> loadJavaBoard(game);
+
+    public FleetRunner(List<Bot> bots) {
+        this(bots, THREADS);
+    }
+
+    public FleetRunner(List<Bot> bots, int threads) {
+        this.bots = bots;
+        // виртуальных потоков не больше чем ботов - каждый решает одну борду за раз
+        int fleet = Math.max(1, bots.size());
+        solvers = Executors.newFixedThreadPool(Threads.isVirtual() ? fleet : threads,
+                Threads.factory("fleet-solver-"));
+        // подключение может ждать переподключения, поэтому у каждого бота свой поток
+        starters = Executors.newFixedThreadPool(fleet, Threads.factory("fleet-starter-"));
+        SslContextFactory ssl = new SslContextFactory(true);
+        ssl.setValidateCerts(false);
+        client = new WebSocketClient(ssl);
+    }
+
+    /**
+     * @param lines Lines of fleet file.
+     * @return Bots.
+     */
+    public static List<Bot> parse(List<String> lines) {
+        List<Bot> result = new ArrayList<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected 'game url' but was: " + line);
+            }
+            result.add(new Bot(parts[0], parts[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces loading of solver and board by game name (for tests).
+     */
+    void loaders(Function<String, Solver> solverLoader, Function<String, ClientBoard> boardLoader) {
+        this.solverLoader = solverLoader;
+        this.boardLoader = boardLoader;
+    }
+
+    /**
+     * Starts all bots in parallel, errors of every bot are saved in {@link Bot#error()}.
+     * @param timeout Max time to wait for all bots to start (in milliseconds).
+     * @return This runner.
+     */
+    public FleetRunner start(long timeout) {
+        try {
+            client.start();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        for (Bot bot : bots) {
+            starters.execute(() -> start(bot));
+        }
+        starters.shutdown();
+        try {
+            starters.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return this;
+    }
+
+    private void start(Bot bot) {
+        try {
+            bot.runner = WebSocketRunner.runShared(bot.url,
+                    solverLoader.apply(bot.game),
+                    boardLoader.apply(bot.game),
+                    client, solvers);
+        } catch (Exception e) {
+            bot.error = e;
+        }
+    }
+
+    public List<Bot> bots() {
+        return bots;
+    }
+
+    /**
+     * @return One line per bot with its tick latencies and dropped ticks.
+     */
+    public String report() {
+        StringBuilder result = new StringBuilder();
+        for (Bot bot : bots) {
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(String.format("%-30s ", bot));
+            Exception error = bot.error;
+            WebSocketRunner runner = bot.runner;
+            if (error != null) {
+                result.append("FAILED ").append(error);
+            } else if (runner == null) {
+                result.append("STARTING");
+            } else {
+                TickMetrics metrics = runner.metrics();
+                result.append(bot.isRunning() ? "RUNNING" : "DISCONNECTED")
+                        .append(' ').append(metrics.histogram(TickMetrics.Phase.TICK))
+                        .append(" dropped=").append(metrics.dropped());
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public void close() {
+        for (Bot bot : bots) {
+            WebSocketRunner runner = bot.runner;
+            if (runner != null) {
+                runner.close();
+            }
+        }
+        solvers.shutdownNow();
+        starters.shutdownNow();
+        try {
+            client.stop();
+        } catch (Exception e) {
+            // при выходе уже не важно
+        }
+    }
+
+    /**
+     * @param args Path to the fleet file (fleet.txt by default).
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String file = (args != null && args.length > 0) ? args[0] : "fleet.txt";
+        List<Bot> bots = parse(Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8));
+
+        // доски десятков ботов в консоли только мешают
+        WebSocketRunner.PRINT_TO_CONSOLE = false;
+        FleetRunner fleet = new FleetRunner(bots);
+        Runtime.getRuntime().addShutdownHook(new Thread(fleet::close));
+        fleet.start((long) WebSocketRunner.TIMEOUT * WebSocketRunner.ATTEMPTS);
+        System.out.println(fleet.report());
+
+        while (REPORT_PERIOD > 0) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(REPORT_PERIOD));
+            System.out.println(fleet.report());
+        }
+        Thread.currentThread().join();
+    }
+}
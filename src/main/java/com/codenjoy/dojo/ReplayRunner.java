@@ -0,0 +1,349 @@
+package com.codenjoy.dojo;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.client.ClientBoard;
+import com.codenjoy.dojo.client.Closeable;
+import com.codenjoy.dojo.client.LatencyHistogram;
+import com.codenjoy.dojo.client.Solver;
+import com.codenjoy.dojo.client.record.Recorder;
+import com.codenjoy.dojo.client.record.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.codenjoy.dojo.client.runner.ReflectLoader.loadJavaBoard;
+import static com.codenjoy.dojo.client.runner.ReflectLoader.loadJavaSolver;
+
+/**
+ * Replays games written by {@link Recorder} through the solver as fast as possible:
+ * no sockets, no sleeps, every board goes to {@link ClientBoard#forChars(CharSequence)}
+ * (as in {@link com.codenjoy.dojo.client.WebSocketRunner}) and {@link Solver#get(ClientBoard)},
+ * only these two are measured. Games are replayed in parallel
+ * on {@link ForkJoinPool} (one game - one task with its own solver and board,
+ * because solvers keep state between ticks).
+ * Answers are compared with recorded ones, so the same tool checks that
+ * optimized solver is faster and still behaves the same.
+ */
+public class ReplayRunner implements Closeable {
+
+    /**
+     * Сколько потоков проигрывают игры.
+     */
+    public static int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Сколько расхождений с записанными ответами запоминать для каждой игры.
+     */
+    public static int MAX_DIFFS = 10;
+
+    public static class Diff {
+
+        private final int tick;
+        private final String expected;
+        private final String actual;
+
+        public Diff(int tick, String expected, String actual) {
+            this.tick = tick;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public int tick() {
+            return tick;
+        }
+
+        public String expected() {
+            return expected;
+        }
+
+        public String actual() {
+            return actual;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%s '%s' != '%s'", tick, expected, actual);
+        }
+    }
+
+    public static class Game {
+
+        private final Path file;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final List<Diff> diffs = new ArrayList<>();
+        private int ticks;
+        private int differed;
+        private int errors;
+        private Exception error;
+
+        public Game(Path file) {
+            this.file = file;
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * @return Latency of {@code forString} + {@code get} per tick.
+         */
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        /**
+         * @return First {@link #MAX_DIFFS} answers that differ from recorded ones.
+         */
+        public List<Diff> diffs() {
+            return diffs;
+        }
+
+        public int ticks() {
+            return ticks;
+        }
+
+        /**
+         * @return Count of all answers that differ from recorded ones
+         *         (including ticks where solver failed).
+         */
+        public int differed() {
+            return differed;
+        }
+
+        /**
+         * @return Count of ticks where solver failed.
+         */
+        public int errors() {
+            return errors;
+        }
+
+        /**
+         * @return Error that stopped the whole game (can't read recording, can't load solver).
+         */
+        public Exception error() {
+            return error;
+        }
+
+        private void diff(int tick, String expected, String actual) {
+            differed++;
+            if (diffs.size() < MAX_DIFFS) {
+                diffs.add(new Diff(tick, expected, actual));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return file.getFileName().toString();
+        }
+    }
+
+    private final String game;
+    private final List<Game> games;
+    private final ForkJoinPool pool;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private Function<String, Solver> solverLoader = game -> loadJavaSolver(game);
+    private Function<String, ClientBoard> boardLoader = game -> loadJavaBoard(game);
+    private long ticks;
+    private long time;
+
+    public ReplayRunner(String game, List<Path> files) {
+        this(game, files, THREADS);
+    }
+
+    public ReplayRunner(String game, List<Path> files, int threads) {
+        this.game = game;
+        this.games = files.stream()
+                .map(Game::new)
+                .collect(Collectors.toList());
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * @param paths Recording files or directories with {@code *.rec} files.
+     * @return All recording files.
+     */
+    public static List<Path> files(List<Path> paths) throws IOException {
+        List<Path> result = new ArrayList<>();
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                result.add(path);
+                continue;
+            }
+            try (Stream<Path> stream = Files.list(path)) {
+                stream.filter(file -> file.getFileName().toString().endsWith(".rec"))
+                        .sorted()
+                        .forEach(result::add);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces loading of solver and board by game name (for tests).
+     */
+    void loaders(Function<String, Solver> solverLoader, Function<String, ClientBoard> boardLoader) {
+        this.solverLoader = solverLoader;
+        this.boardLoader = boardLoader;
+    }
+
+    /**
+     * Replays all games and waits for all of them,
+     * errors of every game are saved in {@link Game#error()}.
+     * @return This runner.
+     */
+    public ReplayRunner run() {
+        List<Callable<Game>> tasks = games.stream()
+                .map(game -> (Callable<Game>) () -> replay(game))
+                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        pool.invokeAll(tasks);
+        time = System.nanoTime() - start;
+        ticks = games.stream().mapToLong(Game::ticks).sum();
+        return this;
+    }
+
+    private Game replay(Game game) {
+        Recording recording = null;
+        try {
+            recording = Recording.open(game.file);
+            Solver solver = solverLoader.apply(this.game);
+            ClientBoard board = boardLoader.apply(this.game);
+            for (int index = 0; index < recording.size(); index++) {
+                replay(game, recording.tick(index), solver, board);
+            }
+        } catch (Exception e) {
+            game.error = e;
+        } finally {
+            if (recording != null) {
+                recording.close();
+            }
+        }
+        return game;
+    }
+
+    private void replay(Game game, Recording.Tick tick, Solver solver, ClientBoard board) {
+        String expected = tick.answer();
+        String answer;
+        // склеивание фрейма из записи не входит в замер, как и прием фрейма у живого клиента
+        String frame = tick.frame();
+        long start = System.nanoTime();
+        try {
+            answer = solver.get(board.forChars(frame));
+        } catch (Exception e) {
+            game.errors++;
+            answer = "ERROR " + e;
+        }
+        long nanos = System.nanoTime() - start;
+        game.latency.record(nanos);
+        latency.record(nanos);
+        game.ticks++;
+        if (!Objects.equals(expected, answer)) {
+            game.diff(tick.index(), expected, answer);
+        }
+    }
+
+    public List<Game> games() {
+        return games;
+    }
+
+    /**
+     * @return Latency of all ticks of all games.
+     */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * @return Count of replayed ticks of all games.
+     */
+    public long ticks() {
+        return ticks;
+    }
+
+    /**
+     * @return Solver decisions per second (wall time of the whole replay).
+     */
+    public double throughput() {
+        return (time == 0) ? 0 : ticks * 1_000_000_000.0 / time;
+    }
+
+    /**
+     * @return Total throughput and latencies, then one line per game
+     *         with its diffs against recorded answers.
+     */
+    public String report() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format(Locale.US,
+                "games=%s ticks=%s time=%sms decisions/sec=%.1f latency: %s",
+                games.size(), ticks, time / 1_000_000, throughput(), latency));
+        for (Game game : games) {
+            result.append('\n').append(String.format("%-30s ", game));
+            if (game.error != null) {
+                result.append("FAILED ").append(game.error);
+                continue;
+            }
+            result.append(String.format("ticks=%s differed=%s errors=%s %s",
+                    game.ticks, game.differed, game.errors, game.latency));
+            for (Diff diff : game.diffs) {
+                result.append("\n    ").append(diff);
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param args Game name and recording files (or directories with them).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args == null || args.length < 2) {
+            System.out.println("Usage: ReplayRunner <game> <file.rec|directory>...");
+            return;
+        }
+        List<Path> paths = Stream.of(args).skip(1)
+                .map(Paths::get)
+                .collect(Collectors.toList());
+        ReplayRunner runner = new ReplayRunner(args[0], files(paths));
+        try {
+            System.out.println(runner.run().report());
+        } finally {
+            runner.close();
+        }
+    }
+}
@@ -23,11 +23,18 @@ package com.codenjoy.dojo.client;
  */
 
 
+import com.codenjoy.dojo.services.IntIntConsumer;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.IntPointList;
 import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointBitSet;
 import com.codenjoy.dojo.services.printer.CharElement;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
 
 public abstract class AbstractBoard<E extends CharElement> extends AbstractLayeredBoard<E> {
 
@@ -45,13 +52,60 @@ public abstract class AbstractBoard<E extends CharElement> extends AbstractLayer
      * @return All positions of element specified.
      */
     public List<Point> get(E... elements) {
-        List<Point> result = new LinkedList<>();
+        List<Point> result = new ArrayList<>();
+        forEachAt((x, y) -> result.add(pt(x, y)), elements);
+        return result;
+    }
+
+    /**
+     * Allocation free version of {@link #get(CharElement[])}.
+     * @param action Consumer of X and Y coordinates of all found positions.
+     * @param elements List of elements that we try to find.
+     */
+    public void forEachAt(IntIntConsumer action, E... elements) {
         for (int layer = 0; layer < countLayers(); ++layer) {
-            result.addAll(layer(layer).get(elements));
+            layer(layer).forEach(action, elements);
         }
+    }
+
+    /**
+     * Version of {@link #get(CharElement[])} without boxing.
+     * @param elements List of elements that we try to find.
+     * @return Cell ids (see {@link #xy()}) of all positions of element specified.
+     */
+    public IntPointList getIds(E... elements) {
+        IntPointList result = new IntPointList(xy());
+        forEachAt(result::add, elements);
         return result;
     }
 
+    /**
+     * Version of {@link #get(CharElement[])} for fast {@code contains} checks.
+     * @param elements List of elements that we try to find.
+     * @return Set of all (unique) positions of element specified.
+     */
+    public PointBitSet getBits(E... elements) {
+        PointBitSet result = new PointBitSet(xy());
+        forEachAt(result::add, elements);
+        return result;
+    }
+
+    /**
+     * Allocation free version of {@link #getFirst(CharElement[])}.
+     * @param elements List of elements that we try to find.
+     * @return First found position of element specified packed
+     *         into int with {@link #xy()} or -1 if not found.
+     */
+    public int firstIndexOf(E... elements) {
+        for (int layer = 0; layer < countLayers(); ++layer) {
+            int cell = layer(layer).firstCell(elements);
+            if (cell != -1) {
+                return xy().length(cell / size, cell % size);
+            }
+        }
+        return -1;
+    }
+
     /**
      * @param elements List of elements that we try to find.
      * @return First found position of element specified.
@@ -66,13 +120,31 @@ public abstract class AbstractBoard<E extends CharElement> extends AbstractLayer
         return null;
     }
 
+    /**
+     * @param elements List of elements that we try to count.
+     * @return Count of all positions (on all layers) of element specified.
+     */
+    public int count(E... elements) {
+        int result = 0;
+        for (int layer = 0; layer < countLayers(); ++layer) {
+            result += layer(layer).count(elements);
+        }
+        return result;
+    }
+
     // TODO сделать более защищенным метод добавив проверку isOutOfField
     public E getAt(int x, int y) {
-        List<E> at = getAllAt(x, y);
-        if (at.isEmpty()) {
-            return null;
-        }
-        return at.get(0);
+        return getAt(Layers.LAYER1, x, y);
+    }
+
+    /**
+     * @param layer Layer number (from 0).
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Element at position specified on given layer.
+     */
+    public E getAt(int layer, int x, int y) {
+        return layer(layer).getAt(x, y);
     }
 
     public E getAt(Point pt) {
@@ -80,15 +152,15 @@ public abstract class AbstractBoard<E extends CharElement> extends AbstractLayer
     }
 
     public List<E> getAllAt(int x, int y) {
-        List<E> result = new LinkedList<>();
+        List<E> result = new ArrayList<>(countLayers());
         for (int layer = 0; layer < countLayers(); ++layer) {
-            result.add(layer(layer).getAt(x, y));
+            result.add(getAt(layer, x, y));
         }
         return result;
     }
 
     protected List<Character> field(int x, int y) {
-        List<Character> result = new LinkedList<>();
+        List<Character> result = new ArrayList<>(countLayers());
         for (int layer = 0; layer < countLayers(); ++layer) {
             result.add(layer(layer).field(x, y));
         }
@@ -138,6 +210,65 @@ public abstract class AbstractBoard<E extends CharElement> extends AbstractLayer
         return isAt(pt.getX(), pt.getY(), elements);
     }
 
+    /**
+     * Predicate version of {@link #isAt(int, int, CharElement[])}.
+     * Useful as barrier or target for {@link com.codenjoy.dojo.services.path.PathFinder}.
+     * @param elements List of elements that we try to detect.
+     * @return Predicate that says if any of this elements is at given position.
+     */
+    public IntIntPredicate predicate(E... elements) {
+        return (x, y) -> isAt(x, y, elements);
+    }
+
+    /**
+     * Fast version of {@link #isAt(int, int, CharElement[])}:
+     * one lookup by char per layer.
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @param category Compiled group of elements.
+     * @return true is any of this elements was found.
+     */
+    public boolean isAt(int x, int y, Category<E> category) {
+        if (isOutOf(x, y)) {
+            return false;
+        }
+
+        for (int layer = 0; layer < countLayers(); ++layer) {
+            if (category.has(layer(layer).field(x, y))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isAt(Point pt, Category<E> category) {
+        return isAt(pt.getX(), pt.getY(), category);
+    }
+
+    public IntIntPredicate predicate(Category<E> category) {
+        return (x, y) -> isAt(x, y, category);
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @param elements List of elements that we try to detect on this point.
+     * @return Count of layers that have any of this elements at given position.
+     */
+    public int countAt(int x, int y, E... elements) {
+        if (isOutOf(x, y)) {
+            return 0;
+        }
+
+        int result = 0;
+        for (int layer = 0; layer < countLayers(); ++layer) {
+            if (layer(layer).isAt(x, y, elements)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
     /**
      * Says if near (at left, at right, at up, at down) given position (X, Y) at given layer exists given element.
      * @param x X coordinate.
@@ -187,13 +318,21 @@ public abstract class AbstractBoard<E extends CharElement> extends AbstractLayer
      *     left-down, left-up, right-down, right-up) position.
      */
     public List<E> getNear(int x, int y) {
-        List<E> result = new LinkedList<>();
+        List<E> result = new ArrayList<>(8 * countLayers());
+        forEachNear(x, y, result::add);
+        return result;
+    }
 
+    /**
+     * Allocation free version of {@link #getNear(int, int)}.
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @param action Consumer of all elements around position.
+     */
+    public void forEachNear(int x, int y, Consumer<E> action) {
         for (int layer = 0; layer < countLayers(); ++layer) {
-            result.addAll(layer(layer).getNear(x, y));
+            layer(layer).forEachNear(x, y, action);
         }
-
-        return result;
     }
 
     public List<E> getNear(Point pt) {
@@ -23,17 +23,21 @@ package com.codenjoy.dojo.client;
  */
 
 
+import com.codenjoy.dojo.services.IntIntConsumer;
+import com.codenjoy.dojo.services.LengthToXY;
 import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.path.DistanceCache;
 import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
 import com.codenjoy.dojo.services.printer.CharElement;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 import static com.codenjoy.dojo.services.PointImpl.pt;
 
@@ -41,12 +45,51 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
 
     public static final String LAYERS = "layers";
 
+    // доски, которые сами разбирают строку в forString, читают только через него
+    private static final ClassValue<Boolean> CUSTOM_PARSING = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isOverridden(type, String.class)
+                    || isOverridden(type, String[].class);
+        }
+    };
+
     protected int size;
+    private LengthToXY xy;
     private char[][][] field;
     private GetLayer[] layers;
     protected JSONObject source;
-    protected List<String> layersString = new LinkedList<>();
+    private CharSequence[] layersData;
+    private String[] layersCache;
+
+    /**
+     * Layers of the current tick as strings, every string is made
+     * only when it is asked (layers are decoded straight from the chars).
+     * Read only, the same list for all ticks.
+     */
+    protected final List<String> layersString = new AbstractList<>() {
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size());
+            if (layersCache == null || layersCache.length != layersData.length) {
+                layersCache = new String[layersData.length];
+            }
+            if (layersCache[index] == null) {
+                layersCache[index] = layersData[index].toString();
+            }
+            return layersCache[index];
+        }
+
+        @Override
+        public int size() {
+            return (layersData == null) ? 0 : layersData.length;
+        }
+    };
+    private BoardJsonReader reader;
     private ElementsMap<E> elements;
+    private boolean reuseBuffers;
+    private BoardDiff<E> diff;
+    private List<Consumer<BoardDiff<E>>> listeners = new ArrayList<>();
 
     public ClientBoard forString(String boardString) {
         if (boardString.contains(LAYERS)) {
@@ -59,31 +102,192 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
     }
 
     public ClientBoard forString(String... layers) {
+        return forLayers(layers);
+    }
+
+    /**
+     * Zero-copy version of {@link #forString(String)}: json is read
+     * with the streaming {@link BoardJsonReader}, layers are decoded
+     * straight from the input, {@link #source} gets all fields except layers.
+     * Boards that override {@code forString} get the copied string instead,
+     * so their own parsing is not skipped.
+     * @param input Board, should not be changed till the next call.
+     * @return This board.
+     */
+    @Override
+    public ClientBoard forChars(CharSequence input) {
+        if (CUSTOM_PARSING.get(getClass())) {
+            return forString(input.toString());
+        }
+        if (!isJson(input)) {
+            return forLayers(input);
+        }
+        reader = (reader != null) ? reader : new BoardJsonReader();
+        if (!reader.read(input)) {
+            return forString(input.toString());
+        }
+        source = reader.fields();
+        return forLayers(reader.layers());
+    }
+
+    private static boolean isOverridden(Class<?> type, Class<?> parameter) {
+        try {
+            Class<?> owner = type.getMethod("forString", parameter).getDeclaringClass();
+            return owner != AbstractLayeredBoard.class && owner != AbstractBoard.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isJson(CharSequence input) {
+        for (int index = 0; index < input.length(); index++) {
+            char ch = input.charAt(index);
+            if (!Character.isWhitespace(ch)) {
+                return ch == '{';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodes layers straight from given char sequences, all line
+     * breaks are skipped. If {@link #setReuseBuffers(boolean)} is on
+     * and neither board size nor count of layers is changed since
+     * the previous call, all buffers of the board are reused.
+     * While decoding, every cell is compared with the previous tick,
+     * changes are available in {@link #diff()} and are sent to all
+     * listeners registered with {@link #addDiffListener(Consumer)}.
+     * @param layers Board layers (one char per cell).
+     * @return This board.
+     */
+    @PerformanceOptimized
+    public ClientBoard forLayers(CharSequence... layers) {
         elements = (elements != null) ? elements : new ElementsMap<>(elements());
-        layersString.clear();
-        layersString.addAll(Arrays.asList(layers));
+        diff = (diff != null) ? diff : new BoardDiff<>(elements);
+        // строки слоев создаем только если их попросят
+        layersData = layers;
+        if (layersCache != null) {
+            Arrays.fill(layersCache, null);
+        }
 
-        String board = layers[0].replaceAll("\n", "");
-        size = (int) Math.sqrt(board.length());
-        field = new char[layers.length][size][size];
-        this.layers = new AbstractLayeredBoard.GetLayer[layers.length];
+        int size = (int) Math.sqrt(length(layers[0]));
+        boolean same = field != null
+                && field.length == layers.length
+                && this.size == size;
+        boolean reuse = reuseBuffers && same;
+        char[][][] previous = same ? field : null;
+        diff.clear(size, !same);
+        this.size = size;
+        if (xy == null || xy.size() != size) {
+            xy = new LengthToXY(size);
+        }
+        if (!reuse) {
+            field = new char[layers.length][size][size];
+            this.layers = new AbstractLayeredBoard.GetLayer[layers.length];
+        }
 
         for (int layer = 0; layer < layers.length; ++layer) {
-            board = layers[layer].replaceAll("\n", "");
-            this.layers[layer] = new GetLayer(layer);
-
-            char[] temp = board.toCharArray();
+            GetLayer getLayer = reuse
+                    ? this.layers[layer]
+                    : (this.layers[layer] = new GetLayer(layer));
+            LayerIndex index = getLayer.index;
+            char[][] before = (previous != null) ? previous[layer] : null;
+
+            CharSequence board = layers[layer];
+            int position = 0;
             for (int y = 0; y < size; y++) {
-                int dy = y * size;
                 for (int x = 0; x < size; x++) {
-                    field[layer][inversionX(x)][inversionY(y)] = temp[dy + x];
+                    char ch = board.charAt(position++);
+                    while (ch == '\n') {
+                        ch = board.charAt(position++);
+                    }
+                    int xx = inversionX(x);
+                    int yy = inversionY(y);
+                    int cell = cell(xx, yy);
+                    if (before != null) {
+                        char old = before[xx][yy];
+                        if (old != ch) {
+                            diff.add(layer, xx, yy, old, ch);
+                            if (reuse) {
+                                // индекс обновляем только для изменившихся клеток
+                                index.remove(elements.slot(old), cell);
+                                index.add(elements.slot(ch), cell);
+                            }
+                        }
+                    }
+                    if (!reuse) {
+                        index.add(elements.slot(ch), cell);
+                    }
+                    field[layer][xx][yy] = ch;
                 }
             }
         }
 
+        for (int index = 0; index < listeners.size(); index++) {
+            listeners.get(index).accept(diff);
+        }
+
         return this;
     }
 
+    private static int length(CharSequence layer) {
+        int result = layer.length();
+        for (int index = 0; index < layer.length(); index++) {
+            if (layer.charAt(index) == '\n') {
+                result--;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Turns on reuse mode: if board size and count of layers are
+     * the same as on the previous tick, {@link #forLayers(CharSequence...)}
+     * rewrites existing field arrays, layers and indexes instead of
+     * allocating new ones. Do not keep references to {@link GetLayer#field()}
+     * between ticks in this mode.
+     * @param reuseBuffers true to turn reuse mode on.
+     */
+    public void setReuseBuffers(boolean reuseBuffers) {
+        this.reuseBuffers = reuseBuffers;
+    }
+
+    public boolean isReuseBuffers() {
+        return reuseBuffers;
+    }
+
+    /**
+     * @return Changes made on the board by the last
+     *         {@link #forLayers(CharSequence...)} call.
+     */
+    public BoardDiff<E> diff() {
+        return diff;
+    }
+
+    /**
+     * @param listener Will be called with {@link #diff()} every time
+     *                 when the board is parsed.
+     */
+    public void addDiffListener(Consumer<BoardDiff<E>> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeDiffListener(Consumer<BoardDiff<E>> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param cache Will be invalidated every time when
+     *              the board is parsed and something was changed.
+     */
+    public void invalidateOnChange(DistanceCache cache) {
+        addDiffListener(diff -> {
+            if (diff.isReset() || !diff.isEmpty()) {
+                cache.invalidate();
+            }
+        });
+    }
+
     protected int inversionX(int x) {
         return x;
     }
@@ -92,6 +296,15 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
         return y;
     }
 
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Number of the cell in {@link LayerIndex}.
+     */
+    protected int cell(int x, int y) {
+        return x * size + y;
+    }
+
     /**
      * Метод уточняет, что являетсяся оперделением "вокруг" героя.
      * @return true - если стоит не учитывать диагональные углы.
@@ -100,6 +313,12 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
         return false;
     }
 
+    /**
+     * Note that {@link LayerIndex} matches elements by identity,
+     * so all index based methods ({@link GetLayer#get(CharElement[])},
+     * {@link GetLayer#getFirst(CharElement[])}, {@link GetLayer#count(CharElement[])})
+     * use this method only to check cells that were already found.
+     */
     protected boolean isEquals(E e1, E e2) {
         return e1 == e2;
     }
@@ -115,6 +334,14 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
         return size;
     }
 
+    /**
+     * @return Converter between X, Y coordinates and
+     *         packed int cell id (position in the board string).
+     */
+    public LengthToXY xy() {
+        return xy;
+    }
+
     public static class Layers {
         public final static int LAYER1 = 0;
         public final static int LAYER2 = 1;
@@ -132,6 +359,7 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
     public class GetLayer {
 
         private char[][] layerField;
+        private LayerIndex index;
 
         /**
          * @param layer Layer number (from 0).
@@ -139,32 +367,72 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
         @PerformanceOptimized
         public GetLayer(int layer) {
             layerField = field[layer];
+            index = new LayerIndex(elements.slots(), size * size);
         }
 
         public E fieldElement(int x, int y) {
             return valueOf(layerField[x][y]);
         }
 
-        private void getAnd(Function<Point, Boolean> function, E... elements) {
-            for (int x = 0; x < size; x++) {
-                for (int y = 0; y < size; y++) {
+        private long word(int word, E... elements) {
+            long result = 0;
+            for (E element : elements) {
+                result |= index.word(AbstractLayeredBoard.this.elements.slot(element), word);
+            }
+            return result;
+        }
+
+        /**
+         * Calls action for all positions of element specified
+         * without any allocation. Positions are processed in the same
+         * order as {@link #get(CharElement[])} returns them.
+         *
+         * @param action   Consumer of X and Y coordinates.
+         * @param elements List of elements that we try to find.
+         */
+        @PerformanceOptimized
+        public void forEach(IntIntConsumer action, E... elements) {
+            for (int word = 0; word < index.words(); word++) {
+                long bits = word(word, elements);
+                while (bits != 0) {
+                    int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    int x = cell / size;
+                    int y = cell % size;
                     E value = fieldElement(x, y);
                     for (E element : elements) {
                         if (isEquals(value, element)) {
-                            if (!function.apply(pt(x, y))) return;
+                            action.accept(x, y);
                         }
                     }
                 }
             }
         }
 
+        /**
+         * @param elements List of elements that we try to find.
+         * @return Number of the first found cell (see {@link #cell(int, int)})
+         *         with element specified or -1 if not found.
+         */
+        @PerformanceOptimized
+        public int firstCell(E... elements) {
+            for (int word = 0; word < index.words(); word++) {
+                long bits = word(word, elements);
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+            return -1;
+        }
+
         /**
          * @param elements List of elements that we try to find.
          * @return All positions of element specified.
          */
         public List<Point> get(E... elements) {
-            List<Point> result = new LinkedList<>();
-            getAnd(pt -> { result.add(pt); return true; }, elements);
+            List<Point> result = new ArrayList<>();
+            forEach((x, y) -> result.add(pt(x, y)), elements);
             return result;
         }
 
@@ -173,9 +441,24 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
          * @return First found position of element specified.
          */
         public Point getFirst(E... elements) {
-            AtomicReference<Point> result = new AtomicReference<>();
-            getAnd(pt -> { result.set(pt); return false; }, elements);
-            return result.get();
+            int cell = firstCell(elements);
+            if (cell == -1) {
+                return null;
+            }
+            return pt(cell / size, cell % size);
+        }
+
+        /**
+         * @param elements List of elements that we try to count.
+         * @return Count of cells with any of given elements.
+         */
+        @PerformanceOptimized
+        public int count(E... elements) {
+            int result = 0;
+            for (E element : elements) {
+                result += index.count(AbstractLayeredBoard.this.elements.slot(element));
+            }
+            return result;
         }
 
         /**
@@ -259,51 +542,89 @@ public abstract class AbstractLayeredBoard<E extends CharElement> implements Cli
          * (at left, right, down, up,
          * left-down, left-up, right-down, right-up) {x,y} point.
          */
+        @PerformanceOptimized
         public int countNear(int x, int y, E element) {
             if (isOutOf(x, y)) {
                 return 0;
             }
-            return (int) getNear(x, y).stream()
-                    .filter( it -> isEquals(it, element))
-                    .count();
+            int result = 0;
+            int radius = 1;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dy = -radius; dy <= radius; dy++) {
+                    if (isNeighbour(x, y, dx, dy)
+                            && isEquals(getAt(x + dx, y + dy), element))
+                    {
+                        result++;
+                    }
+                }
+            }
+            return result;
         }
 
         /**
+         * Calls action for all elements around
+         * (at left, right, down, up,
+         * left-down, left-up, right-down, right-up) position
+         * in the same order as {@link #getNear(int, int)} returns them.
+         *
          * @param x        X coordinate.
          * @param y        Y coordinate.
-         * @return All elements around
-         * (at left, right, down, up,
-         * left-down, left-up, right-down, right-up) position.
+         * @param action   Consumer of found elements.
          */
-        public List<E> getNear(int x, int y) {
-            List<E> result = new LinkedList<>();
-
+        @PerformanceOptimized
+        public void forEachNear(int x, int y, Consumer<E> action) {
             int radius = 1;
             for (int dx = -radius; dx <= radius; dx++) {
                 for (int dy = -radius; dy <= radius; dy++) {
-                    if (isOutOf(x + dx, y + dy)) {
-                        continue;
+                    if (isNeighbour(x, y, dx, dy)) {
+                        action.accept(getAt(x + dx, y + dy));
                     }
-                    if (dx == 0 && dy == 0) {
-                        continue;
-                    }
-                    if (withoutCorners() && (dx != 0 && dy != 0)) {
-                        continue;
-                    }
-                    result.add(getAt(x + dx, y + dy));
                 }
             }
+        }
 
+        private boolean isNeighbour(int x, int y, int dx, int dy) {
+            if (isOutOf(x + dx, y + dy)) {
+                return false;
+            }
+            if (dx == 0 && dy == 0) {
+                return false;
+            }
+            return !withoutCorners() || dx == 0 || dy == 0;
+        }
+
+        /**
+         * @param x        X coordinate.
+         * @param y        Y coordinate.
+         * @return All elements around
+         * (at left, right, down, up,
+         * left-down, left-up, right-down, right-up) position.
+         */
+        public List<E> getNear(int x, int y) {
+            List<E> result = new ArrayList<>(8);
+            forEachNear(x, y, result::add);
             return result;
         }
 
         public void set(int x, int y, char ch) {
+            int cell = cell(x, y);
+            index.remove(elements.slot(layerField[x][y]), cell);
             layerField[x][y] = ch;
+            index.add(elements.slot(ch), cell);
         }
 
+        /**
+         * Be careful: changes made directly in this array
+         * are not visible for {@link LayerIndex}, use {@link #set(int, int, char)}.
+         * @return Raw field of the layer.
+         */
         public char[][] field() {
             return layerField;
         }
+
+        public LayerIndex index() {
+            return index;
+        }
     }
 
     public int countLayers() {
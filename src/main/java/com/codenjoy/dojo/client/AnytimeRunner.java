@@ -0,0 +1,104 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@link AnytimeSolver} in a separate thread and returns the best
+ * answer published till the deadline.
+ */
+public class AnytimeRunner implements Closeable {
+
+    private final ExecutorService executor;
+    private Future<?> search;
+    private Deadline deadline;
+
+    public AnytimeRunner() {
+        executor = Executors.newSingleThreadExecutor(Threads.factory("anytime-solver-"));
+    }
+
+    /**
+     * @param solver Solver.
+     * @param board Board, should not be changed till {@link #await()}.
+     * @param deadline Deadline.
+     * @return Best answer published till the deadline (or till
+     *         the end of the search if it was finished earlier).
+     */
+    public <B extends ClientBoard> String get(AnytimeSolver<B> solver, B board, Deadline deadline) {
+        await();
+        this.deadline = deadline;
+        search = executor.submit(() -> solver.solve(board, deadline));
+        try {
+            search.get(deadline.remaining(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            deadline.cancel();
+        } catch (InterruptedException e) {
+            deadline.cancel();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            deadline.cancel();
+            if (!deadline.hasAnswer()) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        return deadline.best();
+    }
+
+    /**
+     * Waits till the previous search finishes (it was already cancelled),
+     * after that the board could be changed.
+     */
+    public void await() {
+        if (search == null) {
+            return;
+        }
+        deadline.cancel();
+        try {
+            search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // ошибка уже обработана в get
+        }
+        search = null;
+    }
+
+    public boolean isSearching() {
+        return search != null && !search.isDone();
+    }
+
+    @Override
+    public void close() {
+        if (deadline != null) {
+            deadline.cancel();
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * AI that can use all the time available in the tick: it receives
+ * a {@link Deadline}, publishes better and better answers with
+ * {@link Deadline#publish(String)} and should stop searching
+ * as soon as {@link Deadline#isExpired()}.
+ *
+ * When run by {@link WebSocketRunner} the best answer published so far
+ * is sent at the deadline even if the search is still in progress.
+ * @param <B> реализация {@link AbstractBoard} для текущей игры
+ */
+@FunctionalInterface
+public interface AnytimeSolver<B extends ClientBoard> extends Solver<B> {
+
+    /**
+     * Время на ход, если solver вызывают как обычный {@link Solver}.
+     */
+    long DEFAULT_BUDGET = 500_000_000L;
+
+    /**
+     * Ищет ход, пока не истечет время.
+     * @param board объект инкапсулирующий доску
+     * @param deadline сюда публикуем найденные команды и тут же проверяем не пора ли остановиться
+     */
+    void solve(B board, Deadline deadline);
+
+    @Override
+    default String get(B board) {
+        Deadline deadline = Deadline.in(DEFAULT_BUDGET);
+        solve(board, deadline);
+        return deadline.best();
+    }
+}
@@ -0,0 +1,149 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Console output off the tick path: messages are put into a bounded
+ * ring buffer and written by the background thread. When the buffer
+ * is full the message is dropped instead of blocking the caller.
+ */
+public class AsyncConsole implements Closeable {
+
+    public static final int CAPACITY = 1024;
+
+    private final BlockingQueue<String> buffer;
+    private final PrintStream out;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private final AtomicLong pending = new AtomicLong();
+    private final Lock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+
+    public AsyncConsole(OutputStream out) {
+        this(out, CAPACITY);
+    }
+
+    public AsyncConsole(OutputStream out, int capacity) {
+        this.out = new PrintStream(out, false, StandardCharsets.UTF_8);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::loop, "console");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loop() {
+        while (true) {
+            String message;
+            try {
+                message = buffer.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            out.println(message);
+            // сбрасываем только когда буфер опустел, чтобы не писать построчно
+            if (buffer.isEmpty()) {
+                out.flush();
+            }
+            if (pending.decrementAndGet() == 0) {
+                signalDrained();
+            }
+        }
+        out.flush();
+        signalDrained();
+    }
+
+    private void signalDrained() {
+        lock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Never blocks.
+     * @param message Message to print.
+     * @return false if buffer is full and message was dropped.
+     */
+    public boolean print(String message) {
+        pending.incrementAndGet();
+        if (buffer.offer(message)) {
+            return true;
+        }
+        pending.decrementAndGet();
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return Count of messages dropped because the buffer was full.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits till all buffered messages are written.
+     * @param millis Max time to wait.
+     * @return true if everything was written.
+     */
+    public boolean flush(long millis) {
+        long left = TimeUnit.MILLISECONDS.toNanos(millis);
+        lock.lock();
+        try {
+            // ждем сигнала писателя, а не крутимся - завершение не должно грузить ядро
+            while (pending.get() != 0) {
+                if (left <= 0 || !thread.isAlive()) {
+                    return false;
+                }
+                left = drained.awaitNanos(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        out.flush();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        flush(TimeUnit.SECONDS.toMillis(1));
+        thread.interrupt();
+    }
+}
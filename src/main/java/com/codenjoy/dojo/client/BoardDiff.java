@@ -0,0 +1,218 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.IntIntConsumer;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+import com.codenjoy.dojo.services.printer.CharElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.codenjoy.dojo.services.PointImpl.pt;
+
+/**
+ * Cells that were changed on the board since the previous tick.
+ * Every change is kept as primitive values: packed layer and cell
+ * plus chars before and after the change, so the diff does not
+ * allocate anything while the board is parsed.
+ *
+ * If {@link #isReset()} is true, there is no previous tick to compare
+ * with (first tick, board size or count of layers was changed)
+ * and all caches based on the board should be rebuilt from scratch.
+ */
+@PerformanceOptimized
+public class BoardDiff<E extends CharElement> {
+
+    private static final int LAYER_BITS = 8;
+    private static final int LAYER_MASK = (1 << LAYER_BITS) - 1;
+
+    private final ElementsMap<E> elements;
+    private int size;
+    private boolean reset = true;
+    private int count;
+    private int[] changes = new int[16];
+    private char[] before = new char[16];
+    private char[] after = new char[16];
+
+    BoardDiff(ElementsMap<E> elements) {
+        this.elements = elements;
+    }
+
+    void clear(int size, boolean reset) {
+        this.size = size;
+        this.reset = reset;
+        count = 0;
+    }
+
+    void add(int layer, int x, int y, char before, char after) {
+        if (count == changes.length) {
+            int length = count * 2;
+            changes = Arrays.copyOf(changes, length);
+            this.before = Arrays.copyOf(this.before, length);
+            this.after = Arrays.copyOf(this.after, length);
+        }
+        changes[count] = ((x * size + y) << LAYER_BITS) | layer;
+        this.before[count] = before;
+        this.after[count] = after;
+        count++;
+    }
+
+    /**
+     * @return true if previous tick is unknown and diff is empty,
+     *         so everything should be recalculated.
+     */
+    public boolean isReset() {
+        return reset;
+    }
+
+    /**
+     * @return Count of changed cells (on all layers).
+     */
+    public int count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @param index Number of change from 0 to {@link #count()}.
+     * @return Layer of the changed cell.
+     */
+    public int layer(int index) {
+        return changes[index] & LAYER_MASK;
+    }
+
+    /**
+     * @param index Number of change from 0 to {@link #count()}.
+     * @return X coordinate of the changed cell.
+     */
+    public int x(int index) {
+        return (changes[index] >>> LAYER_BITS) / size;
+    }
+
+    /**
+     * @param index Number of change from 0 to {@link #count()}.
+     * @return Y coordinate of the changed cell.
+     */
+    public int y(int index) {
+        return (changes[index] >>> LAYER_BITS) % size;
+    }
+
+    /**
+     * @param index Number of change from 0 to {@link #count()}.
+     * @return Char that was in the cell on the previous tick.
+     */
+    public char before(int index) {
+        return before[index];
+    }
+
+    /**
+     * @param index Number of change from 0 to {@link #count()}.
+     * @return Char that is in the cell now.
+     */
+    public char after(int index) {
+        return after[index];
+    }
+
+    /**
+     * Calls action for all cells where any of given elements appeared.
+     * @param action Consumer of X and Y coordinates.
+     * @param elements Elements that we are interested in.
+     */
+    public void forEachAdded(IntIntConsumer action, E... elements) {
+        for (int index = 0; index < count; index++) {
+            if (is(after[index], elements) && !is(before[index], elements)) {
+                action.accept(x(index), y(index));
+            }
+        }
+    }
+
+    /**
+     * Calls action for all cells where any of given elements disappeared.
+     * @param action Consumer of X and Y coordinates.
+     * @param elements Elements that we are interested in.
+     */
+    public void forEachRemoved(IntIntConsumer action, E... elements) {
+        for (int index = 0; index < count; index++) {
+            if (is(before[index], elements) && !is(after[index], elements)) {
+                action.accept(x(index), y(index));
+            }
+        }
+    }
+
+    /**
+     * @param elements Elements that we are interested in.
+     * @return All positions where any of given elements appeared.
+     */
+    public List<Point> added(E... elements) {
+        List<Point> result = new ArrayList<>();
+        forEachAdded((x, y) -> result.add(pt(x, y)), elements);
+        return result;
+    }
+
+    /**
+     * @param elements Elements that we are interested in.
+     * @return All positions where any of given elements disappeared.
+     */
+    public List<Point> removed(E... elements) {
+        List<Point> result = new ArrayList<>();
+        forEachRemoved((x, y) -> result.add(pt(x, y)), elements);
+        return result;
+    }
+
+    private boolean is(char ch, E... elements) {
+        int slot = this.elements.slot(ch);
+        if (slot == -1) {
+            return false;
+        }
+        for (E element : elements) {
+            if (this.elements.slot(element) == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (reset) {
+            return "[reset]";
+        }
+        StringBuilder result = new StringBuilder("[");
+        for (int index = 0; index < count; index++) {
+            if (index > 0) {
+                result.append(", ");
+            }
+            result.append(String.format("%s:[%s,%s]'%s'->'%s'",
+                    layer(index), x(index), y(index),
+                    before[index], after[index]));
+        }
+        return result.append(']').toString();
+    }
+}
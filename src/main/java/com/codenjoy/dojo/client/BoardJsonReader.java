@@ -0,0 +1,289 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of the layered board json ({@code {"layers":[...], ...}}).
+ * Layers are not copied: they are returned as {@link CharSlice} views
+ * over the source (only layers with escape sequences are decoded,
+ * into reusable buffers). All other top level fields are collected
+ * into the small {@link JSONObject} without layers.
+ */
+@PerformanceOptimized
+public class BoardJsonReader {
+
+    private final List<CharSlice> slices = new ArrayList<>();
+    private final List<StringBuilder> buffers = new ArrayList<>();
+    private CharSequence[] layers = new CharSequence[0];
+    private JSONObject fields;
+    private CharSequence data;
+    private int position;
+    private int count;
+
+    /**
+     * @param data Board json. Should not be changed while
+     *             layers of this reader are in use.
+     * @return false if there is no layers in the json.
+     */
+    public boolean read(CharSequence data) {
+        this.data = data;
+        position = 0;
+        count = -1;
+        fields = new JSONObject();
+
+        expect('{');
+        if (peek() == '}') {
+            position++;
+        } else {
+            do {
+                String key = readString();
+                expect(':');
+                if (AbstractLayeredBoard.LAYERS.equals(key) && peek() == '[') {
+                    readLayers();
+                } else {
+                    fields.put(key, readValue());
+                }
+            } while (next() == ',');
+            if (data.charAt(--position) != '}') {
+                throw error("Expected ',' or '}'");
+            }
+            position++;
+        }
+        this.data = null;
+        return count != -1;
+    }
+
+    /**
+     * @return Layers of the last read json, the array is reused
+     *         while count of layers is the same.
+     */
+    public CharSequence[] layers() {
+        return layers;
+    }
+
+    /**
+     * @return All top level fields of the last read json except layers.
+     */
+    public JSONObject fields() {
+        return fields;
+    }
+
+    private void readLayers() {
+        expect('[');
+        count = 0;
+        if (peek() == ']') {
+            position++;
+        } else {
+            do {
+                readLayer(count++);
+            } while (next() == ',');
+            if (data.charAt(--position) != ']') {
+                throw error("Expected ',' or ']'");
+            }
+            position++;
+        }
+        if (layers.length != count) {
+            layers = new CharSequence[count];
+        }
+        for (int index = 0; index < count; index++) {
+            layers[index] = slices.get(index);
+        }
+    }
+
+    private void readLayer(int index) {
+        if (slices.size() == index) {
+            slices.add(new CharSlice());
+            buffers.add(new StringBuilder());
+        }
+        expect('"');
+        int start = position;
+        int length = data.length();
+        while (position < length) {
+            char ch = data.charAt(position);
+            if (ch == '"') {
+                slices.get(index).wrap(data, start, position);
+                position++;
+                return;
+            }
+            if (ch == '\\') {
+                // редкий случай - экранированные символы в слое
+                StringBuilder buffer = buffers.get(index);
+                buffer.setLength(0);
+                position = start;
+                decodeString(buffer);
+                slices.get(index).wrap(buffer, 0, buffer.length());
+                return;
+            }
+            position++;
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readValue() {
+        char ch = peek();
+        if (ch == '"') {
+            return readString();
+        }
+        if (ch == '{' || ch == '[') {
+            int start = position;
+            skipComposite();
+            String raw = data.subSequence(start, position).toString();
+            return (ch == '{') ? new JSONObject(raw) : new JSONArray(raw);
+        }
+        int start = position;
+        int length = data.length();
+        while (position < length) {
+            ch = data.charAt(position);
+            if (ch == ',' || ch == '}' || ch == ']' || Character.isWhitespace(ch)) {
+                break;
+            }
+            position++;
+        }
+        if (start == position) {
+            throw error("Expected value");
+        }
+        return JSONObject.stringToValue(data.subSequence(start, position).toString());
+    }
+
+    private void skipComposite() {
+        int depth = 0;
+        int length = data.length();
+        while (position < length) {
+            char ch = data.charAt(position);
+            if (ch == '"') {
+                skipString();
+                continue;
+            }
+            position++;
+            if (ch == '{' || ch == '[') {
+                depth++;
+            } else if (ch == '}' || ch == ']') {
+                if (--depth == 0) {
+                    return;
+                }
+            }
+        }
+        throw error("Unterminated object");
+    }
+
+    private void skipString() {
+        position++;
+        int length = data.length();
+        while (position < length) {
+            char ch = data.charAt(position++);
+            if (ch == '\\') {
+                position++;
+            } else if (ch == '"') {
+                return;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder result = new StringBuilder();
+        decodeString(result);
+        return result.toString();
+    }
+
+    private void decodeString(StringBuilder result) {
+        int length = data.length();
+        while (position < length) {
+            char ch = data.charAt(position++);
+            if (ch == '"') {
+                return;
+            }
+            if (ch != '\\') {
+                result.append(ch);
+                continue;
+            }
+            if (position >= length) {
+                break;
+            }
+            ch = data.charAt(position++);
+            switch (ch) {
+                case 'b': result.append('\b'); break;
+                case 'f': result.append('\f'); break;
+                case 'n': result.append('\n'); break;
+                case 'r': result.append('\r'); break;
+                case 't': result.append('\t'); break;
+                case 'u':
+                    if (position + 4 > length) {
+                        throw error("Illegal escape");
+                    }
+                    try {
+                        result.append((char) Integer.parseInt(
+                                data.subSequence(position, position + 4).toString(), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Illegal escape");
+                    }
+                    position += 4;
+                    break;
+                default: result.append(ch);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private char peek() {
+        skipWhitespaces();
+        if (position >= data.length()) {
+            throw error("Unexpected end");
+        }
+        return data.charAt(position);
+    }
+
+    private char next() {
+        char result = peek();
+        position++;
+        return result;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            position--;
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private void skipWhitespaces() {
+        int length = data.length();
+        while (position < length && Character.isWhitespace(data.charAt(position))) {
+            position++;
+        }
+    }
+
+    private JSONException error(String message) {
+        return new JSONException(message + " at " + position);
+    }
+}
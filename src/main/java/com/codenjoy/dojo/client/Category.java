@@ -0,0 +1,119 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+import com.codenjoy.dojo.services.printer.CharElement;
+
+import java.util.Arrays;
+
+/**
+ * Group of elements (like barriers or heroes from game ElementUtils)
+ * compiled once into lookup table by char, so the membership test
+ * is a single array load. Use it with
+ * {@link AbstractBoard#isAt(int, int, Category)}.
+ *
+ * If several elements have the same char, the char belongs to
+ * the group only if the last of them (the one board recognizes
+ * for this char) is in the group - same as with
+ * {@link AbstractBoard#isAt(int, int, CharElement[])}.
+ */
+@PerformanceOptimized
+public final class Category<E extends CharElement> {
+
+    private final E[] elements;
+    private final boolean[] chars;
+
+    private Category(E[] elements) {
+        this.elements = elements.clone();
+        this.chars = compile(elements);
+    }
+
+    @SafeVarargs
+    public static <E extends CharElement> Category<E> of(E... elements) {
+        return new Category<>(elements);
+    }
+
+    private static <E extends CharElement> boolean[] compile(E[] elements) {
+        CharElement[] all = all(elements);
+        int max = 0;
+        for (CharElement element : all) {
+            max = Math.max(max, element.ch());
+        }
+        CharElement[] recognized = new CharElement[max + 1];
+        for (CharElement element : all) {
+            recognized[element.ch()] = element;
+        }
+        boolean[] result = new boolean[max + 1];
+        for (E element : elements) {
+            char ch = element.ch();
+            // порядок элементов в группе не важен
+            result[ch] |= (recognized[ch] == element);
+        }
+        return result;
+    }
+
+    private static CharElement[] all(CharElement[] elements) {
+        // элементы могут быть и не enum
+        if (elements.length == 0 || !(elements[0] instanceof Enum)) {
+            return elements;
+        }
+        Object[] values = ((Enum<?>) elements[0]).getDeclaringClass().getEnumConstants();
+        return Arrays.copyOf(values, values.length, CharElement[].class);
+    }
+
+    /**
+     * @param ch Char on the board.
+     * @return true if element recognized for this char is in the group.
+     */
+    public boolean has(char ch) {
+        return ch < chars.length && chars[ch];
+    }
+
+    /**
+     * @param element Element.
+     * @return true if element is in the group.
+     */
+    public boolean has(E element) {
+        for (E item : elements) {
+            if (item == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Elements of the group, it can be used with all
+     *         {@link AbstractBoard} methods that accept elements.
+     */
+    public E[] elements() {
+        return elements.clone();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(elements);
+    }
+}
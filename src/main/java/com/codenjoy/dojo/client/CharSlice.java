@@ -0,0 +1,84 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Reusable view over the part of another {@link CharSequence}
+ * without copying chars.
+ */
+public final class CharSlice implements CharSequence {
+
+    private CharSequence source;
+    private int offset;
+    private int length;
+
+    public CharSlice() {
+        this("", 0, 0);
+    }
+
+    public CharSlice(CharSequence source, int from, int to) {
+        wrap(source, from, to);
+    }
+
+    /**
+     * Points this view to other chars.
+     * @param source Chars.
+     * @param from Start index (inclusive).
+     * @param to End index (exclusive).
+     * @return This view.
+     */
+    public CharSlice wrap(CharSequence source, int from, int to) {
+        if (from < 0 || to > source.length() || from > to) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Slice [%s, %s) of %s chars", from, to, source.length()));
+        }
+        this.source = source;
+        this.offset = from;
+        this.length = to - from;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        }
+        return source.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new CharSlice(source, offset + start, offset + end);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(offset, offset + length).toString();
+    }
+}
@@ -25,4 +25,14 @@ package com.codenjoy.dojo.client;
 
 public interface ClientBoard {
     ClientBoard forString(String input);
+
+    /**
+     * Version of {@link #forString(String)} that could read the board
+     * straight from the part of the received frame without copying it.
+     * @param input Board, should not be changed till the next call.
+     * @return This board.
+     */
+    default ClientBoard forChars(CharSequence input) {
+        return forString(input.toString());
+    }
 }
@@ -0,0 +1,97 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Deadline of one tick for {@link AnytimeSolver}: keeps the time
+ * left and the best answer published so far.
+ */
+public class Deadline {
+
+    private final long at;
+    private volatile String best;
+    private volatile boolean cancelled;
+
+    /**
+     * @param at Moment in {@link System#nanoTime()} terms.
+     */
+    public Deadline(long at) {
+        this.at = at;
+    }
+
+    /**
+     * @param nanos Time budget from now.
+     * @return Deadline after given time.
+     */
+    public static Deadline in(long nanos) {
+        return new Deadline(System.nanoTime() + nanos);
+    }
+
+    public long at() {
+        return at;
+    }
+
+    /**
+     * @return Nanoseconds left, 0 if expired.
+     */
+    public long remaining() {
+        return cancelled ? 0 : Math.max(0, at - System.nanoTime());
+    }
+
+    /**
+     * Should be checked by the search regularly (cooperative interruption).
+     * @return true if there is no more time or the search was cancelled.
+     */
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - at >= 0;
+    }
+
+    /**
+     * Stops the search (the answer is already sent).
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @param answer New answer, better than all published before.
+     */
+    public void publish(String answer) {
+        best = answer;
+    }
+
+    /**
+     * @return Best answer published so far or empty string if there was no one.
+     */
+    public String best() {
+        String result = best;
+        return (result == null) ? StringUtils.EMPTY : result;
+    }
+
+    public boolean hasAnswer() {
+        return best != null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.path.Cost;
+import com.codenjoy.dojo.services.printer.CharElement;
+
+import java.util.Arrays;
+
+/**
+ * Per element cost table for {@link com.codenjoy.dojo.services.path.PathFinder}.
+ * Cost of the cell is the maximum cost of elements on all its layers,
+ * any barrier element makes cell a barrier.
+ * Table is compiled by char, so it is cheap to ask it for every cell.
+ */
+public class ElementCosts<E extends CharElement> implements Cost {
+
+    private final AbstractBoard<E> board;
+    private final int defaultCost;
+    private int[] costs;
+
+    /**
+     * @param board Board to take elements from.
+     * @param defaultCost Cost of elements not mentioned in the table.
+     */
+    public ElementCosts(AbstractBoard<E> board, int defaultCost) {
+        this.board = board;
+        this.defaultCost = defaultCost;
+        this.costs = new int[0];
+    }
+
+    public ElementCosts(AbstractBoard<E> board) {
+        this(board, MIN);
+    }
+
+    /**
+     * @param cost Cost of entering the cell with elements specified.
+     * @param elements Elements to set cost for.
+     * @return this table.
+     */
+    public ElementCosts<E> set(int cost, E... elements) {
+        for (E element : elements) {
+            char ch = element.ch();
+            if (ch >= costs.length) {
+                int length = costs.length;
+                costs = Arrays.copyOf(costs, ch + 1);
+                Arrays.fill(costs, length, costs.length, defaultCost);
+            }
+            costs[ch] = cost;
+        }
+        return this;
+    }
+
+    /**
+     * @param elements Elements that can't be entered.
+     * @return this table.
+     */
+    public ElementCosts<E> barrier(E... elements) {
+        return set(BARRIER, elements);
+    }
+
+    /**
+     * @param ch Char of element.
+     * @return Cost of element specified.
+     */
+    public int cost(char ch) {
+        return (ch < costs.length) ? costs[ch] : defaultCost;
+    }
+
+    @Override
+    public int cost(int x, int y) {
+        if (board.isOutOf(x, y)) {
+            return BARRIER;
+        }
+        int result = MIN;
+        for (int layer = 0; layer < board.countLayers(); layer++) {
+            int cost = cost(board.layer(layer).field(x, y));
+            if (cost < MIN) {
+                return BARRIER;
+            }
+            result = Math.max(result, cost);
+        }
+        return result;
+    }
+}
@@ -37,6 +37,8 @@ import static java.util.stream.Collectors.toList;
 public class ElementsMap<E extends CharElement> {
 
     private CharElement[] characters;
+    private int[] slots;
+    private int count;
     private Map<String, E> names = new LinkedHashMap<>();
 
     public ElementsMap(E[] elements) {
@@ -45,12 +47,50 @@ public class ElementsMap<E extends CharElement> {
                 .max(Integer::compareTo)
                 .orElse(0);
         characters = new CharElement[maxIndex + 1];
+        slots = new int[maxIndex + 1];
+        Arrays.fill(slots, -1);
         for (E element : elements) {
             characters[element.ch()] = element;
+            if (slots[element.ch()] == -1) {
+                slots[element.ch()] = count++;
+            }
             names.put(element.name(), element);
         }
     }
 
+    /**
+     * Every element char has its own number (slot) from 0 to {@link #slots()},
+     * that is used to build board index.
+     * @param ch Char on the board.
+     * @return Slot of the char or -1 if there is no such element.
+     */
+    public int slot(char ch) {
+        if (ch >= slots.length) {
+            return -1;
+        }
+        return slots[ch];
+    }
+
+    /**
+     * @param element Element.
+     * @return Slot of the element or -1 if its char
+     *         will be recognized as another element.
+     */
+    public int slot(E element) {
+        char ch = element.ch();
+        if (ch >= characters.length || characters[ch] != element) {
+            return -1;
+        }
+        return slots[ch];
+    }
+
+    /**
+     * @return Count of different element chars.
+     */
+    public int slots() {
+        return count;
+    }
+
     public E get(char ch) {
         E result = (E) characters[ch];
         if (result == null) {
@@ -0,0 +1,160 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free and allocation-free histogram of latencies (in nanoseconds)
+ * with log-linear buckets (HdrHistogram-style): every power of two range
+ * is split into {@link #SUB_BUCKETS} linear sub buckets, so relative
+ * error of any reported value is less than 1/{@link #SUB_BUCKETS}.
+ */
+@PerformanceOptimized
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Все что больше (~18 минут) попадает в последний бакет.
+     */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    static int index(long value) {
+        int magnitude = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+        return (magnitude << SUB_BITS) + (int) (value >>> magnitude);
+    }
+
+    static long lowest(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = (index >> SUB_BITS) - 1;
+        return (long) (index - (magnitude << SUB_BITS)) << magnitude;
+    }
+
+    static long highest(int index) {
+        return lowest(index + 1) - 1;
+    }
+
+    /**
+     * @param nanos Measured time, negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public long mean() {
+        long count = count();
+        return (count == 0) ? 0 : sum.get() / count;
+    }
+
+    /**
+     * @param percent Percentile from 0 to 100.
+     * @return Highest value equivalent (in bucket precision) to the value
+     *         below which given percent of recorded values fall,
+     *         0 if histogram is empty.
+     */
+    public long percentile(double percent) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(percent, 100) / 100));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(highest(index), max());
+            }
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int index = 0; index < BUCKETS; index++) {
+            counts.set(index, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Prints all non empty buckets as
+     * {@code lowest highest count} lines (values in nanoseconds).
+     * @param out Output.
+     */
+    public void dump(PrintWriter out) {
+        for (int index = 0; index < BUCKETS; index++) {
+            long value = counts.get(index);
+            if (value != 0) {
+                out.println(lowest(index) + " " + highest(index) + " " + value);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "count=%s p50=%s p99=%s max=%s",
+                count(),
+                millis(percentile(50)),
+                millis(percentile(99)),
+                millis(max()));
+    }
+
+    public static String millis(long nanos) {
+        return String.format(Locale.US, "%.3fms", nanos / 1_000_000.0);
+    }
+}
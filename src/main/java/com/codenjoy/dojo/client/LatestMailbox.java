@@ -0,0 +1,113 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free single slot mailbox for one consumer: a new item
+ * replaces the previous one if it was not taken yet
+ * (latest wins), replaced items are counted as dropped.
+ */
+@PerformanceOptimized
+public class LatestMailbox<T> {
+
+    private final AtomicReference<T> slot = new AtomicReference<>();
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread consumer;
+
+    /**
+     * @param item New item, never null.
+     * @return true if there was no item waiting for the consumer,
+     *         false if it was replaced (dropped).
+     */
+    public boolean offer(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item should not be null");
+        }
+        offered.incrementAndGet();
+        T previous = slot.getAndSet(item);
+        if (previous != null) {
+            dropped.incrementAndGet();
+        }
+        Thread waiting = consumer;
+        if (waiting != null) {
+            LockSupport.unpark(waiting);
+        }
+        return previous == null;
+    }
+
+    /**
+     * @return The latest item or null if there is no one.
+     */
+    public T poll() {
+        return slot.getAndSet(null);
+    }
+
+    public boolean isEmpty() {
+        return slot.get() == null;
+    }
+
+    /**
+     * Waits for the latest item, should be called from one thread only.
+     * @return The latest item.
+     * @throws InterruptedException if consumer thread was interrupted.
+     */
+    public T take() throws InterruptedException {
+        consumer = Thread.currentThread();
+        try {
+            while (true) {
+                T result = slot.getAndSet(null);
+                if (result != null) {
+                    return result;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                LockSupport.park(this);
+            }
+        } finally {
+            consumer = null;
+        }
+    }
+
+    /**
+     * @return Count of all offered items.
+     */
+    public long offered() {
+        return offered.get();
+    }
+
+    /**
+     * @return Count of items replaced by newer ones before being taken.
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,139 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.Arrays;
+
+/**
+ * Bitset index of one board layer: for every element slot
+ * (see {@link ElementsMap#slot(char)}) it keeps the set of cells
+ * where this element is located. Cell number is {@code x * size + y},
+ * so iteration over bits goes in the same order as scanning of the field
+ * (x first, then y).
+ */
+@PerformanceOptimized
+public class LayerIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final int cells;
+    private final int words;
+    private final long[][] bits;
+    private final int[] counts;
+
+    public LayerIndex(int slots, int cells) {
+        this.cells = cells;
+        this.words = (cells + 63) >>> 6;
+        this.bits = new long[slots][];
+        this.counts = new int[slots];
+    }
+
+    public void clear() {
+        for (int slot = 0; slot < bits.length; slot++) {
+            if (counts[slot] != 0) {
+                Arrays.fill(bits[slot], 0L);
+                counts[slot] = 0;
+            }
+        }
+    }
+
+    public void add(int slot, int cell) {
+        if (slot < 0) {
+            return;
+        }
+        long[] row = bits[slot];
+        if (row == null) {
+            row = bits[slot] = new long[words];
+        }
+        long mask = 1L << cell;
+        int word = cell >>> 6;
+        if ((row[word] & mask) == 0) {
+            row[word] |= mask;
+            counts[slot]++;
+        }
+    }
+
+    public void remove(int slot, int cell) {
+        if (slot < 0 || bits[slot] == null) {
+            return;
+        }
+        long mask = 1L << cell;
+        int word = cell >>> 6;
+        if ((bits[slot][word] & mask) != 0) {
+            bits[slot][word] &= ~mask;
+            counts[slot]--;
+        }
+    }
+
+    public boolean has(int slot, int cell) {
+        if (slot < 0 || counts[slot] == 0) {
+            return false;
+        }
+        return (bits[slot][cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @param slot Element slot.
+     * @return Count of cells with given element.
+     */
+    public int count(int slot) {
+        if (slot < 0) {
+            return 0;
+        }
+        return counts[slot];
+    }
+
+    /**
+     * @param slot Element slot.
+     * @param word Word number from 0 to {@link #words()}.
+     * @return 64 cells (as bits) starting from {@code word * 64}.
+     */
+    public long word(int slot, int word) {
+        if (slot < 0 || counts[slot] == 0) {
+            return 0L;
+        }
+        return bits[slot][word];
+    }
+
+    /**
+     * @param slot Element slot.
+     * @return Backing words of the slot, should not be changed.
+     */
+    public long[] words(int slot) {
+        if (slot < 0 || counts[slot] == 0) {
+            return EMPTY;
+        }
+        return bits[slot];
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public int cells() {
+        return cells;
+    }
+}
@@ -0,0 +1,167 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decouples receiving of boards from solving them: the socket thread
+ * only puts raw board into {@link LatestMailbox}, dedicated solver
+ * thread always takes the newest board (superseded ones are dropped),
+ * solves it and sends the answer.
+ *
+ * Instead of dedicated thread the pipeline could use shared executor
+ * (when many bots work in one process): not more than one task
+ * per pipeline is scheduled at a time and every task solves only one
+ * board, so all bots get their share of the executor threads.
+ */
+public class SolvePipeline implements Closeable {
+
+    private final LatestMailbox<String> mailbox = new LatestMailbox<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final Consumer<String> handler;
+    private final Thread thread;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean running;
+
+    /**
+     * @param name Name of the solver thread (virtual if {@link Threads#isVirtual()}).
+     * @param handler Parses, solves and answers one board
+     *                (is called on the solver thread).
+     */
+    public SolvePipeline(String name, Consumer<String> handler) {
+        this.handler = handler;
+        this.running = true;
+        this.executor = null;
+        this.thread = Threads.start(name, this::loop);
+    }
+
+    /**
+     * @param executor Shared executor of solver tasks.
+     * @param handler Parses, solves and answers one board
+     *                (is called on the executor thread).
+     */
+    public SolvePipeline(Executor executor, Consumer<String> handler) {
+        this.handler = handler;
+        this.running = true;
+        this.executor = executor;
+        this.thread = null;
+    }
+
+    private void loop() {
+        while (running) {
+            String data;
+            try {
+                data = mailbox.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            handle(data);
+        }
+    }
+
+    private void handle(String data) {
+        try {
+            handler.accept(data);
+        } catch (RuntimeException e) {
+            WebSocketRunner.print("Error processing data: " + data);
+            WebSocketRunner.print(e);
+        }
+        processed.incrementAndGet();
+    }
+
+    private void schedule() {
+        if (running && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        String data = mailbox.poll();
+        if (data != null && running) {
+            handle(data);
+        }
+        scheduled.set(false);
+        // борда могла прийти пока решали, но после poll
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Called from the socket thread, never blocks.
+     * @param data Raw board message.
+     * @return false if previous board was not solved yet and was dropped.
+     */
+    public boolean submit(String data) {
+        boolean result = mailbox.offer(data);
+        if (executor != null) {
+            schedule();
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public boolean isAlive() {
+        return (thread != null) ? thread.isAlive() : running;
+    }
+
+    /**
+     * @return Count of boards received from the socket.
+     */
+    public long received() {
+        return mailbox.offered();
+    }
+
+    /**
+     * @return Count of boards that were replaced by newer ones
+     *         before the solver took them (dropped ticks).
+     */
+    public long dropped() {
+        return mailbox.dropped();
+    }
+
+    /**
+     * @return Count of boards solved (or failed) by the solver thread.
+     */
+    public long processed() {
+        return processed.get();
+    }
+}
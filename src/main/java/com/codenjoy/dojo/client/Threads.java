@@ -0,0 +1,145 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates threads of the runners: virtual threads when running
+ * on JDK 21+ and {@link #VIRTUAL} is on, otherwise daemon platform
+ * threads. Virtual threads are looked up reflectively, so the
+ * code still compiles and works on the Java 11 baseline.
+ */
+public final class Threads {
+
+    /**
+     * Использовать виртуальные потоки, если JVM их поддерживает.
+     */
+    public static boolean VIRTUAL = true;
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+    private static final Method PER_TASK;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        Method perTask = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+            perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ReflectiveOperationException e) {
+            // JDK < 21 - только обычные потоки
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+        PER_TASK = perTask;
+    }
+
+    private Threads() {
+        // утилитный класс
+    }
+
+    /**
+     * @return true if JVM supports virtual threads.
+     */
+    public static boolean isVirtualSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @return true if new threads will be virtual.
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL && isVirtualSupported();
+    }
+
+    /**
+     * Starts new thread.
+     * @param name Thread name.
+     * @param task Task.
+     * @return Started thread (daemon if platform one).
+     */
+    public static Thread start(String name, Runnable task) {
+        Thread thread = isVirtual()
+                ? unstarted(name, task)
+                : platform(name, task);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * @param prefix Prefix of thread names.
+     * @return Factory of virtual or daemon platform threads.
+     */
+    public static ThreadFactory factory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        if (isVirtual()) {
+            return task -> unstarted(prefix + count.incrementAndGet(), task);
+        }
+        return task -> platform(prefix + count.incrementAndGet(), task);
+    }
+
+    private static Thread platform(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static Thread unstarted(String name, Runnable task) {
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+            return (Thread) UNSTARTED.invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't create virtual thread", e);
+        }
+    }
+
+    /**
+     * @param prefix Prefix of thread names.
+     * @return Executor that starts new virtual thread for every task
+     *         or cached pool of daemon platform threads.
+     */
+    public static ExecutorService perTask(String prefix) {
+        if (isVirtual()) {
+            try {
+                return (ExecutorService) PER_TASK.invoke(null, factory(prefix));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can't create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool(factory(prefix));
+    }
+}
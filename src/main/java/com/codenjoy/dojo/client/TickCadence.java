@@ -0,0 +1,80 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+/**
+ * Estimates the period of the server ticks by the moments
+ * the boards arrive (exponentially weighted moving average).
+ */
+public class TickCadence {
+
+    private static final int WEIGHT = 8;
+    private static final int CLAMP = 4;
+
+    private final double budget;
+    private long period;
+    private long last;
+    private long samples;
+
+    /**
+     * @param period Expected period (in nanoseconds) before anything was measured.
+     * @param budget Part of the period (from 0 to 1) that could be spent on the tick.
+     */
+    public TickCadence(long period, double budget) {
+        this.period = period;
+        this.budget = budget;
+        this.last = -1;
+    }
+
+    /**
+     * @param nanos Arrival moment of the board in {@link System#nanoTime()} terms.
+     */
+    public synchronized void arrived(long nanos) {
+        if (last != -1) {
+            // одиночные паузы (например переподключение) не должны сбивать оценку
+            long interval = Math.min(Math.max(nanos - last, period / CLAMP), period * CLAMP);
+            if (samples++ == 0) {
+                period = interval;
+            } else {
+                period += (interval - period) / WEIGHT;
+            }
+        }
+        last = nanos;
+    }
+
+    /**
+     * @return Estimated period of the ticks in nanoseconds.
+     */
+    public synchronized long period() {
+        return period;
+    }
+
+    /**
+     * @param arrived Arrival moment of the board.
+     * @return Deadline for the answer on this board.
+     */
+    public Deadline deadline(long arrived) {
+        return new Deadline(arrived + (long) (period() * budget));
+    }
+}
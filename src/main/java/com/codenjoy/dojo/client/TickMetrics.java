@@ -0,0 +1,149 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per tick latency metrics of the client: for every phase of the tick
+ * processing there is a {@link LatencyHistogram}.
+ */
+public class TickMetrics {
+
+    public enum Phase {
+
+        /**
+         * From frame arrival till the start of processing
+         * (non zero only in {@link WebSocketRunner#PIPELINE} mode).
+         */
+        WAIT,
+
+        /**
+         * Check of the frame prefix and {@link ClientBoard#forChars(CharSequence)}.
+         */
+        PARSE,
+
+        /**
+         * {@link Solver#get(ClientBoard)}.
+         */
+        SOLVE,
+
+        /**
+         * Sending of the answer.
+         */
+        SEND,
+
+        /**
+         * From frame arrival till the answer was sent.
+         */
+        TICK
+    }
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final AtomicLong dropped = new AtomicLong();
+
+    public TickMetrics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public void record(Phase phase, long nanos) {
+        histograms.get(phase).record(nanos);
+    }
+
+    public LatencyHistogram histogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    /**
+     * @return Count of fully processed ticks.
+     */
+    public long ticks() {
+        return histogram(Phase.TICK).count();
+    }
+
+    /**
+     * Called when the board was superseded by the newer one
+     * before it was solved.
+     */
+    public void drop() {
+        dropped.incrementAndGet();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        dropped.set(0);
+    }
+
+    /**
+     * @return Short report with p50/p99/max of every phase.
+     */
+    public String summary() {
+        StringBuilder result = new StringBuilder();
+        result.append("Ticks: ").append(ticks())
+                .append(", dropped: ").append(dropped());
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = histogram(phase);
+            result.append(String.format(Locale.US, "\n%-5s p50=%s p99=%s max=%s",
+                    phase,
+                    LatencyHistogram.millis(histogram.percentile(50)),
+                    LatencyHistogram.millis(histogram.percentile(99)),
+                    LatencyHistogram.millis(histogram.max())));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes summary and all histogram buckets to the file.
+     * @param file File to write.
+     */
+    public void dump(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println(summary());
+            for (Phase phase : Phase.values()) {
+                out.println();
+                out.println("# " + phase + " (lowest_ns highest_ns count)");
+                histogram(phase).dump(out);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -23,21 +23,30 @@ package com.codenjoy.dojo.client;
  */
 
 
+import com.codenjoy.dojo.client.record.Recorder;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.websocket.api.*;
 import org.eclipse.jetty.websocket.api.annotations.*;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
 
-import java.io.PrintStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.ConnectException;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
+import static com.codenjoy.dojo.client.TickMetrics.Phase.*;
+
 public class WebSocketRunner implements Closeable {
 
     private static final String LOCALHOST = "127.0.0.1:8080";
@@ -46,12 +55,49 @@ public class WebSocketRunner implements Closeable {
     public static final String BOARD_FORMAT = "^board=(.*)$";
     public static final String BOARD_FORMAT2 = "board=%s";
     public static final Pattern BOARD_PATTERN = Pattern.compile(BOARD_FORMAT);
+    public static final String BOARD_PREFIX = "board=";
     public static String BOT_ID_SUFFIX = "-super-ai";
 
     public static boolean PRINT_TO_CONSOLE = true;
     public static int TIMEOUT = 10000;
     public static Integer ATTEMPTS = 5;
 
+    /**
+     * Если true, то борда решается в отдельном потоке (см. {@link SolvePipeline}),
+     * а поток сокета только кладет ее в почтовый ящик - если solver не успевает,
+     * то устаревшие борды пропускаются и решается всегда самая свежая.
+     */
+    public static boolean PIPELINE = false;
+
+    /**
+     * Каждые сколько тиков печатать p50/p99/max по фазам обработки тика (0 - не печатать).
+     */
+    public static int METRICS_PRINT_PERIOD = 100;
+
+    /**
+     * Если задан, то при закрытии клиента гистограммы {@link TickMetrics} сохраняются в этот файл.
+     */
+    public static String METRICS_FILE = null;
+
+    /**
+     * Ожидаемый период тиков сервера, пока он не измерен (в миллисекундах).
+     */
+    public static int TICK_PERIOD = 1000;
+
+    /**
+     * Какую часть измеренного периода тиков (считая от прихода борды)
+     * может использовать {@link AnytimeSolver}, остальное - запас на отправку.
+     */
+    public static double ANYTIME_BUDGET = 0.7;
+
+    /**
+     * Если задан, то все тики (борда и ответ) записываются в эту папку
+     * (см. {@link Recorder}), файл на каждый запуск клиента.
+     */
+    public static String RECORD_DIR = null;
+
+    private static AsyncConsole console;
+
     private Session session;
     private WebSocketClient client;
     private Solver solver;
@@ -59,11 +105,24 @@ public class WebSocketRunner implements Closeable {
     private Runnable onClose;
     private boolean forceClose;
     private URI uri;
+    private Executor executor;
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    private Recorder recorder;
+    private SolvePipeline pipeline;
+    private final TickMetrics metrics = new TickMetrics();
+    private volatile long arrived;
+    private final CharSlice frame = new CharSlice();
+    private TickCadence cadence;
+    private AnytimeRunner anytime;
 
     public WebSocketRunner(Solver solver, ClientBoard board) {
         this.solver = solver;
         this.board = board;
         this.forceClose = false;
+        this.cadence = new TickCadence(TimeUnit.MILLISECONDS.toNanos(TICK_PERIOD), ANYTIME_BUDGET);
+        if (solver instanceof AnytimeSolver) {
+            anytime = new AnytimeRunner();
+        }
     }
 
     /**
@@ -127,16 +186,37 @@ public class WebSocketRunner implements Closeable {
         try {
             this.uri = uri;
 
-            client = createClient();
-            client.start();
+            if (client == null) {
+                client = createClient(uri);
+                client.start();
+            }
+
+            if (RECORD_DIR != null) {
+                recorder = createRecorder(uri);
+            }
+
+            if (executor != null) {
+                pipeline = new SolvePipeline(executor, this::process);
+            } else if (PIPELINE) {
+                pipeline = new SolvePipeline("solver-" + uri.getPath(), this::process);
+            }
 
             onClose = () -> {
                 if (forceClose || solver.getClass().getSimpleName().equals("OneCommandSolver")) {
                     return;
                 }
 
-                printReconnect();
-                connectLoop(countAttempts);
+                // не держим поток сокета на время ожидания переподключения
+                if (reconnecting.compareAndSet(false, true)) {
+                    Threads.start("reconnect-" + uri.getPath(), () -> {
+                        try {
+                            printReconnect();
+                            connectLoop(countAttempts);
+                        } finally {
+                            reconnecting.set(false);
+                        }
+                    });
+                }
             };
 
             connectLoop(countAttempts);
@@ -145,7 +225,37 @@ public class WebSocketRunner implements Closeable {
         }
     }
 
-    private WebSocketClient createClient() {
+    /**
+     * Starts client that shares {@link WebSocketClient} and solver threads
+     * with other clients in the same process (see {@link com.codenjoy.dojo.FleetRunner}).
+     * Boards are solved in {@link SolvePipeline} over given executor.
+     * @param url Board page url.
+     * @param solver Solver.
+     * @param board Board.
+     * @param client Shared started client, should support url protocol.
+     * @param executor Shared executor of solver tasks.
+     * @return Started runner.
+     */
+    public static WebSocketRunner runShared(String url, Solver solver, ClientBoard board,
+                                            WebSocketClient client, Executor executor)
+    {
+        UrlParser parser = new UrlParser(url);
+        WebSocketRunner runner = new WebSocketRunner(solver, board);
+        runner.client = client;
+        runner.executor = executor;
+        runner.start(getUri(parser.protocol, parser.server, parser.context,
+                parser.userName, parser.code), ATTEMPTS);
+        return runner;
+    }
+
+    private static Recorder createRecorder(URI uri) throws IOException {
+        Path dir = Paths.get(RECORD_DIR);
+        Files.createDirectories(dir);
+        String user = uri.getQuery().replaceAll("^.*user=([^&]*).*$", "$1");
+        return new Recorder(dir.resolve(user + "-" + System.currentTimeMillis() + ".rec"));
+    }
+
+    public static WebSocketClient createClient(URI uri) {
         if (UrlParser.WSS_PROTOCOL.equals(uri.getScheme())) {
             SslContextFactory ssl = new SslContextFactory(true);
             ssl.setValidateCerts(false);
@@ -162,6 +272,15 @@ public class WebSocketRunner implements Closeable {
     @Override
     public void close() {
         forceClose = true;
+        if (pipeline != null) {
+            pipeline.close();
+        }
+        if (anytime != null) {
+            anytime.close();
+        }
+        closeRecorder();
+        dumpMetrics();
+        flushConsole();
         try {
             if (session != null && session.isOpen()) {
                 session.close();
@@ -172,6 +291,10 @@ public class WebSocketRunner implements Closeable {
         }
     }
 
+    public boolean isConnected() {
+        return session != null && session.isOpen();
+    }
+
     public Solver solver() {
         return solver;
     }
@@ -180,6 +303,58 @@ public class WebSocketRunner implements Closeable {
         return board;
     }
 
+    /**
+     * @return Pipeline with counters of received/dropped/processed boards
+     *         or null if {@link #PIPELINE} mode is off.
+     */
+    public SolvePipeline pipeline() {
+        return pipeline;
+    }
+
+    public TickMetrics metrics() {
+        return metrics;
+    }
+
+    public TickCadence cadence() {
+        return cadence;
+    }
+
+    private synchronized void closeRecorder() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (Exception e) {
+            print(e);
+        }
+        recorder = null;
+    }
+
+    private synchronized void recordTick(String answer) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.record(frame, answer);
+        } catch (Exception e) {
+            // запись не должна мешать игре
+            print(e);
+            closeRecorder();
+        }
+    }
+
+    private void dumpMetrics() {
+        if (METRICS_FILE == null) {
+            return;
+        }
+        try {
+            metrics.dump(Paths.get(METRICS_FILE));
+        } catch (Exception e) {
+            print(e);
+        }
+    }
+
     @WebSocket
     public class ClientSocket {
 
@@ -215,29 +390,77 @@ public class WebSocketRunner implements Closeable {
 
         @OnWebSocketMessage
         public void onMessage(String data) {
-            try {
-                Matcher matcher = BOARD_PATTERN.matcher(data);
-                if (!matcher.matches()) {
-                    throw new IllegalArgumentException("Unexpected board format, should be: " + BOARD_FORMAT);
+            arrived = System.nanoTime();
+            cadence.arrived(arrived);
+            if (pipeline != null) {
+                if (!pipeline.submit(data)) {
+                    metrics.drop();
                 }
+                return;
+            }
+            process(data);
+        }
+    }
 
-                board.forString(matcher.group(1));
-                print("Board: \n" + board);
+    private void process(String data) {
+        // в режиме PIPELINE это время прихода самой свежей борды, а именно ее мы и решаем
+        long start = arrived;
+        try {
+            long time = System.nanoTime();
+            metrics.record(WAIT, time - start);
 
-                String answer = solver.get(board);
-                print("Answer: " + answer);
+            if (!data.startsWith(BOARD_PREFIX)) {
+                throw new IllegalArgumentException("Unexpected board format, should be: " + BOARD_FORMAT);
+            }
 
-                RemoteEndpoint remote = session.getRemote();
-                if (remote == null) { // TODO to understand why this can happen?
-                    WebSocketRunner.this.tryToConnect();
-                    return;
-                }
-                remote.sendString(answer);
-            } catch (Exception e) {
-                print("Error processing data: " + data);
-                print(e);
+            if (anytime != null) {
+                // прошлый поиск мог еще не заметить что его отменили, а доску сейчас поменяем
+                anytime.await();
             }
-            printBreak();
+            // без копирования - доска читается прямо из полученного фрейма
+            board.forChars(frame.wrap(data, BOARD_PREFIX.length(), data.length()));
+            time = record(PARSE, time);
+
+            String answer = solve(start);
+            time = record(SOLVE, time);
+
+            RemoteEndpoint remote = session.getRemote();
+            if (remote == null) { // TODO to understand why this can happen?
+                tryToConnect();
+                return;
+            }
+            remote.sendString(answer);
+            time = record(SEND, time);
+            metrics.record(TICK, time - start);
+            recordTick(answer);
+
+            // рендеринг доски дорогой - только после того как ответ ушел
+            print(() -> "Board: \n" + board);
+            print(() -> "Answer: " + answer);
+            printMetrics();
+        } catch (Exception e) {
+            print("Error processing data: " + data);
+            print(e);
+        }
+        printBreak();
+    }
+
+    private String solve(long arrived) {
+        if (anytime == null) {
+            return solver.get(board);
+        }
+        return anytime.get((AnytimeSolver) solver, board, cadence.deadline(arrived));
+    }
+
+    private long record(TickMetrics.Phase phase, long from) {
+        long now = System.nanoTime();
+        metrics.record(phase, now - from);
+        return now;
+    }
+
+    private void printMetrics() {
+        if (METRICS_PRINT_PERIOD > 0 && metrics.ticks() % METRICS_PRINT_PERIOD == 0) {
+            print(metrics::summary);
         }
     }
 
@@ -300,13 +523,42 @@ public class WebSocketRunner implements Closeable {
 
     public static void print(String message) {
         if (PRINT_TO_CONSOLE) {
-            new PrintStream(System.out, true, StandardCharsets.UTF_8).println(message);
+            console().print(message);
+        }
+    }
+
+    /**
+     * Lazy version of {@link #print(String)}: message (for example
+     * rendered board) is not built at all if printing is off.
+     * @param message Supplier of message.
+     */
+    public static void print(Supplier<String> message) {
+        if (PRINT_TO_CONSOLE) {
+            console().print(message.get());
         }
     }
 
-    private void print(Exception e) {
+    static void print(Exception e) {
         if (PRINT_TO_CONSOLE) {
-            e.printStackTrace(System.out);
+            StringWriter trace = new StringWriter();
+            e.printStackTrace(new PrintWriter(trace));
+            console().print(trace.toString());
+        }
+    }
+
+    private static synchronized void flushConsole() {
+        if (console != null) {
+            console.flush(TIMEOUT);
+        }
+    }
+
+    /**
+     * @return Background writer of all the runner output.
+     */
+    public static synchronized AsyncConsole console() {
+        if (console == null) {
+            console = new AsyncConsole(System.out);
         }
+        return console;
     }
 }
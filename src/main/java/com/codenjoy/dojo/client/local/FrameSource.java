@@ -0,0 +1,61 @@
+package com.codenjoy.dojo.client.local;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source of boards that {@link StandInServer} sends to clients.
+ */
+@FunctionalInterface
+public interface FrameSource {
+
+    /**
+     * @param user Id of the player.
+     * @param tick Number of the tick (from 0).
+     * @return Board as the server sends it (without "board=" prefix).
+     */
+    String board(String user, long tick);
+
+    /**
+     * @param board Board.
+     * @return Source that always sends the same board.
+     */
+    static FrameSource repeat(String board) {
+        return (user, tick) -> board;
+    }
+
+    /**
+     * @param boards Recorded boards.
+     * @return Source that sends boards one by one in a loop.
+     */
+    static FrameSource cycle(List<String> boards) {
+        List<String> copy = new ArrayList<>(boards);
+        if (copy.isEmpty()) {
+            throw new IllegalArgumentException("There should be at least one board");
+        }
+        return (user, tick) -> copy.get((int) (tick % copy.size()));
+    }
+}
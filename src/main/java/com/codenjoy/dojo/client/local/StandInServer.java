@@ -0,0 +1,398 @@
+package com.codenjoy.dojo.client.local;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.Closeable;
+import com.codenjoy.dojo.client.LatencyHistogram;
+import com.codenjoy.dojo.client.Threads;
+import com.codenjoy.dojo.client.WebSocketRunner;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.eclipse.jetty.websocket.servlet.ServletUpgradeRequest;
+import org.eclipse.jetty.websocket.servlet.WebSocketServlet;
+import org.eclipse.jetty.websocket.servlet.WebSocketServletFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in of the game server for load and latency testing
+ * of clients without the real server. Serves
+ * {@code /codenjoy-contest/ws?user=..&code=..} like the real one, sends
+ * {@code board=} frames from {@link FrameSource} to all connected
+ * clients every tick and measures the time till every client answers.
+ */
+public class StandInServer implements Closeable {
+
+    public static final String CONTEXT = "/codenjoy-contest";
+
+    private final Server server;
+    private final FrameSource frames;
+    private final Map<String, Player> players = new ConcurrentHashMap<>();
+    private final AtomicLong tick = new AtomicLong();
+    private volatile CountDownLatch answers = new CountDownLatch(0);
+    private volatile boolean ticking;
+    private Thread ticker;
+
+    /**
+     * @param port Port to listen (0 - any free port).
+     * @param frames Boards for clients.
+     */
+    public StandInServer(int port, FrameSource frames) {
+        this.frames = frames;
+        server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        connector.setHost("127.0.0.1");
+        connector.setPort(port);
+        connector.setAcceptQueueSize(1024);
+        server.addConnector(connector);
+
+        ServletContextHandler context = new ServletContextHandler();
+        context.setContextPath(CONTEXT);
+        context.addServlet(new ServletHolder(new WebSocketServlet() {
+            @Override
+            public void configure(WebSocketServletFactory factory) {
+                factory.getPolicy().setMaxTextMessageSize(Integer.MAX_VALUE);
+                factory.setCreator((request, response) -> create(request));
+            }
+        }), "/ws");
+        server.setHandler(context);
+    }
+
+    private Player create(ServletUpgradeRequest request) {
+        String user = request.getHttpServletRequest().getParameter("user");
+        String code = request.getHttpServletRequest().getParameter("code");
+        return new Player((user == null) ? "" : user, (code == null) ? "" : code);
+    }
+
+    /**
+     * Connected client with its answer latencies.
+     * Answers have no tick number, but the client answers boards
+     * in the order they were sent, so every answer claims the oldest
+     * board that is not answered yet. Answer on the board that was
+     * already replaced by the next one is stale: it doesn't count
+     * as the answer on the current tick (the tick was counted as missed).
+     * Every board keeps the latch of its tick, so the answer counts down
+     * only the tick it was sent on.
+     */
+    @WebSocket
+    public class Player {
+
+        // больше неотвеченных бордов не помним - клиент явно завис
+        static final int MAX_PENDING = 1024;
+
+        private final String user;
+        private final String code;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong missed = new AtomicLong();
+        private final ArrayDeque<Sent> pending = new ArrayDeque<>();
+        private volatile Session session;
+        private long current = -1;
+        private volatile String answer;
+
+        Player(String user, String code) {
+            this.user = user;
+            this.code = code;
+        }
+
+        @OnWebSocketConnect
+        public void onConnect(Session session) {
+            this.session = session;
+            players.put(user, this);
+        }
+
+        @OnWebSocketClose
+        public void onClose(int code, String reason) {
+            players.remove(user, this);
+            synchronized (this) {
+                if (isWaiting()) {
+                    pending.peekLast().answers.countDown();
+                }
+                pending.clear();
+            }
+        }
+
+        @OnWebSocketMessage
+        public void onMessage(String answer) {
+            this.answer = answer;
+            synchronized (this) {
+                Sent board = pending.pollFirst();
+                if (board == null || board.tick != current) {
+                    // лишний ответ или ответ на уже замененную борду
+                    return;
+                }
+                latency.record(System.nanoTime() - board.time);
+                board.answers.countDown();
+            }
+        }
+
+        // неотвеченная борда текущего тика всегда последняя в очереди
+        private boolean isWaiting() {
+            return !pending.isEmpty() && pending.peekLast().tick == current;
+        }
+
+        void send(long tick, CountDownLatch answers) {
+            String frame = WebSocketRunner.BOARD_PREFIX + frames.board(user, tick);
+            synchronized (this) {
+                if (isWaiting()) {
+                    // не успел ответить на прошлый тик
+                    missed.incrementAndGet();
+                }
+                if (pending.size() == MAX_PENDING) {
+                    pending.pollFirst();
+                }
+                current = tick;
+                pending.addLast(new Sent(tick, System.nanoTime(), answers));
+                try {
+                    session.getRemote().sendString(frame, null);
+                } catch (RuntimeException e) {
+                    // борда не ушла - ответа на нее не будет, тик считает вызывающий
+                    pending.pollLast();
+                    throw e;
+                }
+            }
+        }
+
+        public String user() {
+            return user;
+        }
+
+        public String code() {
+            return code;
+        }
+
+        /**
+         * @return Last answer of the client.
+         */
+        public String answer() {
+            return answer;
+        }
+
+        /**
+         * @return End-to-end latency: from sending the board till receiving the answer.
+         */
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        /**
+         * @return Count of ticks the client didn't answer before the next one.
+         */
+        public long missed() {
+            return missed.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %s missed=%s", user, latency, missed());
+        }
+    }
+
+    /**
+     * Board that was sent to the client and waits for the answer.
+     */
+    private static class Sent {
+
+        private final long tick;
+        private final long time;
+        private final CountDownLatch answers;
+
+        Sent(long tick, long time, CountDownLatch answers) {
+            this.tick = tick;
+            this.time = time;
+            this.answers = answers;
+        }
+    }
+
+    public StandInServer start() {
+        try {
+            server.start();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return this;
+    }
+
+    public int port() {
+        return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    /**
+     * @param user Id of the player.
+     * @param code Code of the player.
+     * @return Board page url for {@link WebSocketRunner#runClient(String, com.codenjoy.dojo.client.Solver, com.codenjoy.dojo.client.ClientBoard)}.
+     */
+    public String url(String user, String code) {
+        return String.format("http://127.0.0.1:%s%s/board/player/%s?code=%s",
+                port(), CONTEXT, user, code);
+    }
+
+    public Collection<Player> players() {
+        return players.values();
+    }
+
+    public Player player(String user) {
+        return players.get(user);
+    }
+
+    /**
+     * @param count Count of clients.
+     * @param millis Max time to wait.
+     */
+    public void awaitPlayers(int count, long millis) throws InterruptedException {
+        long until = System.currentTimeMillis() + millis;
+        while (players.size() < count) {
+            if (System.currentTimeMillis() > until) {
+                throw new IllegalStateException("Only " + players.size() + " clients connected");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Sends next board to all clients.
+     * @return Number of the tick.
+     */
+    public long tick() {
+        long current = tick.getAndIncrement();
+        List<Player> all = List.copyOf(players.values());
+        CountDownLatch latch = new CountDownLatch(all.size());
+        answers = latch;
+        for (Player player : all) {
+            try {
+                player.send(current, latch);
+            } catch (RuntimeException e) {
+                latch.countDown();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Waits till all clients answer on the last tick.
+     * @param millis Max time to wait.
+     * @return true if all clients answered (or disconnected).
+     */
+    public boolean awaitAnswers(long millis) throws InterruptedException {
+        return answers.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts sending boards with given period (as the real server does).
+     * @param millis Period of ticks.
+     */
+    public void startTicks(long millis) {
+        stopTicks();
+        ticking = true;
+        ticker = Threads.start("stand-in-ticker", () -> {
+            long period = TimeUnit.MILLISECONDS.toNanos(millis);
+            long next = System.nanoTime();
+            while (ticking) {
+                tick();
+                next += period;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+            }
+        });
+    }
+
+    public void stopTicks() {
+        ticking = false;
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker = null;
+        }
+    }
+
+    /**
+     * @return Count of ticks sent.
+     */
+    public long ticks() {
+        return tick.get();
+    }
+
+    /**
+     * @return One line per client with its answer latencies.
+     */
+    public String report() {
+        StringBuilder result = new StringBuilder("Ticks: ").append(ticks());
+        players.values().stream()
+                .sorted((a, b) -> a.user.compareTo(b.user))
+                .forEach(player -> result.append('\n').append(player));
+        return result.toString();
+    }
+
+    /**
+     * @param args Port, period of ticks (in milliseconds) and file
+     *             with boards (one board per line, as the server sends them).
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.out.println("Usage: StandInServer <port> <period ms> <boards file>");
+            return;
+        }
+        List<String> boards = Files.readAllLines(Paths.get(args[2]), StandardCharsets.UTF_8);
+        boards.removeIf(String::isBlank);
+        StandInServer server = new StandInServer(Integer.parseInt(args[0]), FrameSource.cycle(boards)).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Connect clients to " + server.url("<user>", "<code>"));
+        server.startTicks(Long.parseLong(args[1]));
+        while (true) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            System.out.println(server.report());
+        }
+    }
+
+    @Override
+    public void close() {
+        stopTicks();
+        try {
+            server.stop();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
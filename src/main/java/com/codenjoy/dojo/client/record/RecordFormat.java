@@ -0,0 +1,119 @@
+package com.codenjoy.dojo.client.record;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary format of the recorded games.
+ *
+ * File: {@link #MAGIC}, {@link #VERSION} and then tick records.
+ * Every record starts with its type ({@link #KEYFRAME} or {@link #DELTA}),
+ * time of the tick (millis since epoch) and kind of the board
+ * ({@link #TEXT}, {@link #LAYER} or {@link #JSON}).
+ *
+ * Keyframe: count of layers, every layer as string, side fields
+ * as string, answer as string.
+ *
+ * Delta: for every layer the count of changed cells and for every change
+ * the gap from the previous changed position and the new char, then flag
+ * if side fields were changed (with new value), then answer.
+ *
+ * All numbers are unsigned varints, strings are varint length of
+ * UTF-8 bytes and the bytes.
+ */
+final class RecordFormat {
+
+    static final int MAGIC = 0x434A5242; // CJRB
+    static final byte VERSION = 1;
+
+    static final byte KEYFRAME = 1;
+    static final byte DELTA = 2;
+
+    /**
+     * Board without layers, the whole board is in side fields.
+     */
+    static final byte TEXT = 0;
+
+    /**
+     * The whole board is one layer.
+     */
+    static final byte LAYER = 1;
+
+    /**
+     * Json with layers and side fields.
+     */
+    static final byte JSON = 2;
+
+    private RecordFormat() {
+        // утилитный класс
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int result = 0;
+        int shift = 0;
+        while (true) {
+            byte current = buffer.get();
+            result |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            byte current = buffer.get();
+            result |= (long) (current & 0x7F) << shift;
+            if (current >= 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        String result;
+        if (buffer.hasArray()) {
+            result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+    static void skipString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        buffer.position(buffer.position() + length);
+    }
+}
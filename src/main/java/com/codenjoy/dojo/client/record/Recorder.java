@@ -0,0 +1,343 @@
+package com.codenjoy.dojo.client.record;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.BoardJsonReader;
+import com.codenjoy.dojo.client.Closeable;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static com.codenjoy.dojo.client.record.RecordFormat.*;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Writes every tick of the game (board and the answer) in the compact
+ * binary format (see {@link RecordFormat}): keyframes plus deltas
+ * of changed cells against the previous tick. Written through
+ * the buffered {@link FileChannel}, read with {@link Recording}.
+ */
+@PerformanceOptimized
+public class Recorder implements Closeable {
+
+    /**
+     * Через сколько тиков пишется полный кадр.
+     */
+    public static int KEYFRAME_INTERVAL = 100;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final BoardJsonReader reader = new BoardJsonReader();
+    private final CharSequence[] single = new CharSequence[1];
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer record = ByteBuffer.allocate(BUFFER_SIZE);
+    private char[][] previous;
+    private byte previousKind = -1;
+    private String previousFields;
+    private int sinceKeyframe;
+    private long ticks;
+
+    public Recorder(Path file) throws IOException {
+        channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).put(VERSION);
+    }
+
+    /**
+     * @param board Board as the server sends it (without "board=" prefix).
+     * @param answer Answer sent to the server.
+     */
+    public void record(CharSequence board, String answer) {
+        record(board, answer, System.currentTimeMillis());
+    }
+
+    /**
+     * @param board Board as the server sends it (without "board=" prefix).
+     * @param answer Answer sent to the server.
+     * @param time Time of the tick (millis since epoch).
+     */
+    public void record(CharSequence board, String answer, long time) {
+        byte kind;
+        CharSequence[] layers;
+        String fields;
+        if (isJson(board)) {
+            if (reader.read(board)) {
+                kind = JSON;
+                layers = reader.layers();
+                fields = reader.fields().toString();
+            } else {
+                kind = TEXT;
+                layers = new CharSequence[0];
+                fields = board.toString();
+            }
+        } else {
+            kind = LAYER;
+            single[0] = board;
+            layers = single;
+            fields = "";
+        }
+
+        record.clear();
+        if (isKeyframe(kind, layers)) {
+            writeKeyframe(kind, layers, fields, answer, time);
+        } else {
+            writeDelta(kind, layers, fields, answer, time);
+        }
+        remember(kind, layers, fields);
+
+        record.flip();
+        int length = record.remaining();
+        ensure(5 + length);
+        putVarInt(buffer, length);
+        buffer.put(record);
+        ticks++;
+    }
+
+    private boolean isKeyframe(byte kind, CharSequence[] layers) {
+        if (previous == null
+                || kind != previousKind
+                || previous.length != layers.length
+                || sinceKeyframe >= KEYFRAME_INTERVAL)
+        {
+            return true;
+        }
+        for (int layer = 0; layer < layers.length; layer++) {
+            if (previous[layer].length != layers[layer].length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeKeyframe(byte kind, CharSequence[] layers, String fields, String answer, long time) {
+        sinceKeyframe = 0;
+        writeHeader(KEYFRAME, kind, time);
+        putVarInt(layers.length);
+        for (CharSequence layer : layers) {
+            putString(layer);
+        }
+        putString(fields);
+        putString(answer);
+    }
+
+    private void writeDelta(byte kind, CharSequence[] layers, String fields, String answer, long time) {
+        sinceKeyframe++;
+        writeHeader(DELTA, kind, time);
+        for (int layer = 0; layer < layers.length; layer++) {
+            char[] before = previous[layer];
+            CharSequence after = layers[layer];
+            int changes = 0;
+            for (int index = 0; index < before.length; index++) {
+                if (before[index] != after.charAt(index)) {
+                    changes++;
+                }
+            }
+            putVarInt(changes);
+            int last = 0;
+            for (int index = 0; index < before.length; index++) {
+                char ch = after.charAt(index);
+                if (before[index] != ch) {
+                    putVarInt(index - last);
+                    putVarInt(ch);
+                    last = index;
+                }
+            }
+        }
+        if (fields.equals(previousFields)) {
+            putByte((byte) 0);
+        } else {
+            putByte((byte) 1);
+            putString(fields);
+        }
+        putString(answer);
+    }
+
+    private void writeHeader(byte type, byte kind, long time) {
+        putByte(type);
+        putByte(kind);
+        putVarLong(time);
+    }
+
+    private void remember(byte kind, CharSequence[] layers, String fields) {
+        if (previous == null || previous.length != layers.length) {
+            previous = new char[layers.length][];
+        }
+        for (int layer = 0; layer < layers.length; layer++) {
+            CharSequence chars = layers[layer];
+            if (previous[layer] == null || previous[layer].length != chars.length()) {
+                previous[layer] = new char[chars.length()];
+            }
+            char[] target = previous[layer];
+            for (int index = 0; index < target.length; index++) {
+                target[index] = chars.charAt(index);
+            }
+        }
+        previousKind = kind;
+        previousFields = fields;
+    }
+
+    private static boolean isJson(CharSequence input) {
+        for (int index = 0; index < input.length(); index++) {
+            char ch = input.charAt(index);
+            if (!Character.isWhitespace(ch)) {
+                return ch == '{';
+            }
+        }
+        return false;
+    }
+
+    private void putByte(byte value) {
+        record = ensure(record, 1);
+        record.put(value);
+    }
+
+    private void putVarInt(int value) {
+        record = ensure(record, 5);
+        putVarInt(record, value);
+    }
+
+    private void putVarLong(long value) {
+        record = ensure(record, 10);
+        while ((value & ~0x7FL) != 0) {
+            record.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        record.put((byte) value);
+    }
+
+    private static void putVarInt(ByteBuffer target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    /**
+     * UTF-8 без промежуточных массивов.
+     */
+    private void putString(CharSequence value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int index = 0; index < length; index++) {
+            char ch = value.charAt(index);
+            if (ch < 0x80) {
+                bytes += 1;
+            } else if (ch < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(ch) && index + 1 < length
+                    && Character.isLowSurrogate(value.charAt(index + 1)))
+            {
+                bytes += 4;
+                index++;
+            } else if (Character.isSurrogate(ch)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        putVarInt(bytes);
+        record = ensure(record, bytes);
+        for (int index = 0; index < length; index++) {
+            char ch = value.charAt(index);
+            if (ch < 0x80) {
+                record.put((byte) ch);
+            } else if (ch < 0x800) {
+                record.put((byte) (0xC0 | (ch >> 6)));
+                record.put((byte) (0x80 | (ch & 0x3F)));
+            } else if (Character.isHighSurrogate(ch) && index + 1 < length
+                    && Character.isLowSurrogate(value.charAt(index + 1)))
+            {
+                int code = Character.toCodePoint(ch, value.charAt(++index));
+                record.put((byte) (0xF0 | (code >> 18)));
+                record.put((byte) (0x80 | ((code >> 12) & 0x3F)));
+                record.put((byte) (0x80 | ((code >> 6) & 0x3F)));
+                record.put((byte) (0x80 | (code & 0x3F)));
+            } else if (Character.isSurrogate(ch)) {
+                // одиночный суррогат заменяем на '?', так же как это делает String.getBytes
+                record.put((byte) '?');
+            } else {
+                record.put((byte) (0xE0 | (ch >> 12)));
+                record.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                record.put((byte) (0x80 | (ch & 0x3F)));
+            }
+        }
+    }
+
+    private static ByteBuffer ensure(ByteBuffer target, int bytes) {
+        if (target.remaining() >= bytes) {
+            return target;
+        }
+        ByteBuffer result = ByteBuffer.allocate(Math.max(target.capacity() * 2, target.position() + bytes));
+        target.flip();
+        result.put(target);
+        return result;
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        if (buffer.remaining() < bytes) {
+            buffer = ByteBuffer.allocate(bytes);
+        }
+    }
+
+    /**
+     * Writes all buffered ticks to the file.
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * @return Count of recorded ticks.
+     */
+    public long ticks() {
+        return ticks;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.codenjoy.dojo.client.record;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.Closeable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.client.record.RecordFormat.*;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads the game written by {@link Recorder}. The file is memory-mapped,
+ * any tick is reconstructed from the nearest keyframe by applying deltas,
+ * sequential reading applies only one delta per tick.
+ * Not thread safe.
+ */
+public class Recording implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private int[] offsets = new int[256];
+    private int[] keyframes = new int[256];
+    private int size;
+
+    private int current = -1;
+    private byte kind;
+    private char[][] layers;
+    private String fields;
+    private String answer;
+    private long time;
+
+    /**
+     * One reconstructed tick.
+     */
+    public static class Tick {
+
+        private final int index;
+        private final long time;
+        private final byte kind;
+        private final String[] layers;
+        private final String fields;
+        private final String answer;
+
+        Tick(int index, long time, byte kind, String[] layers, String fields, String answer) {
+            this.index = index;
+            this.time = time;
+            this.kind = kind;
+            this.layers = layers;
+            this.fields = fields;
+            this.answer = answer;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        /**
+         * @return Time of the tick (millis since epoch).
+         */
+        public long time() {
+            return time;
+        }
+
+        public String[] layers() {
+            return layers;
+        }
+
+        /**
+         * @return Json of all board fields except layers (or the whole
+         *         board if it has no layers), empty for one layer boards.
+         */
+        public String fields() {
+            return fields;
+        }
+
+        /**
+         * @return Answer that was sent on this tick.
+         */
+        public String answer() {
+            return answer;
+        }
+
+        /**
+         * @return Board as the server sends it (without "board=" prefix),
+         *         json boards could have other order of fields.
+         */
+        public String board() {
+            switch (kind) {
+                case LAYER:
+                    return layers[0];
+                case TEXT:
+                    return fields;
+                default:
+                    JSONObject result = new JSONObject(fields);
+                    result.put("layers", new JSONArray(layers));
+                    return result.toString();
+            }
+        }
+
+        /**
+         * Cheaper version of {@link #board()} for replays: json board
+         * is glued from the recorded fields and layers as text
+         * (layers go last), without parsing fields again.
+         * @return Board to be read with {@link com.codenjoy.dojo.client.ClientBoard#forChars(CharSequence)}.
+         */
+        public String frame() {
+            if (kind != JSON) {
+                return board();
+            }
+            StringBuilder result = new StringBuilder(fields.length() + 16 * layers.length);
+            // fields - всегда json объект, дописываем слои перед закрывающей скобкой
+            int end = fields.lastIndexOf('}');
+            result.append(fields, 0, end);
+            if (fields.substring(1, end).trim().length() > 0) {
+                result.append(',');
+            }
+            result.append("\"layers\":[");
+            for (int layer = 0; layer < layers.length; layer++) {
+                if (layer > 0) {
+                    result.append(',');
+                }
+                result.append(JSONObject.quote(layers[layer]));
+            }
+            return result.append("]}").toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Tick{index=%s, board=%s, answer=%s}", index, board(), answer);
+        }
+    }
+
+    private Recording(Path file) throws IOException {
+        channel = FileChannel.open(file, READ);
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Recording is too big: " + file);
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        data = mapped;
+        if (data.remaining() < 5 || data.getInt() != MAGIC) {
+            throw new IOException("Not a recording: " + file);
+        }
+        byte version = data.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of recording: " + file);
+        }
+        index();
+    }
+
+    public static Recording open(Path file) {
+        try {
+            return new Recording(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void index() {
+        int keyframe = -1;
+        while (data.hasRemaining()) {
+            int length = readVarInt(data);
+            int offset = data.position();
+            if (offset + length > data.limit()) {
+                // последний тик не дописан (например процесс убили)
+                break;
+            }
+            if (data.get(offset) == KEYFRAME) {
+                keyframe = size;
+            } else if (keyframe == -1) {
+                throw new IllegalStateException("Recording should start with keyframe");
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                keyframes = Arrays.copyOf(keyframes, size * 2);
+            }
+            offsets[size] = offset;
+            keyframes[size] = keyframe;
+            size++;
+            data.position(offset + length);
+        }
+    }
+
+    /**
+     * @return Count of recorded ticks.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index Number of tick (from 0).
+     * @return Reconstructed tick.
+     */
+    public Tick tick(int index) {
+        seek(index);
+        String[] result = new String[layers.length];
+        for (int layer = 0; layer < layers.length; layer++) {
+            result[layer] = new String(layers[layer]);
+        }
+        return new Tick(index, time, kind, result, fields, answer);
+    }
+
+    /**
+     * Allocation free access to the layers of the tick.
+     * @param index Number of tick (from 0).
+     * @return Layers of the tick, arrays are reused.
+     */
+    public char[][] layers(int index) {
+        seek(index);
+        return layers;
+    }
+
+    private void seek(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Tick " + index + " of " + size);
+        }
+        if (current == -1 || index < current || keyframes[index] > current) {
+            readKeyframe(keyframes[index]);
+        }
+        while (current < index) {
+            readDelta(current + 1);
+        }
+    }
+
+    private void readKeyframe(int index) {
+        data.position(offsets[index]);
+        data.get();
+        kind = data.get();
+        time = readVarLong(data);
+        int count = readVarInt(data);
+        if (layers == null || layers.length != count) {
+            layers = new char[count][];
+        }
+        for (int layer = 0; layer < count; layer++) {
+            layers[layer] = readString(data).toCharArray();
+        }
+        fields = readString(data);
+        answer = readString(data);
+        current = index;
+    }
+
+    private void readDelta(int index) {
+        data.position(offsets[index]);
+        data.get();
+        kind = data.get();
+        time = readVarLong(data);
+        for (char[] layer : layers) {
+            int changes = readVarInt(data);
+            int position = 0;
+            for (int change = 0; change < changes; change++) {
+                position += readVarInt(data);
+                layer[position] = (char) readVarInt(data);
+            }
+        }
+        if (data.get() != 0) {
+            fields = readString(data);
+        }
+        answer = readString(data);
+        current = index;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -117,59 +117,59 @@ public class Board extends AbstractBoard<Element> {
     }
 
     public boolean isHeroAt(Point pt) {
-        return isAt(pt, heroes);
+        return isAt(pt, Categories.HEROES);
     }
 
     public boolean isOtherHeroAt(Point pt) {
-        return isAt(pt, otherHeroes);
+        return isAt(pt, Categories.OTHER_HEROES);
     }
 
     public boolean isEnemyHeroAt(Point pt) {
-        return isAt(pt, enemyHeroes);
+        return isAt(pt, Categories.ENEMY_HEROES);
     }
 
     public boolean isRobberAt(Point pt) {
-        return isAt(pt, robbers);
+        return isAt(pt, Categories.ROBBERS);
     }
 
     public boolean isClueAt(Point pt) {
-        return isAt(pt, clues);
+        return isAt(pt, Categories.CLUES);
     }
 
     public boolean isBackWayAt(Point pt) {
-        return isAt(pt, backWays);
+        return isAt(pt, Categories.BACK_WAYS);
     }
 
     public boolean isMaskPotionAt(Point pt) {
-        return isAt(pt, maskPotions);
+        return isAt(pt, Categories.MASK_POTIONS);
     }
 
     public boolean isWallAt(Point pt) {
-        return isAt(pt, walls);
+        return isAt(pt, Categories.WALLS);
     }
 
     public boolean isLadderAt(Point pt) {
-        return isAt(pt, ladders);
+        return isAt(pt, Categories.LADDERS);
     }
 
     public boolean isPipeAt(Point pt) {
-        return isAt(pt, pipes);
+        return isAt(pt, Categories.PIPES);
     }
 
     public boolean isPitAt(Point pt) {
-        return isAt(pt, pits);
+        return isAt(pt, Categories.PITS);
     }
 
     public boolean isDoorAt(Point pt) {
-        return isAt(pt, doors);
+        return isAt(pt, Categories.DOORS);
     }
 
     public boolean isKeyAt(Point pt) {
-        return isAt(pt, keys);
+        return isAt(pt, Categories.KEYS);
     }
 
     public boolean isBarrierAt(Point pt) {
-        return isAt(pt, barriers);
+        return isAt(pt, Categories.BARRIERS);
     }
 
     @Override
@@ -24,11 +24,14 @@ package com.codenjoy.dojo.games.expansion;
 
 
 import com.codenjoy.dojo.client.AbstractBoard;
+import com.codenjoy.dojo.client.ClientBoard;
 import com.codenjoy.dojo.client.Utils;
+import com.codenjoy.dojo.services.IntIntPredicate;
 import com.codenjoy.dojo.services.Point;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -48,6 +51,9 @@ public class Board extends AbstractBoard<Element> {
 
     private final int COUNT_NUMBERS = 3;
 
+    private final ForcesGrid forces = new ForcesGrid();
+    private boolean forcesBuilt;
+
     @Override
     public Element[] elements() {
         return Element.values();
@@ -58,6 +64,24 @@ public class Board extends AbstractBoard<Element> {
         return size - 1 - y;
     }
 
+    @Override
+    public ClientBoard forLayers(CharSequence... layers) {
+        forcesBuilt = false;
+        return super.forLayers(layers);
+    }
+
+    @Override
+    public void set(int x, int y, char ch) {
+        forcesBuilt = false;
+        super.set(x, y, ch);
+    }
+
+    @Override
+    public void setSource(JSONObject source) {
+        forcesBuilt = false;
+        super.setSource(source);
+    }
+
     /**
      * @param x X coordinate.
      * @param y Y coordinate.
@@ -134,86 +158,67 @@ public class Board extends AbstractBoard<Element> {
         return pt(pt.getInt("x"), pt.getInt("y"));
     }
 
+    /**
+     * @return Forces of all cells, decoded once per tick.
+     */
+    public ForcesGrid getForcesGrid() {
+        if (!forcesBuilt) {
+            int myColor = source.has("myColor")
+                    ? source.getInt("myColor")
+                    : ForcesGrid.NO_OWNER;
+            forces.build(size, getForcesString(), layer(LAYER2).field(), myColor);
+            forcesBuilt = true;
+        }
+        return forces;
+    }
+
     /**
      * @return Returns position of your forces.
      */
     public List<Forces> getMyForces() {
-        List<Forces> forces = getAllForces();
-        List<Forces> result = new LinkedList<>();
-        Element myColor = getMyForcesColor();
-        for (Forces force : forces) {
-            Point pt = force.getRegion();
-            if (isAt(pt.getX(), pt.getY(), myColor)) {
-                result.add(force);
-            }
-        }
-        return result;
+        ForcesGrid grid = getForcesGrid();
+        int color = ElementUtils.index(getMyForcesColor());
+        return getForces((x, y) -> grid.owner(x, y) == color);
     }
 
     public List<Forces> getAllForces() {
-        String map = getForcesString();
-        int[][] array = getForcesArray(map);
-        List<Forces> result = getForces(array);
-        return result;
+        return getForces((x, y) -> true);
     }
 
     private String getForcesString() {
         return source.getString("forces");
     }
 
-    private List<Forces> getForces(int[][] array) {
-        List<Forces> result = new LinkedList<>();
+    private List<Forces> getForces(IntIntPredicate filter) {
+        ForcesGrid grid = getForcesGrid();
+        List<Forces> result = new ArrayList<>();
         for (int x = 0; x < size; x++) {
             for (int y = 0; y < size; y++) {
-                int count = array[x][y];
-                if (count > 0) {
-                    Forces force = new Forces(pt(x, y), count);
-                    result.add(force);
+                int count = grid.count(x, y);
+                if (count > 0 && filter.test(x, y)) {
+                    result.add(new Forces(pt(x, y), count));
                 }
             }
         }
         return result;
     }
 
-    private int[][] getForcesArray(String map) {
-        int[][] result = new int[size][size];
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size; x++) {
-                int l = y * size + x;
-                String sub = map.substring(l*COUNT_NUMBERS, (l + 1)*COUNT_NUMBERS);
-                int count = parseCount(sub);
-
-                int xx = inversionX(x);
-                int yy = inversionY(y);
-
-                result[xx][yy] = count;
-            }
-        }
-        return result;
-    }
-
-    private int parseCount(String sub) {
-        if (sub.equals("-=#")) {
-            return 0;
-        } else {
-            return Integer.parseInt(sub, Character.MAX_RADIX);
-        }
-    }
-
     /**
      * @return Returns list of coordinates for all visible enemy forces.
      */
     public List<Forces> getEnemyForces() {
-        List<Forces> forces = getAllForces();
-        List<Forces> result = new LinkedList<>();
-        Element myColor = getMyForcesColor();
-        for (Forces force : forces) {
-            Point pt = force.getRegion();
-            if (!isAt(pt.getX(), pt.getY(), myColor)) {
-                result.add(force);
-            }
-        }
-        return result;
+        ForcesGrid grid = getForcesGrid();
+        int color = ElementUtils.index(getMyForcesColor());
+        return getForces((x, y) -> grid.owner(x, y) != color);
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Count of forces in the cell (0 if none).
+     */
+    public int getForcesCountAt(int x, int y) {
+        return getForcesGrid().count(x, y);
     }
 
     /**
@@ -315,11 +320,11 @@ public class Board extends AbstractBoard<Element> {
         String[] layer2 = layer(LAYER2).boardAsString().split("\n");
         String[] layer3 = Utils.injectNN(getForcesString()).split("\n");
 
-        int[][] array = getForcesArray(getForcesString());
+        ForcesGrid grid = getForcesGrid();
         for (int y = 0; y < size; y++) {
             String line = "";
             for (int x = 0; x < size; x++) {
-                String num = StringUtils.leftPad(Integer.toString(array[x][y]), COUNT_NUMBERS + 1, ' ');
+                String num = StringUtils.leftPad(Integer.toString(grid.count(x, y)), COUNT_NUMBERS + 1, ' ');
                 if (num.equals("   0")) num = "    ";
                 line += num + '|';
             }
@@ -385,11 +390,7 @@ public class Board extends AbstractBoard<Element> {
     }
 
     public Forces forceAt(Point point) {
-        for (Forces force : getAllForces()) {
-            if (force.getRegion().itsMe(point)) {
-                return force;
-            }
-        }
-        return null;
+        int count = getForcesGrid().count(point);
+        return (count > 0) ? new Forces(point, count) : null;
     }
 }
\ No newline at end of file
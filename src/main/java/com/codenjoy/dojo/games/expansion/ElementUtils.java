@@ -77,6 +77,13 @@ public class ElementUtils {
             FOG,
     };
 
+    public static final Element[] forces = new Element[] {
+            FORCE1,
+            FORCE2,
+            FORCE3,
+            FORCE4,
+    };
+
     public static final Element[] layer2 = new Element[] {
             EMPTY,
             FORCE1,
@@ -0,0 +1,189 @@
+package com.codenjoy.dojo.games.expansion;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.Arrays;
+
+/**
+ * Forces of all cells decoded once per tick (see {@link Board#getForcesGrid()})
+ * straight from the {@code forces} string (3 base-36 chars per cell,
+ * {@code -=#} for no forces) into flat arrays, owner of every cell
+ * is taken from the {@link Element#FORCE1}..{@link Element#FORCE4} layer.
+ * All queries are O(1).
+ */
+@PerformanceOptimized
+public class ForcesGrid {
+
+    public static final int NO_OWNER = -1;
+
+    private static final int COUNT_NUMBERS = 3;
+    private static final String NO_FORCES = "-=#";
+    private static final byte[] OWNERS = owners();
+
+    private int size;
+    private int myColor = NO_OWNER;
+    private int[] counts = new int[0];
+    private byte[] owners = new byte[0];
+
+    /**
+     * @param size Board size.
+     * @param forces Forces string of the board, first row is the top of the board.
+     * @param layer Forces layer of the board (already inverted, [x][y]).
+     * @param myColor Index of my color (see {@link ElementUtils#index(Element)})
+     *                or {@link #NO_OWNER}.
+     * @return This grid.
+     */
+    public ForcesGrid build(int size, CharSequence forces, char[][] layer, int myColor) {
+        if (forces.length() < size * size * COUNT_NUMBERS) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected %s chars of forces for board %sx%s but was %s",
+                    size * size * COUNT_NUMBERS, size, size, forces.length()));
+        }
+        this.size = size;
+        this.myColor = myColor;
+        if (counts.length != size * size) {
+            counts = new int[size * size];
+            owners = new byte[size * size];
+        }
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            int y = size - 1 - row;
+            for (int x = 0; x < size; x++) {
+                int cell = cell(x, y);
+                counts[cell] = parse(forces, position);
+                owners[cell] = (byte) owner(layer[x][y]);
+                position += COUNT_NUMBERS;
+            }
+        }
+        return this;
+    }
+
+    private static int parse(CharSequence forces, int position) {
+        char first = forces.charAt(position);
+        if (first == NO_FORCES.charAt(0)
+                && forces.charAt(position + 1) == NO_FORCES.charAt(1)
+                && forces.charAt(position + 2) == NO_FORCES.charAt(2))
+        {
+            return 0;
+        }
+        int result = 0;
+        for (int index = 0; index < COUNT_NUMBERS; index++) {
+            char ch = forces.charAt(position + index);
+            int digit = Character.digit(ch, Character.MAX_RADIX);
+            if (digit == -1) {
+                throw new NumberFormatException(String.format(
+                        "Bad forces '%s' at %s", ch, position + index));
+            }
+            result = result * Character.MAX_RADIX + digit;
+        }
+        return result;
+    }
+
+    // цвет по символу берем из тех же элементов, что и getMyForcesColor
+    private static byte[] owners() {
+        int max = 0;
+        for (Element element : ElementUtils.forces) {
+            max = Math.max(max, element.ch());
+        }
+        byte[] result = new byte[max + 1];
+        Arrays.fill(result, (byte) NO_OWNER);
+        for (Element element : ElementUtils.forces) {
+            result[element.ch()] = (byte) ElementUtils.index(element);
+        }
+        return result;
+    }
+
+    private static int owner(char ch) {
+        return (ch < OWNERS.length) ? OWNERS[ch] : NO_OWNER;
+    }
+
+    private int cell(int x, int y) {
+        return y * size + x;
+    }
+
+    private boolean isOutOf(int x, int y) {
+        return Point.isOutOf(x, y, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Count of forces in the cell (0 if none or out of board).
+     */
+    public int count(int x, int y) {
+        if (isOutOf(x, y)) {
+            return 0;
+        }
+        return counts[cell(x, y)];
+    }
+
+    public int count(Point pt) {
+        return count(pt.getX(), pt.getY());
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Color index of the forces in the cell or {@link #NO_OWNER}.
+     */
+    public int owner(int x, int y) {
+        if (isOutOf(x, y)) {
+            return NO_OWNER;
+        }
+        return owners[cell(x, y)];
+    }
+
+    public boolean isMine(int x, int y) {
+        return myColor != NO_OWNER && count(x, y) > 0 && owner(x, y) == myColor;
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return true if there are forces in the cell and they are not mine.
+     */
+    public boolean isEnemy(int x, int y) {
+        return count(x, y) > 0 && (myColor == NO_OWNER || owner(x, y) != myColor);
+    }
+
+    /**
+     * @param color Color index (see {@link ElementUtils#index(Element)}).
+     * @return Sum of all forces of given color on the board.
+     */
+    public int total(int color) {
+        int result = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (owners[cell] == color) {
+                result += counts[cell];
+            }
+        }
+        return result;
+    }
+}
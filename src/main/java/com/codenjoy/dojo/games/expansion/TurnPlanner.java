@@ -0,0 +1,500 @@
+package com.codenjoy.dojo.games.expansion;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.client.Closeable;
+import com.codenjoy.dojo.client.Deadline;
+import com.codenjoy.dojo.services.QDirection;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static com.codenjoy.dojo.games.expansion.Element.GOLD;
+import static com.codenjoy.dojo.services.PointImpl.pt;
+
+/**
+ * Chooses forces to increase and to move on this turn. Candidate sets
+ * of {@link Forces} and {@link ForcesMoves} are generated randomly
+ * (candidate 0 is the greedy one: no moves, all forces to the most
+ * threatened cell), each candidate is applied to the copy of the board
+ * and scored by territory (cells and gold taken) minus threat (enemy
+ * neighbors stronger than my forces) plus free cells to expand to.
+ * Candidates are searched in batches on {@link ForkJoinPool} until
+ * the deadline, every candidate is generated from its number,
+ * so the best one is rebuilt at the end instead of being kept.
+ * One planner should be kept in the solver, it owns the pool.
+ */
+@PerformanceOptimized
+public class TurnPlanner implements Closeable {
+
+    /**
+     * Сколько потоков оценивают кандидатов.
+     */
+    public static int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Сколько кандидатов оценивается за один параллельный проход.
+     */
+    public static int BATCH = 512;
+
+    /**
+     * Больше кандидатов не смотрим, даже если время есть.
+     */
+    public static int MAX_CANDIDATES = 1 << 16;
+
+    // веса оценки позиции
+    static final int CELL = 100;
+    static final int GOLD_CELL = 300;
+    static final int ENEMY_CELL = 50;
+    static final int FRONTIER = 10;
+    static final int THREAT = 5;
+
+    // кандидатов в одной задаче fork-join, меньше делить нет смысла
+    private static final int LEAF = 32;
+
+    private static final QDirection[] DIRECTIONS = QDirection.getValues().toArray(new QDirection[0]);
+
+    private final ForkJoinPool pool;
+    private long seed;
+    private int evaluated;
+    private long score;
+
+    public TurnPlanner() {
+        this(THREADS);
+    }
+
+    public TurnPlanner(int threads) {
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * @param seed Seed of candidates generation (the same seed - the same candidates).
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param board Board of the current tick.
+     * @param deadline Time of the turn.
+     * @return Best command found till the deadline.
+     */
+    public Command plan(Board board, Deadline deadline) {
+        return plan(board, deadline, MAX_CANDIDATES);
+    }
+
+    /**
+     * @param board Board of the current tick.
+     * @param deadline Time of the turn (at least the greedy candidate is evaluated).
+     * @param candidates Max count of candidates (at least 1 - the greedy one).
+     * @return Best command found.
+     */
+    public Command plan(Board board, Deadline deadline, int candidates) {
+        evaluated = 0;
+        score = Long.MIN_VALUE;
+        Position position = new Position(board);
+        if (position.mine.length == 0) {
+            return Command.doNothing();
+        }
+
+        int count = Math.max(1, candidates);
+        long[] best = {Long.MIN_VALUE, -1, 0};
+        for (int from = 0; from < count; from += BATCH) {
+            int to = Math.min(count, from + BATCH);
+            long[] result = pool.invoke(new Search(position, seed, from, to, deadline));
+            merge(best, result);
+            if (deadline.isExpired()) {
+                break;
+            }
+        }
+        evaluated = (int) best[2];
+        score = best[0];
+
+        Plan plan = new Plan(position);
+        plan.generate(seed, (int) best[1]);
+        return plan.command();
+    }
+
+    private static void merge(long[] best, long[] result) {
+        // при равенстве лучше кандидат с меньшим номером - результат не зависит от потоков
+        if (result[1] != -1 && (result[0] > best[0]
+                || (result[0] == best[0] && result[1] < best[1])))
+        {
+            best[0] = result[0];
+            best[1] = result[1];
+        }
+        best[2] += result[2];
+    }
+
+    /**
+     * @return Count of candidates evaluated by the last plan.
+     */
+    public int evaluated() {
+        return evaluated;
+    }
+
+    /**
+     * @return Score of the best candidate of the last plan.
+     */
+    public long score() {
+        return score;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Snapshot of the board for all threads: forces, owners, passable
+     * cells and gold in flat arrays (cell = y * size + x).
+     */
+    static class Position {
+
+        final int size;
+        final int me;
+        final int available;
+        final int[] counts;
+        final int[] owners;
+        final boolean[] passable;
+        final boolean[] gold;
+        final int[] mine;
+        // соседи клетки по 8 направлениям, -1 если нельзя
+        final int[] neighbors;
+
+        Position(Board board) {
+            size = board.size();
+            ForcesGrid grid = board.getForcesGrid();
+            me = ElementUtils.index(board.getMyForcesColor());
+            available = board.getForcesAvailable();
+            counts = new int[size * size];
+            owners = new int[size * size];
+            passable = new boolean[size * size];
+            gold = new boolean[size * size];
+            int count = 0;
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int cell = y * size + x;
+                    counts[cell] = grid.count(x, y);
+                    owners[cell] = grid.owner(x, y);
+                    passable[cell] = !board.isBarrierAt(x, y) && !board.isHoleAt(x, y);
+                    gold[cell] = board.isAt(x, y, GOLD);
+                    if (counts[cell] > 0 && owners[cell] == me) {
+                        count++;
+                    }
+                }
+            }
+            mine = new int[count];
+            neighbors = new int[size * size * DIRECTIONS.length];
+            count = 0;
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (counts[cell] > 0 && owners[cell] == me) {
+                    mine[count++] = cell;
+                }
+                int x = cell % size;
+                int y = cell / size;
+                for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                    int nx = DIRECTIONS[direction].changeX(x);
+                    int ny = DIRECTIONS[direction].changeY(y);
+                    boolean ok = nx >= 0 && ny >= 0 && nx < size && ny < size
+                            && passable[ny * size + nx];
+                    neighbors[cell * DIRECTIONS.length + direction] = ok ? ny * size + nx : -1;
+                }
+            }
+        }
+
+        int neighbor(int cell, int direction) {
+            return neighbors[cell * DIRECTIONS.length + direction];
+        }
+    }
+
+    /**
+     * One candidate: forces to increase and to move, plus scratch
+     * arrays to apply it. Reused for all candidates of one task.
+     */
+    static class Plan {
+
+        private final Position position;
+        private final int[] increaseCells;
+        private final int[] increaseCounts;
+        private int increases;
+        private final int[] moveCells;
+        private final int[] moveDirections;
+        private final int[] moveCounts;
+        private int moves;
+
+        private final int[] counts;
+        private final int[] owners;
+        private long random;
+
+        Plan(Position position) {
+            this.position = position;
+            int mine = position.mine.length;
+            increaseCells = new int[2];
+            increaseCounts = new int[2];
+            moveCells = new int[mine];
+            moveDirections = new int[mine];
+            moveCounts = new int[mine];
+            counts = new int[position.counts.length];
+            owners = new int[position.owners.length];
+        }
+
+        private int next(int bound) {
+            // xorshift - без аллокаций на каждого кандидата
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return (int) ((random >>> 1) % bound);
+        }
+
+        private static long mix(long seed, int index) {
+            // splitmix64 - соседние номера дают независимые последовательности
+            long result = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+            result = (result ^ (result >>> 30)) * 0xBF58476D1CE4E5B9L;
+            result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+            result ^= result >>> 31;
+            return (result == 0) ? 1 : result;
+        }
+
+        void generate(long seed, int index) {
+            increases = 0;
+            moves = 0;
+            Position p = position;
+            if (index == 0) {
+                greedy();
+                return;
+            }
+            random = mix(seed, index);
+
+            for (int cell : p.mine) {
+                int count = p.counts[cell];
+                if (count < 2 || next(2) == 0) {
+                    continue;
+                }
+                int direction = next(DIRECTIONS.length);
+                if (p.neighbor(cell, direction) == -1) {
+                    continue;
+                }
+                int amount;
+                switch (next(3)) {
+                    case 0: amount = 1; break;
+                    case 1: amount = Math.max(1, count / 2); break;
+                    default: amount = count - 1;
+                }
+                moveCells[moves] = cell;
+                moveDirections[moves] = direction;
+                moveCounts[moves] = amount;
+                moves++;
+            }
+
+            if (p.available > 0) {
+                int first = p.mine[next(p.mine.length)];
+                if (p.available > 1 && next(2) == 0) {
+                    int second = p.mine[next(p.mine.length)];
+                    int half = p.available / 2;
+                    increase(first, p.available - half);
+                    if (second != first) {
+                        increase(second, half);
+                    } else {
+                        increaseCounts[0] += half;
+                    }
+                } else {
+                    increase(first, p.available);
+                }
+            }
+        }
+
+        private void greedy() {
+            Position p = position;
+            if (p.available <= 0) {
+                return;
+            }
+            int best = p.mine[0];
+            int bestThreat = -1;
+            for (int cell : p.mine) {
+                int threat = threat(p.counts, p.owners, cell);
+                if (threat > bestThreat) {
+                    best = cell;
+                    bestThreat = threat;
+                }
+            }
+            increase(best, p.available);
+        }
+
+        private void increase(int cell, int count) {
+            increaseCells[increases] = cell;
+            increaseCounts[increases] = count;
+            increases++;
+        }
+
+        long evaluate() {
+            Position p = position;
+            System.arraycopy(p.counts, 0, counts, 0, counts.length);
+            System.arraycopy(p.owners, 0, owners, 0, owners.length);
+            for (int index = 0; index < increases; index++) {
+                counts[increaseCells[index]] += increaseCounts[index];
+            }
+            // сначала все уходят, потом все приходят - порядок приказов не важен
+            for (int index = 0; index < moves; index++) {
+                counts[moveCells[index]] -= moveCounts[index];
+            }
+            for (int index = 0; index < moves; index++) {
+                arrive(p.neighbor(moveCells[index], moveDirections[index]), moveCounts[index]);
+            }
+            return score();
+        }
+
+        private void arrive(int cell, int count) {
+            int me = position.me;
+            if (counts[cell] == 0 || owners[cell] == me) {
+                owners[cell] = me;
+                counts[cell] += count;
+                return;
+            }
+            int left = counts[cell] - count;
+            if (left < 0) {
+                owners[cell] = me;
+                counts[cell] = -left;
+            } else if (left == 0) {
+                owners[cell] = ForcesGrid.NO_OWNER;
+                counts[cell] = 0;
+            } else {
+                counts[cell] = left;
+            }
+        }
+
+        private long score() {
+            Position p = position;
+            long result = 0;
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (counts[cell] == 0) {
+                    continue;
+                }
+                if (owners[cell] != p.me) {
+                    result -= ENEMY_CELL;
+                    continue;
+                }
+                result += p.gold[cell] ? GOLD_CELL : CELL;
+                result -= (long) THREAT * threat(counts, owners, cell);
+                for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                    int next = p.neighbor(cell, direction);
+                    if (next != -1 && counts[next] == 0) {
+                        result += FRONTIER;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return How many forces the strongest enemy neighbor
+         *         has more than my cell.
+         */
+        private int threat(int[] counts, int[] owners, int cell) {
+            Position p = position;
+            int result = 0;
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int next = p.neighbor(cell, direction);
+                if (next == -1 || counts[next] == 0 || owners[next] == p.me) {
+                    continue;
+                }
+                result = Math.max(result, counts[next] - counts[cell]);
+            }
+            return result;
+        }
+
+        Command command() {
+            Position p = position;
+            List<Forces> increase = new ArrayList<>();
+            for (int index = 0; index < increases; index++) {
+                int cell = increaseCells[index];
+                increase.add(new Forces(pt(cell % p.size, cell / p.size), increaseCounts[index]));
+            }
+            List<ForcesMoves> move = new ArrayList<>();
+            for (int index = 0; index < moves; index++) {
+                int cell = moveCells[index];
+                move.add(new ForcesMoves(pt(cell % p.size, cell / p.size),
+                        moveCounts[index], DIRECTIONS[moveDirections[index]]));
+            }
+            return Command.increase(increase.toArray(new Forces[0]))
+                    .move(move.toArray(new ForcesMoves[0]))
+                    .build();
+        }
+    }
+
+    /**
+     * Evaluates candidates [from, to), splits the range till {@link #LEAF}.
+     * Result is {best score, best candidate or -1, count of evaluated}.
+     */
+    private static class Search extends RecursiveTask<long[]> {
+
+        private final Position position;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final Deadline deadline;
+
+        Search(Position position, long seed, int from, int to, Deadline deadline) {
+            this.position = position;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= LEAF) {
+                return evaluate();
+            }
+            int middle = (from + to) >>> 1;
+            Search left = new Search(position, seed, from, middle, deadline);
+            left.fork();
+            long[] result = new Search(position, seed, middle, to, deadline).compute();
+            merge(result, left.join());
+            return result;
+        }
+
+        private long[] evaluate() {
+            long[] result = {Long.MIN_VALUE, -1, 0};
+            Plan plan = new Plan(position);
+            for (int index = from; index < to; index++) {
+                // жадного кандидата оцениваем всегда, чтобы было что ответить
+                if (index != 0 && deadline.isExpired()) {
+                    break;
+                }
+                plan.generate(seed, index);
+                long score = plan.evaluate();
+                result[2]++;
+                if (score > result[0]) {
+                    result[0] = score;
+                    result[1] = index;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -24,6 +24,7 @@ package com.codenjoy.dojo.games.icancode;
 
 
 import com.codenjoy.dojo.client.AbstractBoard;
+import com.codenjoy.dojo.client.ClientBoard;
 import com.codenjoy.dojo.services.Point;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
@@ -43,11 +44,26 @@ import static com.codenjoy.dojo.services.PointImpl.pt;
  */
 public class Board extends AbstractBoard<Element> {
 
+    private final HazardMap hazards = new HazardMap();
+    private boolean hazardsBuilt;
+
     @Override
     public Element[] elements() {
         return Element.values();
     }
 
+    @Override
+    public ClientBoard forLayers(CharSequence... layers) {
+        hazardsBuilt = false;
+        return super.forLayers(layers);
+    }
+
+    @Override
+    public void set(int x, int y, char ch) {
+        hazardsBuilt = false;
+        super.set(x, y, ch);
+    }
+
     @Override
     protected int inversionY(int y) {
         return size - 1 - y;
@@ -59,11 +75,18 @@ public class Board extends AbstractBoard<Element> {
      * @return Is it possible to go through the cell with {x,y} coordinates.
      */
     public boolean isBarrierAt(int x, int y) {
-        return !layer(LAYER1).isAt(x, y, FLOOR, START, EXIT, GOLD, HOLE)
-                || !layer(LAYER2).isAt(x, y, EMPTY, GOLD,
-                        LASER_DOWN, LASER_UP, LASER_LEFT, LASER_RIGHT,
-                        ROBO_OTHER, ROBO_OTHER_FLYING, ROBO_OTHER_FALLING, ROBO_OTHER_LASER,
-                        ROBO, ROBO_FLYING, ROBO_FALLING, ROBO_LASER);
+        return getHazardMap().isBarrier(x, y);
+    }
+
+    /**
+     * @return Passability, lasers and zombies of the current tick, built once per tick.
+     */
+    public HazardMap getHazardMap() {
+        if (!hazardsBuilt) {
+            hazards.build(size, layer(LAYER1).field(), layer(LAYER2).field());
+            hazardsBuilt = true;
+        }
+        return hazards;
     }
 
     /**
@@ -79,19 +102,11 @@ public class Board extends AbstractBoard<Element> {
      * @return Returns position of your robot.
      */
     public Point getHero() {
-        List<Point> points = new LinkedList<>() {{
-            addAll(Board.this.layer(LAYER2)
-                    .get(ROBO_FALLING,
-                            ROBO_LASER,
-                            ROBO));
-            addAll(Board.this.layer(LAYER3).
-                    get(ROBO_FLYING));
-        }};
-
-        if (points.isEmpty()) {
-            return null;
+        Point result = layer(LAYER2).getFirst(ROBO_FALLING, ROBO_LASER, ROBO);
+        if (result != null) {
+            return result;
         }
-        return points.get(0);
+        return layer(LAYER3).getFirst(ROBO_FLYING);
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.codenjoy.dojo.games.icancode;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.client.Category;
+
+import static com.codenjoy.dojo.games.icancode.ElementUtils.*;
+
+/**
+ * Groups of elements from {@link ElementUtils} compiled
+ * for fast {@code isAt} checks.
+ */
+public class Categories {
+
+    public static final Category<Element> WALLS = Category.of(walls);
+
+    public static final Category<Element> PERKS = Category.of(perks);
+
+    public static final Category<Element> LASER_MACHINES = Category.of(laserMachines);
+
+    public static final Category<Element> LASERS = Category.of(lasers);
+
+    public static final Category<Element> ZOMBIES = Category.of(zombies);
+
+    public static final Category<Element> FLOORS = Category.of(floors);
+
+    public static final Category<Element> PASSABLE = Category.of(passable);
+}
@@ -52,6 +52,56 @@ public class ElementUtils {
             SPACE,
     };
 
+    public static final Element[] laserMachines = new Element[]{
+            LASER_MACHINE_CHARGING_LEFT,
+            LASER_MACHINE_CHARGING_RIGHT,
+            LASER_MACHINE_CHARGING_UP,
+            LASER_MACHINE_CHARGING_DOWN,
+            LASER_MACHINE_READY_LEFT,
+            LASER_MACHINE_READY_RIGHT,
+            LASER_MACHINE_READY_UP,
+            LASER_MACHINE_READY_DOWN,
+    };
+
+    public static final Element[] lasers = new Element[]{
+            LASER_LEFT,
+            LASER_RIGHT,
+            LASER_UP,
+            LASER_DOWN,
+    };
+
+    public static final Element[] zombies = new Element[]{
+            FEMALE_ZOMBIE,
+            MALE_ZOMBIE,
+    };
+
+    // по чему можно ходить на первом слое
+    public static final Element[] floors = new Element[]{
+            FLOOR,
+            START,
+            EXIT,
+            GOLD,
+            HOLE,
+    };
+
+    // что не мешает ходить на втором слое
+    public static final Element[] passable = new Element[]{
+            EMPTY,
+            GOLD,
+            LASER_DOWN,
+            LASER_UP,
+            LASER_LEFT,
+            LASER_RIGHT,
+            ROBO_OTHER,
+            ROBO_OTHER_FLYING,
+            ROBO_OTHER_FALLING,
+            ROBO_OTHER_LASER,
+            ROBO,
+            ROBO_FLYING,
+            ROBO_FALLING,
+            ROBO_LASER,
+    };
+
     public static final Element[] layer1 = new Element[]{
             FLOOR,
             ANGLE_IN_LEFT,
@@ -0,0 +1,337 @@
+package com.codenjoy.dojo.games.icancode;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+import com.codenjoy.dojo.services.path.HazardOracle;
+import com.codenjoy.dojo.services.path.SpaceTimeFinder;
+
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.games.icancode.Element.BOX;
+import static com.codenjoy.dojo.games.icancode.Element.HOLE;
+import static com.codenjoy.dojo.services.Direction.*;
+
+/**
+ * Per tick model of the board, built once per tick
+ * (see {@link Board#getHazardMap()}), so move and jump decisions
+ * are array lookups:
+ * <ul>
+ *     <li>passability and holes - bit sets;</li>
+ *     <li>lasers - bit masks of ticks (up to {@link #MAX_TICKS}):
+ *     lasers on the board go {@link #SPEED} cells per tick, ready
+ *     laser machines shoot on the next tick;</li>
+ *     <li>rays of laser machines - the earliest tick the next shot
+ *     can reach the cell, charging time is not known to the client,
+ *     so charging machines are considered ready on the next tick;</li>
+ *     <li>zombie reach - the earliest tick a zombie can come to the cell.</li>
+ * </ul>
+ * Lasers stop at walls, laser machines and boxes.
+ * It is also the hazard for {@link SpaceTimeFinder}: lasers and zombies.
+ */
+@PerformanceOptimized
+public class HazardMap implements HazardOracle {
+
+    /**
+     * Сколько клеток за тик пролетает лазер.
+     */
+    public static int SPEED = 1;
+
+    public static final int MAX_TICKS = 31;
+
+    /**
+     * Nothing comes to the cell.
+     */
+    public static final int NEVER = Integer.MAX_VALUE;
+
+    // элемент по символу, только для лазеров и лазерных машин
+    private static final Element[] ELEMENTS = elements();
+
+    private int size;
+    private long[] barriers = new long[0];
+    private long[] holes = new long[0];
+    private int[] lasers = new int[0];
+    private int[] rays = new int[0];
+    private int[] zombies = new int[0];
+    private int[] queue = new int[0];
+
+    /**
+     * Rebuilds the model for the current state of the board,
+     * arrays are reused if board size is the same.
+     * @param size Board size.
+     * @param layer1 Raw field of the floor layer.
+     * @param layer2 Raw field of the items layer.
+     * @return This map.
+     */
+    public HazardMap build(int size, char[][] layer1, char[][] layer2) {
+        this.size = size;
+        int cells = size * size;
+        if (lasers.length != cells) {
+            barriers = new long[(cells + 63) >>> 6];
+            holes = new long[barriers.length];
+            lasers = new int[cells];
+            rays = new int[cells];
+            zombies = new int[cells];
+            queue = new int[cells];
+        } else {
+            Arrays.fill(barriers, 0);
+            Arrays.fill(holes, 0);
+            Arrays.fill(lasers, 0);
+        }
+        Arrays.fill(rays, NEVER);
+        Arrays.fill(zombies, NEVER);
+
+        int tail = 0;
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int cell = cell(x, y);
+                char floor = layer1[x][y];
+                char item = layer2[x][y];
+                if (!Categories.FLOORS.has(floor) || !Categories.PASSABLE.has(item)) {
+                    set(barriers, cell);
+                }
+                if (floor == HOLE.ch()) {
+                    set(holes, cell);
+                }
+                if (Categories.ZOMBIES.has(item)) {
+                    zombies[cell] = 0;
+                    queue[tail++] = cell;
+                }
+            }
+        }
+
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                char floor = layer1[x][y];
+                char item = layer2[x][y];
+                if (Categories.LASERS.has(item)) {
+                    laser(layer1, layer2, x, y, direction(ELEMENTS[item]));
+                }
+                if (Categories.LASER_MACHINES.has(floor)) {
+                    machine(layer1, layer2, x, y, ELEMENTS[floor]);
+                }
+            }
+        }
+
+        zombies(layer1, layer2, tail);
+        return this;
+    }
+
+    private static Element[] elements() {
+        int max = 0;
+        for (Element element : Element.values()) {
+            max = Math.max(max, element.ch());
+        }
+        Element[] result = new Element[max + 1];
+        for (Element element : Element.values()) {
+            result[element.ch()] = element;
+        }
+        return result;
+    }
+
+    private static Direction direction(Element element) {
+        switch (element) {
+            case LASER_LEFT:
+            case LASER_MACHINE_CHARGING_LEFT:
+            case LASER_MACHINE_READY_LEFT:
+                return LEFT;
+            case LASER_RIGHT:
+            case LASER_MACHINE_CHARGING_RIGHT:
+            case LASER_MACHINE_READY_RIGHT:
+                return RIGHT;
+            case LASER_UP:
+            case LASER_MACHINE_CHARGING_UP:
+            case LASER_MACHINE_READY_UP:
+                return UP;
+            default:
+                return DOWN;
+        }
+    }
+
+    private static boolean isReady(Element element) {
+        switch (element) {
+            case LASER_MACHINE_READY_LEFT:
+            case LASER_MACHINE_READY_RIGHT:
+            case LASER_MACHINE_READY_UP:
+            case LASER_MACHINE_READY_DOWN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void laser(char[][] layer1, char[][] layer2, int x, int y, Direction direction) {
+        lasers[cell(x, y)] |= 1;
+        fly(layer1, layer2, x, y, direction, 1);
+    }
+
+    private void machine(char[][] layer1, char[][] layer2, int x, int y, Element machine) {
+        Direction direction = direction(machine);
+        // готовая стреляет на следующем тике, а сколько еще заряжаться
+        // остальным неизвестно - считаем что они будут готовы через тик
+        int tick = 2;
+        if (isReady(machine)) {
+            fly(layer1, layer2, x, y, direction, 1);
+            tick = 1;
+        }
+        int step = 0;
+        while (true) {
+            x = direction.changeX(x);
+            y = direction.changeY(y);
+            if (isStop(layer1, layer2, x, y)) {
+                return;
+            }
+            int cell = cell(x, y);
+            rays[cell] = Math.min(rays[cell], tick);
+            if (++step == SPEED) {
+                step = 0;
+                tick++;
+            }
+        }
+    }
+
+    /**
+     * Marks cells the laser passes starting from the tick specified,
+     * all cells passed during the tick are marked, so the hero
+     * can't slip through the laser moving towards him.
+     */
+    private void fly(char[][] layer1, char[][] layer2, int x, int y, Direction direction, int from) {
+        for (int tick = from; tick <= MAX_TICKS; tick++) {
+            for (int step = 0; step < SPEED; step++) {
+                x = direction.changeX(x);
+                y = direction.changeY(y);
+                if (isStop(layer1, layer2, x, y)) {
+                    return;
+                }
+                lasers[cell(x, y)] |= 1 << tick;
+            }
+        }
+    }
+
+    private boolean isStop(char[][] layer1, char[][] layer2, int x, int y) {
+        return Point.isOutOf(x, y, size)
+                || Categories.WALLS.has(layer1[x][y])
+                || Categories.LASER_MACHINES.has(layer1[x][y])
+                || layer2[x][y] == BOX.ch();
+    }
+
+    private void zombies(char[][] layer1, char[][] layer2, int tail) {
+        // обход в ширину сразу от всех зомби, они идут по клетке за тик
+        int head = 0;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % size;
+            int y = cell / size;
+            int next = zombies[cell] + 1;
+            for (Direction direction : Direction.getValues()) {
+                int nx = direction.changeX(x);
+                int ny = direction.changeY(y);
+                if (Point.isOutOf(nx, ny, size)
+                        || !Categories.FLOORS.has(layer1[nx][ny])
+                        || layer2[nx][ny] == BOX.ch())
+                {
+                    continue;
+                }
+                int to = cell(nx, ny);
+                if (zombies[to] == NEVER) {
+                    zombies[to] = next;
+                    queue[tail++] = to;
+                }
+            }
+        }
+    }
+
+    private int cell(int x, int y) {
+        return y * size + x;
+    }
+
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    private static boolean get(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Is it impossible to go through the cell (true out of the board).
+     */
+    public boolean isBarrier(int x, int y) {
+        return Point.isOutOf(x, y, size) || get(barriers, cell(x, y));
+    }
+
+    public boolean isHole(int x, int y) {
+        return !Point.isOutOf(x, y, size) && get(holes, cell(x, y));
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @param tick Tick from now (0 - now).
+     * @return Is the laser (on the board or shot by ready machine) in the cell at the tick.
+     */
+    public boolean isLaser(int x, int y, int tick) {
+        if (Point.isOutOf(x, y, size) || tick < 0 || tick > MAX_TICKS) {
+            return false;
+        }
+        return (lasers[cell(x, y)] & (1 << tick)) != 0;
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return The earliest tick the next shot of any laser machine
+     *         can reach the cell or {@link #NEVER}.
+     */
+    public int rayAt(int x, int y) {
+        if (Point.isOutOf(x, y, size)) {
+            return NEVER;
+        }
+        return rays[cell(x, y)];
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return The earliest tick any zombie can come to the cell or {@link #NEVER}.
+     */
+    public int zombieAt(int x, int y) {
+        if (Point.isOutOf(x, y, size)) {
+            return NEVER;
+        }
+        return zombies[cell(x, y)];
+    }
+
+    @Override
+    public boolean isHazard(int x, int y, int tick) {
+        return isLaser(x, y, tick) || zombieAt(x, y) <= tick;
+    }
+
+    public boolean isHazard(Point pt, int tick) {
+        return isHazard(pt.getX(), pt.getY(), tick);
+    }
+}
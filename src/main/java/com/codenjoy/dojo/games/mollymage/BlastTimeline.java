@@ -0,0 +1,231 @@
+package com.codenjoy.dojo.games.mollymage;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+import com.codenjoy.dojo.services.path.HazardOracle;
+import com.codenjoy.dojo.services.path.SpaceTimeFinder;
+
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.games.mollymage.ElementUtils.blasts;
+import static com.codenjoy.dojo.games.mollymage.ElementUtils.potions;
+
+/**
+ * Which cells of the board will burn and when. Built once per tick
+ * (see {@link Board#getBlastTimeline()}): every potion explodes when its
+ * timer runs out or earlier if a blast of another potion reaches it,
+ * chains of potions are resolved transitively. Blast goes {@link #RANGE}
+ * cells in every direction, stops at walls (they don't burn) and
+ * at other barriers (they burn).
+ * All data is kept in flat arrays, every query is O(1).
+ * It is also the hazard for {@link SpaceTimeFinder}.
+ */
+@PerformanceOptimized
+public class BlastTimeline implements HazardOracle {
+
+    /**
+     * Blast that is on the board right now.
+     */
+    public static final int NOW = 0;
+
+    /**
+     * Max potion timer, potions under heroes have unknown timer and considered so.
+     */
+    public static final int MAX_TIMER = 5;
+
+    /**
+     * Cell never burns in the next {@link #MAX_TIMER} ticks.
+     */
+    public static final int NEVER = Integer.MAX_VALUE;
+
+    public static final int RANGE = 3;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private int size;
+    // биты 0..5 - на каких тиках клетка горит
+    private byte[] ticks = new byte[0];
+    // тик взрыва зелья в клетке, 0 - зелья нет
+    private byte[] explodes = new byte[0];
+    private int[] potionCells = new int[0];
+    private int potionsCount;
+    private int[] stack = new int[0];
+
+    /**
+     * Rebuilds timeline for the current state of the board,
+     * arrays are reused if board size is the same.
+     * @param board Board of the current tick.
+     * @return This timeline.
+     */
+    public BlastTimeline build(Board board) {
+        size = board.size();
+        int cells = size * size;
+        if (ticks.length != cells) {
+            ticks = new byte[cells];
+            explodes = new byte[cells];
+        } else {
+            Arrays.fill(ticks, (byte) 0);
+            Arrays.fill(explodes, (byte) 0);
+        }
+        potionsCount = 0;
+
+        board.forEachAt((x, y) -> ticks[cell(x, y)] |= 1 << NOW, blasts);
+        board.forEachAt((x, y) -> addPotion(x, y, board.getAt(x, y)), potions);
+        if (stack.length < potionsCount) {
+            stack = new int[potionCells.length];
+        }
+
+        // зелья взрываются по порядку тиков, цепочка взрывает все в тот же тик
+        for (int tick = 1; tick <= MAX_TIMER; tick++) {
+            int top = 0;
+            for (int index = 0; index < potionsCount; index++) {
+                if (explodes[potionCells[index]] == tick) {
+                    stack[top++] = potionCells[index];
+                }
+            }
+            while (top > 0) {
+                top = explode(board, stack[--top], tick, top);
+            }
+        }
+        return this;
+    }
+
+    private void addPotion(int x, int y, Element element) {
+        if (potionsCount == potionCells.length) {
+            potionCells = Arrays.copyOf(potionCells, Math.max(16, potionsCount * 2));
+        }
+        int cell = cell(x, y);
+        potionCells[potionsCount++] = cell;
+        explodes[cell] = (byte) timer(element);
+    }
+
+    private static int timer(Element element) {
+        switch (element) {
+            case POTION_TIMER_1: return 1;
+            case POTION_TIMER_2: return 2;
+            case POTION_TIMER_3: return 3;
+            case POTION_TIMER_4: return 4;
+            default: return MAX_TIMER;
+        }
+    }
+
+    private int explode(Board board, int cell, int tick, int top) {
+        int bit = 1 << tick;
+        ticks[cell] |= bit;
+        int x = cell % size;
+        int y = cell / size;
+        for (int direction = 0; direction < DX.length; direction++) {
+            int xx = x;
+            int yy = y;
+            for (int step = 0; step < RANGE; step++) {
+                xx += DX[direction];
+                yy += DY[direction];
+                if (board.isOutOf(xx, yy) || board.isAt(xx, yy, Categories.WALLS)) {
+                    break;
+                }
+                int next = cell(xx, yy);
+                ticks[next] |= bit;
+                if (explodes[next] > tick) {
+                    // зелье подорвано раньше своего таймера
+                    explodes[next] = (byte) tick;
+                    stack[top++] = next;
+                }
+                if (board.isAt(xx, yy, Categories.BARRIERS)) {
+                    break;
+                }
+            }
+        }
+        return top;
+    }
+
+    private int cell(int x, int y) {
+        return y * size + x;
+    }
+
+    private boolean isOutOf(int x, int y) {
+        return Point.isOutOf(x, y, size);
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Earliest tick when the cell burns ({@link #NOW} for blasts
+     *         on the board, 1 for the next tick and so on)
+     *         or {@link #NEVER}.
+     */
+    public int at(int x, int y) {
+        if (isOutOf(x, y)) {
+            return NEVER;
+        }
+        int mask = ticks[cell(x, y)];
+        return (mask == 0) ? NEVER : Integer.numberOfTrailingZeros(mask);
+    }
+
+    public int at(Point pt) {
+        return at(pt.getX(), pt.getY());
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @param tick Tick from now (0..{@link #MAX_TIMER}).
+     * @return true if the cell burns on given tick
+     *         (cell could burn several times by different potions).
+     */
+    public boolean isBurning(int x, int y, int tick) {
+        if (isOutOf(x, y) || tick < NOW || tick > MAX_TIMER) {
+            return false;
+        }
+        return (ticks[cell(x, y)] & (1 << tick)) != 0;
+    }
+
+    public boolean isBurning(Point pt, int tick) {
+        return isBurning(pt.getX(), pt.getY(), tick);
+    }
+
+    @Override
+    public boolean isHazard(int x, int y, int tick) {
+        return isBurning(x, y, tick);
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Tick when potion in the cell explodes (with chains)
+     *         or {@link #NEVER} if there is no potion.
+     */
+    public int explodesAt(int x, int y) {
+        if (isOutOf(x, y)) {
+            return NEVER;
+        }
+        int tick = explodes[cell(x, y)];
+        return (tick == 0) ? NEVER : tick;
+    }
+
+    public int explodesAt(Point pt) {
+        return explodesAt(pt.getX(), pt.getY());
+    }
+}
@@ -24,13 +24,13 @@ package com.codenjoy.dojo.games.mollymage;
 
 
 import com.codenjoy.dojo.client.AbstractBoard;
+import com.codenjoy.dojo.client.ClientBoard;
 import com.codenjoy.dojo.services.Direction;
 import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointBitSet;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import static com.codenjoy.dojo.games.mollymage.Element.*;
 import static com.codenjoy.dojo.games.mollymage.ElementUtils.*;
@@ -44,7 +44,10 @@ import static com.codenjoy.dojo.services.Direction.*;
  */
 public class Board extends AbstractBoard<Element> {
 
-    private static final int BLAST_RANGE = 3;
+    private static final int BLAST_RANGE = BlastTimeline.RANGE;
+
+    private final BlastTimeline timeline = new BlastTimeline();
+    private boolean timelineBuilt;
 
     @Override
     public Element[] elements() {
@@ -61,6 +64,18 @@ public class Board extends AbstractBoard<Element> {
         return true;
     }
 
+    @Override
+    public ClientBoard forLayers(CharSequence... layers) {
+        timelineBuilt = false;
+        return super.forLayers(layers);
+    }
+
+    @Override
+    public void set(int x, int y, char ch) {
+        timelineBuilt = false;
+        super.set(x, y, ch);
+    }
+
     @Override
     public Element getAt(int x, int y) {
         if (isOutOf(x, y)) {
@@ -111,18 +126,18 @@ public class Board extends AbstractBoard<Element> {
 
     public List<Point> getFutureBlasts() {
         List<Point> result = new ArrayList<>();
-        Set<Point> barriers = new HashSet<>(getBarriers());
+        PointBitSet stops = getBits(barriers);
 
         for (Point pt : get(POTION_TIMER_1)) {
-            result.addAll(getFutureBlasts(barriers, pt, RIGHT));
-            result.addAll(getFutureBlasts(barriers, pt, LEFT));
-            result.addAll(getFutureBlasts(barriers, pt, UP));
-            result.addAll(getFutureBlasts(barriers, pt, DOWN));
+            result.addAll(getFutureBlasts(stops, pt, RIGHT));
+            result.addAll(getFutureBlasts(stops, pt, LEFT));
+            result.addAll(getFutureBlasts(stops, pt, UP));
+            result.addAll(getFutureBlasts(stops, pt, DOWN));
         }
         return result;
     }
 
-    private List<Point> getFutureBlasts(Set<Point> barriers, Point pt, Direction direction) {
+    private List<Point> getFutureBlasts(PointBitSet barriers, Point pt, Direction direction) {
         List<Point> result = new ArrayList<>();
         for (int index = 0; index < BLAST_RANGE; index++) {
             pt = direction.change(pt);
@@ -142,47 +157,102 @@ public class Board extends AbstractBoard<Element> {
     }
 
     public boolean isHeroAt(Point pt) {
-        return isAt(pt, heroes);
+        return isAt(pt, Categories.HEROES);
     }
 
     public boolean isOtherHeroAt(Point pt) {
-        return isAt(pt, otherHeroes);
+        return isAt(pt, Categories.OTHER_HEROES);
     }
 
     public boolean isEnemyHeroAt(Point pt) {
-        return isAt(pt, enemyHeroes);
+        return isAt(pt, Categories.ENEMY_HEROES);
     }
 
     public boolean isGhostAt(Point pt) {
-        return isAt(pt, ghosts);
+        return isAt(pt, Categories.GHOSTS);
     }
 
     public boolean isWallAt(Point pt) {
-        return isAt(pt, walls);
+        return isAt(pt, Categories.WALLS);
     }
 
     public boolean isTreasureBoxAt(Point pt) {
-        return isAt(pt, treasureBoxes);
+        return isAt(pt, Categories.TREASURE_BOXES);
     }
 
     public boolean isPotionAt(Point pt) {
-        return isAt(pt, potions);
+        return isAt(pt, Categories.POTIONS);
     }
 
     public boolean isPerkAt(Point pt) {
-        return isAt(pt, perks);
+        return isAt(pt, Categories.PERKS);
     }
 
     public boolean isBlastAt(Point pt) {
-        return isAt(pt, blasts);
+        return isAt(pt, Categories.BLASTS);
     }
 
+    /**
+     * @return Blasts of all potions (with chain reactions) for the next ticks,
+     *         built once per tick.
+     */
+    public BlastTimeline getBlastTimeline() {
+        if (!timelineBuilt) {
+            timeline.build(this);
+            timelineBuilt = true;
+        }
+        return timeline;
+    }
+
+    /**
+     * Allocation free version of {@code getFutureBlasts().contains(pt)}:
+     * only potions with timer 1, without chain reactions, potion
+     * and barrier cells are not included.
+     * For the real blasts use {@link #isFutureBlastAt(Point, int)}.
+     * @param pt Point to check.
+     * @return true if the point is in {@link #getFutureBlasts()}.
+     */
     public boolean isFutureBlastAt(Point pt) {
-       return getFutureBlasts().contains(pt);
+        int x = pt.getX();
+        int y = pt.getY();
+        if (isOutOf(x, y) || isAt(x, y, Categories.BARRIERS)) {
+            return false;
+        }
+        // идем от клетки к зельям - путь тот же, что у взрыва в обратную сторону
+        for (Direction direction : Direction.getValues()) {
+            int nx = x;
+            int ny = y;
+            for (int index = 0; index < BLAST_RANGE; index++) {
+                nx = direction.changeX(nx);
+                ny = direction.changeY(ny);
+                if (isOutOf(nx, ny)) {
+                    break;
+                }
+                if (isAt(nx, ny, POTION_TIMER_1)) {
+                    return true;
+                }
+                if (isAt(nx, ny, Categories.BARRIERS)) {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unlike {@link #isFutureBlastAt(Point)} and {@link #getFutureBlasts()}
+     * it is based on {@link #getBlastTimeline()}: all potions with chain
+     * reactions, potion cells and burning barriers are included.
+     * @param pt Point to check.
+     * @param tick Tick from now (1 - next tick).
+     * @return true if the point burns on given tick.
+     */
+    public boolean isFutureBlastAt(Point pt, int tick) {
+        return getBlastTimeline().isBurning(pt, tick);
     }
 
     public boolean isBarrierAt(Point pt) {
-        return isAt(pt, barriers);
+        return isAt(pt, Categories.BARRIERS);
     }
 
     @Override
@@ -24,6 +24,7 @@ package com.codenjoy.dojo.games.rawelbbub;
 
 
 import com.codenjoy.dojo.client.AbstractBoard;
+import com.codenjoy.dojo.client.ClientBoard;
 import com.codenjoy.dojo.services.Point;
 
 import java.util.List;
@@ -39,6 +40,9 @@ import static com.codenjoy.dojo.games.rawelbbub.ElementUtils.*;
  */
 public class Board extends AbstractBoard<Element> {
 
+    private final TorpedoHazard torpedoHazard = new TorpedoHazard();
+    private boolean torpedoHazardBuilt;
+
     @Override
     public Element[] elements() {
         return Element.values();
@@ -49,6 +53,18 @@ public class Board extends AbstractBoard<Element> {
         return size - 1 - y;
     }
 
+    @Override
+    public ClientBoard forLayers(CharSequence... layers) {
+        torpedoHazardBuilt = false;
+        return super.forLayers(layers);
+    }
+
+    @Override
+    public void set(int x, int y, char ch) {
+        torpedoHazardBuilt = false;
+        super.set(x, y, ch);
+    }
+
     @Override
     public Element getAt(int x, int y) {
         if (isOutOf(x, y)) {
@@ -106,47 +122,58 @@ public class Board extends AbstractBoard<Element> {
     }
 
     public boolean isHeroAt(Point pt) {
-        return isAt(pt, heroes);
+        return isAt(pt, Categories.HEROES);
     }
 
     public boolean isBarrierAt(Point pt) {
-        return isAt(pt, barriers);
+        return isAt(pt, Categories.BARRIERS);
     }
 
     public boolean isOtherHeroAt(Point pt) {
-        return isAt(pt, otherHeroes);
+        return isAt(pt, Categories.OTHER_HEROES);
     }
 
     public boolean isAiAt(Point pt) {
-        return isAt(pt, ais);
+        return isAt(pt, Categories.AIS);
     }
 
     public boolean isEnemyAt(Point pt) {
-        return isAt(pt, enemies);
+        return isAt(pt, Categories.ENEMIES);
     }
 
     public boolean isTorpedoAt(Point pt) {
-        return isAt(pt, torpedoes);
+        return isAt(pt, Categories.TORPEDOES);
+    }
+
+    /**
+     * @return Cells swept by torpedoes on the next ticks, built once per tick.
+     */
+    public TorpedoHazard getTorpedoHazard() {
+        if (!torpedoHazardBuilt) {
+            torpedoHazard.build(this);
+            torpedoHazardBuilt = true;
+        }
+        return torpedoHazard;
     }
 
     public boolean isFishnetAt(Point pt) {
-        return isAt(pt, fishnet);
+        return isAt(pt, Categories.FISHNET);
     }
 
     public boolean isOilAt(Point pt) {
-        return isAt(pt, oil);
+        return isAt(pt, Categories.OIL);
     }
 
     public boolean isIcebergAt(Point pt) {
-        return isAt(pt, icebergs);
+        return isAt(pt, Categories.ICEBERGS);
     }
 
     public boolean isSeaweedAt(Point pt) {
-        return isAt(pt, seaweed);
+        return isAt(pt, Categories.SEAWEED);
     }
 
     public boolean isPrizeAt(Point pt) {
-        return isAt(pt, prizes);
+        return isAt(pt, Categories.PRIZES);
     }
 
     @Override
@@ -0,0 +1,57 @@
+package com.codenjoy.dojo.games.rawelbbub;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.Category;
+
+import static com.codenjoy.dojo.games.rawelbbub.ElementUtils.*;
+
+/**
+ * Groups of elements from {@link ElementUtils} compiled
+ * for fast {@code isAt} checks.
+ */
+public class Categories {
+
+    public static final Category<Element> HEROES = Category.of(heroes);
+
+    public static final Category<Element> BARRIERS = Category.of(barriers);
+
+    public static final Category<Element> OTHER_HEROES = Category.of(otherHeroes);
+
+    public static final Category<Element> AIS = Category.of(ais);
+
+    public static final Category<Element> ENEMIES = Category.of(enemies);
+
+    public static final Category<Element> TORPEDOES = Category.of(torpedoes);
+
+    public static final Category<Element> FISHNET = Category.of(fishnet);
+
+    public static final Category<Element> OIL = Category.of(oil);
+
+    public static final Category<Element> ICEBERGS = Category.of(icebergs);
+
+    public static final Category<Element> SEAWEED = Category.of(seaweed);
+
+    public static final Category<Element> PRIZES = Category.of(prizes);
+}
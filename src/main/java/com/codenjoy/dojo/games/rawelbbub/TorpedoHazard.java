@@ -0,0 +1,118 @@
+package com.codenjoy.dojo.games.rawelbbub;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+import com.codenjoy.dojo.services.path.HazardOracle;
+import com.codenjoy.dojo.services.path.SpaceTimeFinder;
+
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.games.rawelbbub.ElementUtils.torpedoes;
+import static com.codenjoy.dojo.services.Direction.*;
+
+/**
+ * Cells swept by torpedoes on the next ticks, built once per tick
+ * (see {@link Board#getTorpedoHazard()}) for {@link SpaceTimeFinder}.
+ * Every torpedo goes straight for {@link #SPEED} cells per tick till
+ * the reef or iceberg. All cells it passes during the tick are marked,
+ * so the hero can't slip through the torpedo moving towards him.
+ * Hazards are kept as bit masks of ticks (up to {@link #MAX_TICKS})
+ * in one flat array.
+ */
+@PerformanceOptimized
+public class TorpedoHazard implements HazardOracle {
+
+    /**
+     * Сколько клеток за тик проходит торпеда.
+     */
+    public static int SPEED = 2;
+
+    public static final int MAX_TICKS = 31;
+
+    private int size;
+    private int[] ticks = new int[0];
+
+    /**
+     * Rebuilds hazards for the current state of the board,
+     * arrays are reused if board size is the same.
+     * @param board Board of the current tick.
+     * @return This hazard.
+     */
+    public TorpedoHazard build(Board board) {
+        size = board.size();
+        if (ticks.length != size * size) {
+            ticks = new int[size * size];
+        } else {
+            Arrays.fill(ticks, 0);
+        }
+        board.forEachAt((x, y) -> add(board, x, y, direction(board.getAt(x, y))), torpedoes);
+        return this;
+    }
+
+    private static Direction direction(Element element) {
+        switch (element) {
+            case TORPEDO_LEFT: return LEFT;
+            case TORPEDO_RIGHT: return RIGHT;
+            case TORPEDO_UP: return UP;
+            default: return DOWN;
+        }
+    }
+
+    private void add(Board board, int x, int y, Direction direction) {
+        ticks[cell(x, y)] |= 1;
+        for (int tick = 1; tick <= MAX_TICKS; tick++) {
+            for (int step = 0; step < SPEED; step++) {
+                x = direction.changeX(x);
+                y = direction.changeY(y);
+                if (board.isOutOf(x, y) || isStop(board.getAt(x, y))) {
+                    return;
+                }
+                ticks[cell(x, y)] |= 1 << tick;
+            }
+        }
+    }
+
+    private static boolean isStop(Element element) {
+        // торпеда идет над сетями, но взрывается о рифы и айсберги
+        return element != Element.FISHNET && Categories.BARRIERS.has(element);
+    }
+
+    private int cell(int x, int y) {
+        return y * size + x;
+    }
+
+    @Override
+    public boolean isHazard(int x, int y, int tick) {
+        if (Point.isOutOf(x, y, size) || tick < 0 || tick > MAX_TICKS) {
+            return false;
+        }
+        return (ticks[cell(x, y)] & (1 << tick)) != 0;
+    }
+
+    public boolean isHazard(Point pt, int tick) {
+        return isHazard(pt.getX(), pt.getY(), tick);
+    }
+}
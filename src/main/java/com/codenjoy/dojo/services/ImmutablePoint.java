@@ -0,0 +1,184 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Lightweight read only {@link Point}: no listeners and no copies
+ * on change, so it can be shared and cached (see {@link PointPool}).
+ * All methods that try to change the point throw
+ * {@link UnsupportedOperationException}, use {@link #copy()}
+ * to get mutable {@link PointImpl} with the same coordinates.
+ */
+public final class ImmutablePoint implements Point {
+
+    private final int x;
+    private final int y;
+
+    ImmutablePoint(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public int getX() {
+        return x;
+    }
+
+    @Override
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public boolean itsMe(Point pt) {
+        return itsMe(pt.getX(), pt.getY());
+    }
+
+    @Override
+    public boolean itsMe(int x, int y) {
+        return this.x == x && this.y == y;
+    }
+
+    @Override
+    public boolean isOutOf(int size) {
+        return Point.isOutOf(x, y, size);
+    }
+
+    @Override
+    public boolean isOutOfExclude(int dw, int dh, int size) {
+        return Point.isOutOfExclude(x, y, dw, dh, size);
+    }
+
+    @Override
+    public double distance(Point other) {
+        int dx = x - other.getX();
+        int dy = y - other.getY();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public Point relative(Point offset) {
+        return PointPool.pt(x - offset.getX(), y - offset.getY());
+    }
+
+    @Override
+    public Direction direction(Point to) {
+        for (Direction direction : Direction.getValues()) {
+            if (direction.changeX(x) == to.getX()
+                    && direction.changeY(y) == to.getY())
+            {
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Mutable copy of this point.
+     */
+    @Override
+    public Point copy() {
+        return new PointImpl(this);
+    }
+
+    @Override
+    public void move(int x, int y) {
+        throw immutable();
+    }
+
+    @Override
+    public void move(Point pt) {
+        throw immutable();
+    }
+
+    @Override
+    public void setX(int x) {
+        throw immutable();
+    }
+
+    @Override
+    public void setY(int y) {
+        throw immutable();
+    }
+
+    @Override
+    public void moveDelta(Point delta) {
+        throw immutable();
+    }
+
+    @Override
+    public void move(QDirection direction) {
+        throw immutable();
+    }
+
+    @Override
+    public void move(Direction direction) {
+        throw immutable();
+    }
+
+    @Override
+    public void beforeChange(Consumer<Point> beforeChange) {
+        throw immutable();
+    }
+
+    @Override
+    public void onChange(BiConsumer<Point, Point> onChange) {
+        throw immutable();
+    }
+
+    private UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException(
+                "Point " + this + " is immutable, please use copy()");
+    }
+
+    /**
+     * Same as {@link PointImpl#hashCode()}, so both
+     * implementations can be mixed in hash based collections.
+     */
+    @Override
+    public int hashCode() {
+        return x*1000 + y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Point.equals(this, o);
+    }
+
+    @Override
+    public int compareTo(Point o) {
+        if (o == null) {
+            return -1;
+        }
+        return Integer.compare(this.hashCode(), o.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s,%s]", x, y);
+    }
+}
@@ -0,0 +1,145 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable list of points packed into int cell ids
+ * (see {@link LengthToXY#length(int, int)}) without boxing.
+ */
+@PerformanceOptimized
+public class IntPointList {
+
+    private final LengthToXY xy;
+    private int[] ids;
+    private int size;
+
+    public IntPointList(LengthToXY xy) {
+        this.xy = xy;
+        this.ids = new int[16];
+    }
+
+    public IntPointList(int size) {
+        this(new LengthToXY(size));
+    }
+
+    public void add(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * @return false if point is out of the board (it is not added).
+     */
+    public boolean add(int x, int y) {
+        if (Point.isOutOf(x, y, xy.size())) {
+            return false;
+        }
+        add(xy.length(x, y));
+        return true;
+    }
+
+    /**
+     * @param index Index in list.
+     * @return Cell id of point.
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return ids[index];
+    }
+
+    public int x(int index) {
+        return get(index) % xy.size();
+    }
+
+    public int y(int index) {
+        return xy.size() - 1 - get(index) / xy.size();
+    }
+
+    public boolean contains(int id) {
+        return indexOf(id) != -1;
+    }
+
+    public boolean contains(int x, int y) {
+        return !Point.isOutOf(x, y, xy.size())
+                && contains(xy.length(x, y));
+    }
+
+    public int indexOf(int id) {
+        for (int index = 0; index < size; index++) {
+            if (ids[index] == id) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void forEach(IntIntConsumer action) {
+        for (int index = 0; index < size; index++) {
+            action.accept(x(index), y(index));
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    public List<Point> points() {
+        List<Point> result = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            result.add(xy.point(ids[index]));
+        }
+        return result;
+    }
+
+    public LengthToXY xy() {
+        return xy;
+    }
+
+    @Override
+    public String toString() {
+        return points().toString();
+    }
+}
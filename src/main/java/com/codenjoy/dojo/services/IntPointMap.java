@@ -0,0 +1,156 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.Arrays;
+
+/**
+ * Map from point of the board (packed into cell id, see
+ * {@link LengthToXY#length(int, int)}) to int value.
+ * Dense array inside, so get/put are O(1) without boxing
+ * and hashing. Points out of the board are never contained in the map.
+ */
+@PerformanceOptimized
+public class IntPointMap {
+
+    private final LengthToXY xy;
+    private final int[] values;
+    private final PointBitSet keys;
+    private final int noValue;
+
+    /**
+     * @param xy Converter for board size.
+     * @param noValue Value that {@link #get(int)} returns
+     *                for points that are not in the map.
+     */
+    public IntPointMap(LengthToXY xy, int noValue) {
+        this.xy = xy;
+        this.noValue = noValue;
+        this.values = new int[xy.size() * xy.size()];
+        this.keys = new PointBitSet(xy);
+        Arrays.fill(values, noValue);
+    }
+
+    public IntPointMap(int size, int noValue) {
+        this(new LengthToXY(size), noValue);
+    }
+
+    /**
+     * @return Previous value or {@link #noValue()}.
+     */
+    public int put(int id, int value) {
+        int result = values[id];
+        values[id] = value;
+        keys.add(id);
+        return result;
+    }
+
+    public int put(int x, int y, int value) {
+        if (Point.isOutOf(x, y, xy.size())) {
+            throw new IllegalArgumentException(
+                    String.format("Point [%s,%s] is out of board", x, y));
+        }
+        return put(xy.length(x, y), value);
+    }
+
+    public int get(int id) {
+        return values[id];
+    }
+
+    public int get(int x, int y) {
+        if (Point.isOutOf(x, y, xy.size())) {
+            return noValue;
+        }
+        return get(xy.length(x, y));
+    }
+
+    public boolean containsKey(int id) {
+        return keys.contains(id);
+    }
+
+    public boolean containsKey(int x, int y) {
+        return keys.contains(x, y);
+    }
+
+    /**
+     * @return Previous value or {@link #noValue()}.
+     */
+    public int remove(int id) {
+        int result = values[id];
+        values[id] = noValue;
+        keys.remove(id);
+        return result;
+    }
+
+    public int remove(int x, int y) {
+        if (Point.isOutOf(x, y, xy.size())) {
+            return noValue;
+        }
+        return remove(xy.length(x, y));
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    public void clear() {
+        keys.forEach((x, y) -> values[xy.length(x, y)] = noValue);
+        keys.clear();
+    }
+
+    /**
+     * @return Copy of the set of all keys (changes of it don't affect the map).
+     */
+    public PointBitSet keys() {
+        PointBitSet result = new PointBitSet(xy);
+        result.addAll(keys);
+        return result;
+    }
+
+    public int noValue() {
+        return noValue;
+    }
+
+    public LengthToXY xy() {
+        return xy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("{");
+        keys.forEach((x, y) -> {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(String.format("[%s,%s]=%s", x, y, get(x, y)));
+        });
+        return result.append('}').toString();
+    }
+}
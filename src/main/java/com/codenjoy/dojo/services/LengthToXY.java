@@ -44,4 +44,8 @@ public class LengthToXY {
         return (size - 1 - y) * size + x;
     }
 
+    public int size() {
+        return size;
+    }
+
 }
@@ -0,0 +1,214 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of points of the board packed into bits by cell id
+ * (see {@link LengthToXY#length(int, int)}). Replacement for
+ * {@code HashSet<Point>} without boxing and hashing.
+ * Points out of the board are never contained in the set.
+ */
+@PerformanceOptimized
+public class PointBitSet {
+
+    private final LengthToXY xy;
+    private final long[] words;
+    private int count;
+
+    public PointBitSet(LengthToXY xy) {
+        this.xy = xy;
+        this.words = new long[(xy.size() * xy.size() + 63) >>> 6];
+    }
+
+    public PointBitSet(int size) {
+        this(new LengthToXY(size));
+    }
+
+    /**
+     * @param id Cell id.
+     * @return true if set was changed.
+     */
+    public boolean add(int id) {
+        long mask = 1L << id;
+        int word = id >>> 6;
+        if ((words[word] & mask) != 0) {
+            return false;
+        }
+        words[word] |= mask;
+        count++;
+        return true;
+    }
+
+    public boolean add(int x, int y) {
+        if (isOutOf(x, y)) {
+            return false;
+        }
+        return add(xy.length(x, y));
+    }
+
+    public boolean add(Point pt) {
+        return add(pt.getX(), pt.getY());
+    }
+
+    /**
+     * @param id Cell id.
+     * @return true if set was changed.
+     */
+    public boolean remove(int id) {
+        long mask = 1L << id;
+        int word = id >>> 6;
+        if ((words[word] & mask) == 0) {
+            return false;
+        }
+        words[word] &= ~mask;
+        count--;
+        return true;
+    }
+
+    public boolean remove(int x, int y) {
+        if (isOutOf(x, y)) {
+            return false;
+        }
+        return remove(xy.length(x, y));
+    }
+
+    public boolean contains(int id) {
+        return (words[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public boolean contains(int x, int y) {
+        if (isOutOf(x, y)) {
+            return false;
+        }
+        return contains(xy.length(x, y));
+    }
+
+    public boolean contains(Point pt) {
+        return contains(pt.getX(), pt.getY());
+    }
+
+    private boolean isOutOf(int x, int y) {
+        return Point.isOutOf(x, y, xy.size());
+    }
+
+    /**
+     * Adds all points of another set with the same board size.
+     * @param other Another set.
+     * @throws IllegalArgumentException if board size of the sets is different.
+     */
+    public void addAll(PointBitSet other) {
+        if (other.xy.size() != xy.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected set for board %sx%s but was %sx%s",
+                    xy.size(), xy.size(), other.xy.size(), other.xy.size()));
+        }
+        count = 0;
+        for (int word = 0; word < words.length; word++) {
+            words[word] |= other.words[word];
+            count += Long.bitCount(words[word]);
+        }
+    }
+
+    public void addAll(IntPointList list) {
+        for (int index = 0; index < list.size(); index++) {
+            add(list.get(index));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+        count = 0;
+    }
+
+    /**
+     * @param action Consumer of X and Y coordinates of all points
+     *               in the order of cell id.
+     */
+    public void forEach(IntIntConsumer action) {
+        int size = xy.size();
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                action.accept(id % size, size - 1 - id / size);
+            }
+        }
+    }
+
+    /**
+     * Allocation free iteration: {@code for (int id = set.next(0); id != -1; id = set.next(id + 1))}.
+     * @param from Cell id to start from (inclusive).
+     * @return Next cell id in the set or -1 if there is no such.
+     */
+    public int next(int from) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * @return All points of the set, shared immutable ones from {@link PointPool}.
+     */
+    public List<Point> points() {
+        PointPool.reserve(xy.size());
+        List<Point> result = new ArrayList<>(count);
+        forEach((x, y) -> result.add(PointPool.pt(x, y)));
+        return result;
+    }
+
+    public LengthToXY xy() {
+        return xy;
+    }
+
+    @Override
+    public String toString() {
+        return points().toString();
+    }
+}
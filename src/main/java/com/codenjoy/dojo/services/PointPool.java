@@ -0,0 +1,102 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+/**
+ * Flyweight table of {@link ImmutablePoint}: for coordinates inside
+ * the biggest board seen so far (see {@link #reserve(int)}) the same
+ * instance is returned every time, other coordinates get a new point.
+ * Points are created lazily, the table only grows (up to {@link #MAX_SIZE})
+ * and old instances are kept when it grows.
+ * It is opt-in: board, {@link Direction} and {@link LengthToXY} methods
+ * still return mutable {@link PointImpl}, use {@link #pt(int, int)},
+ * {@link PointBitSet#points()} or cell ids instead on hot paths.
+ * Nothing reserves the table implicitly, except {@link PointBitSet#points()}.
+ */
+@PerformanceOptimized
+public final class PointPool {
+
+    public static final int MAX_SIZE = 256;
+
+    private static volatile PointPool pool = new PointPool(0, null);
+
+    private final int size;
+    private final Point[] points;
+
+    private PointPool(int size, PointPool previous) {
+        this.size = size;
+        this.points = new Point[size * size];
+        if (previous != null) {
+            for (int x = 0; x < previous.size; x++) {
+                System.arraycopy(previous.points, x * previous.size,
+                        points, x * size, previous.size);
+            }
+        }
+    }
+
+    /**
+     * Makes sure that all points of the board with given size are cached.
+     * @param size Board size.
+     */
+    public static void reserve(int size) {
+        size = Math.min(size, MAX_SIZE);
+        if (pool.size >= size) {
+            return;
+        }
+        synchronized (PointPool.class) {
+            if (pool.size < size) {
+                pool = new PointPool(size, pool);
+            }
+        }
+    }
+
+    /**
+     * @return Size of the biggest board which points are cached.
+     */
+    public static int size() {
+        return pool.size;
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Cached immutable point for coordinates inside reserved board
+     *         or new immutable point for all others.
+     */
+    public static Point pt(int x, int y) {
+        PointPool pool = PointPool.pool;
+        if (x < 0 || y < 0 || x >= pool.size || y >= pool.size) {
+            return new ImmutablePoint(x, y);
+        }
+        int index = x * pool.size + y;
+        Point result = pool.points[index];
+        if (result == null) {
+            // гонка тут не страшна: точки неизменяемые и равны между собой
+            result = pool.points[index] = new ImmutablePoint(x, y);
+        }
+        return result;
+    }
+}
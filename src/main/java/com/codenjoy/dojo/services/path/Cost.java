@@ -0,0 +1,56 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.IntIntPredicate;
+
+/**
+ * Cost of entering the cell for weighted path search.
+ */
+@FunctionalInterface
+public interface Cost {
+
+    /**
+     * Any cost less than this one means that cell can't be entered.
+     */
+    int MIN = 1;
+
+    int BARRIER = -1;
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Cost of entering the cell (at least {@link #MIN})
+     *         or {@link #BARRIER}.
+     */
+    int cost(int x, int y);
+
+    /**
+     * @param barrier Says if cell can't be entered.
+     * @return Cost where all cells (except barriers) cost {@link #MIN}.
+     */
+    static Cost of(IntIntPredicate barrier) {
+        return (x, y) -> barrier.test(x, y) ? BARRIER : MIN;
+    }
+}
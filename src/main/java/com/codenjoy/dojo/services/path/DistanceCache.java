@@ -0,0 +1,316 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointBitSet;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per tick cache of full distance fields. Field is built lazily
+ * by BFS on the first query for the pair (source, passability profile)
+ * and is reused by all next queries until {@link #invalidate()}
+ * (see {@code AbstractLayeredBoard#invalidateOnChange(DistanceCache)}).
+ *
+ * Fields are stored as {@code char[]} (2 bytes per cell), total
+ * size of all fields is limited by memory budget: least recently
+ * used fields are evicted first.
+ */
+@PerformanceOptimized
+public class DistanceCache {
+
+    public static final int UNREACHABLE = PathFinder.UNREACHABLE;
+
+    /**
+     * Max board size: distances should fit into char.
+     */
+    public static final int MAX_SIZE = 255;
+
+    private static final char NONE = Character.MAX_VALUE;
+
+    private final PathFinder finder = new PathFinder();
+    private final long budget;
+    private final List<IntIntPredicate> profiles = new ArrayList<>();
+    private final Map<Object, char[]> fields = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<char[]> free = new ArrayDeque<>();
+
+    private int size;
+    private long used;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param budget Max size of all fields in bytes
+     *               (at least one field is always kept).
+     */
+    public DistanceCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Registers passability profile.
+     * @param barrier Says if cell can't be entered.
+     * @return Id of profile to use in queries.
+     */
+    public int profile(IntIntPredicate barrier) {
+        profiles.add(barrier);
+        return profiles.size() - 1;
+    }
+
+    /**
+     * Drops all fields (arrays are reused for new fields).
+     * Should be called every time the board is changed.
+     */
+    public void invalidate() {
+        free.addAll(fields.values());
+        fields.clear();
+        used = 0;
+    }
+
+    private void size(int size) {
+        if (this.size == size) {
+            return;
+        }
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Board size should be not more than " + MAX_SIZE + ": " + size);
+        }
+        this.size = size;
+        fields.clear();
+        free.clear();
+        used = 0;
+    }
+
+    /**
+     * @param size Board size.
+     * @param profile Passability profile (see {@link #profile(IntIntPredicate)}).
+     * @param fromX Source X coordinate.
+     * @param fromY Source Y coordinate.
+     * @param toX Target X coordinate.
+     * @param toY Target Y coordinate.
+     * @return Distance between cells or {@link #UNREACHABLE}.
+     */
+    public int distance(int size, int profile, int fromX, int fromY, int toX, int toY) {
+        if (Point.isOutOf(fromX, fromY, size) || Point.isOutOf(toX, toY, size)) {
+            return UNREACHABLE;
+        }
+        size(size);
+        int from = id(fromX, fromY);
+        int to = id(toX, toY);
+        // между проходимыми клетками ходы обратимы, так что подойдет и поле,
+        // построенное от цели; из барьера (герой на зелье) выйти можно,
+        // а зайти в него нельзя - тут только поле от источника
+        char[] field = fields.get(key(profile, to));
+        if (field != null && isPassable(profile, from) && isPassable(profile, to)) {
+            hits++;
+            return value(field[from]);
+        }
+        return value(field(profile, from)[to]);
+    }
+
+    /**
+     * @param size Board size.
+     * @param profile Passability profile (see {@link #profile(IntIntPredicate)}).
+     * @param x Source X coordinate.
+     * @param y Source Y coordinate.
+     * @return Distance field from source: index is cell id, value is
+     *         distance or {@link Character#MAX_VALUE} if unreachable.
+     *         Don't change it and don't keep it after {@link #invalidate()}.
+     */
+    public char[] distances(int size, int profile, int x, int y) {
+        if (Point.isOutOf(x, y, size)) {
+            throw new IllegalArgumentException(
+                    String.format("Source [%s,%s] is out of board", x, y));
+        }
+        size(size);
+        return field(profile, id(x, y));
+    }
+
+    /**
+     * @param size Board size.
+     * @param profile Passability profile (see {@link #profile(IntIntPredicate)}).
+     * @param x Current X coordinate.
+     * @param y Current Y coordinate.
+     * @param targets Targets, field is cached while this instance is used.
+     * @return Distance to the nearest target or {@link #UNREACHABLE}.
+     */
+    public int distance(int size, int profile, int x, int y, PointBitSet targets) {
+        if (Point.isOutOf(x, y, size)) {
+            return UNREACHABLE;
+        }
+        size(size);
+        return value(field(profile, targets)[id(x, y)]);
+    }
+
+    /**
+     * Gradient descent over the distance field built from all targets.
+     * @param size Board size.
+     * @param profile Passability profile (see {@link #profile(IntIntPredicate)}).
+     * @param x Current X coordinate.
+     * @param y Current Y coordinate.
+     * @param targets Targets, field is cached while this instance is used.
+     * @return Next step toward the nearest target or null if
+     *         there is no such step (no reachable target or already there).
+     */
+    public Direction next(int size, int profile, int x, int y, PointBitSet targets) {
+        if (Point.isOutOf(x, y, size)) {
+            return null;
+        }
+        size(size);
+        char[] field = field(profile, targets);
+        Direction result = null;
+        char best = field[id(x, y)];
+        for (Direction direction : Direction.getValues()) {
+            int nx = direction.changeX(x);
+            int ny = direction.changeY(y);
+            if (Point.isOutOf(nx, ny, size)) {
+                continue;
+            }
+            char value = field[id(nx, ny)];
+            if (value < best) {
+                best = value;
+                result = direction;
+            }
+        }
+        return result;
+    }
+
+    private boolean isPassable(int profile, int cell) {
+        return !profiles.get(profile).test(cell % size, size - 1 - cell / size);
+    }
+
+    private char[] field(int profile, int source) {
+        Object key = key(profile, source);
+        char[] result = fields.get(key);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        finder.bfs(size, source % size, size - 1 - source / size, profiles.get(profile));
+        return put(key);
+    }
+
+    private char[] field(int profile, PointBitSet targets) {
+        Object key = new Targets(profile, targets);
+        char[] result = fields.get(key);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        finder.bfs(size, targets, profiles.get(profile));
+        return put(key);
+    }
+
+    private char[] put(Object key) {
+        int cells = size * size;
+        char[] result = free.isEmpty() ? new char[cells] : free.pop();
+        for (int id = 0; id < cells; id++) {
+            int distance = finder.distance(id);
+            result[id] = (distance == UNREACHABLE) ? NONE : (char) distance;
+        }
+        fields.put(key, result);
+        used += 2L * cells;
+        evict();
+        return result;
+    }
+
+    private void evict() {
+        long bytes = 2L * size * size;
+        Iterator<char[]> iterator = fields.values().iterator();
+        while (used > budget && fields.size() > 1) {
+            free.push(iterator.next());
+            iterator.remove();
+            used -= bytes;
+        }
+        // свободные массивы тоже в пределах бюджета
+        while (!free.isEmpty() && used + bytes * free.size() > budget) {
+            free.pop();
+        }
+    }
+
+    private int id(int x, int y) {
+        return (size - 1 - y) * size + x;
+    }
+
+    private static int value(char distance) {
+        return (distance == NONE) ? UNREACHABLE : distance;
+    }
+
+    private static Long key(int profile, int source) {
+        return ((long) profile << 32) | source;
+    }
+
+    public int fields() {
+        return fields.size();
+    }
+
+    public long used() {
+        return used;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    private static class Targets {
+
+        private final int profile;
+        private final PointBitSet targets;
+
+        Targets(int profile, PointBitSet targets) {
+            this.profile = profile;
+            this.targets = targets;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Targets)) return false;
+            Targets other = (Targets) o;
+            return profile == other.profile
+                    && targets == other.targets;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * profile + System.identityHashCode(targets);
+        }
+    }
+}
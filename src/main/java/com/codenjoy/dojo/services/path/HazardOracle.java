@@ -0,0 +1,41 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+/**
+ * Moving hazards for {@link SpaceTimeFinder}: says which cells
+ * are deadly on which tick (future blasts, torpedoes and so on).
+ */
+@FunctionalInterface
+public interface HazardOracle {
+
+    HazardOracle NONE = (x, y, tick) -> false;
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @param tick Tick from now (1 - after the next move).
+     * @return true if being in the cell on given tick is deadly.
+     */
+    boolean isHazard(int x, int y, int tick);
+}
@@ -0,0 +1,480 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointBitSet;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest path search (BFS, Dijkstra, A*) over the board of given size.
+ * All work arrays are allocated once per board size and reused
+ * between searches (and ticks), so it is better to keep one instance
+ * in the solver. After the search results (distances and paths)
+ * are available until the next search.
+ *
+ * Cells are addressed by X and Y coordinates or by cell id
+ * (see {@link LengthToXY#length(int, int)}).
+ */
+@PerformanceOptimized
+public class PathFinder {
+
+    public static final int UNREACHABLE = -1;
+
+    // LEFT, RIGHT, UP, DOWN, затем диагонали
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, 1, -1, 1, 1, -1, -1};
+
+    private static final int UNKNOWN = Integer.MAX_VALUE;
+
+    private final boolean diagonals;
+    private final int moves;
+
+    private int size;
+    private LengthToXY xy;
+
+    // ячейка обнаружена в текущем поиске, если stamp[id] == epoch
+    private int epoch;
+    private int[] stamp;
+    private int[] settled;
+    private int[] distance;
+    private int[] weight;
+    private int[] parent;
+    private int[] queue;
+
+    private int[] heap;
+    private int[] keys;
+    private int heapSize;
+
+    private int source = -1;
+    private int reached;
+
+    /**
+     * Search with orthogonal moves only (like in all games).
+     */
+    public PathFinder() {
+        this(false);
+    }
+
+    /**
+     * @param diagonals true if diagonal moves are allowed too.
+     */
+    public PathFinder(boolean diagonals) {
+        this.diagonals = diagonals;
+        this.moves = diagonals ? 8 : 4;
+    }
+
+    private void prepare(int size) {
+        if (this.size != size) {
+            this.size = size;
+            xy = new LengthToXY(size);
+            int cells = size * size;
+            stamp = new int[cells];
+            settled = new int[cells];
+            distance = new int[cells];
+            weight = new int[cells];
+            parent = new int[cells];
+            queue = new int[cells];
+            heap = new int[cells];
+            keys = new int[cells];
+            epoch = 0;
+        }
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            Arrays.fill(settled, 0);
+            epoch = 0;
+        }
+        epoch++;
+        source = -1;
+        reached = 0;
+        heapSize = 0;
+    }
+
+    private void prepare(int size, int x, int y) {
+        prepare(size);
+        if (isOut(x, y)) {
+            throw new IllegalArgumentException(
+                    String.format("Source [%s,%s] is out of board", x, y));
+        }
+        source = xy.length(x, y);
+        discover(source, source, 0);
+    }
+
+    private boolean isOut(int x, int y) {
+        return Point.isOutOf(x, y, size);
+    }
+
+    private void discover(int id, int from, int value) {
+        stamp[id] = epoch;
+        parent[id] = from;
+        distance[id] = value;
+    }
+
+    private int x(int id) {
+        return id % size;
+    }
+
+    private int y(int id) {
+        return size - 1 - id / size;
+    }
+
+    /**
+     * Single source breadth first search over all reachable cells.
+     * @param size Board size.
+     * @param x Source X coordinate.
+     * @param y Source Y coordinate.
+     * @param barrier Says if cell can't be entered.
+     * @return Count of reachable cells (including source).
+     */
+    public int bfs(int size, int x, int y, IntIntPredicate barrier) {
+        bfs(size, x, y, barrier, null);
+        return reached;
+    }
+
+    /**
+     * Multi source breadth first search: distance of every cell is
+     * the distance to the nearest source. Barrier sources are skipped.
+     * {@link #firstStep(int, int)} and {@link #direction(int, int)}
+     * are not available after it.
+     * @param size Board size.
+     * @param sources Sources of the search (same board size).
+     * @param barrier Says if cell can't be entered.
+     * @return Count of reachable cells (including sources).
+     */
+    public int bfs(int size, PointBitSet sources, IntIntPredicate barrier) {
+        prepare(size);
+        int tail = 0;
+        for (int id = sources.next(0); id != -1; id = sources.next(id + 1)) {
+            if (barrier.test(x(id), y(id))) {
+                continue;
+            }
+            discover(id, id, 0);
+            queue[tail++] = id;
+        }
+        bfs(tail, barrier, null);
+        return reached;
+    }
+
+    /**
+     * Breadth first search that stops on the nearest target
+     * ("nearest gold/clue/dust"). Source itself can be a target.
+     * @param size Board size.
+     * @param x Source X coordinate.
+     * @param y Source Y coordinate.
+     * @param barrier Says if cell can't be entered.
+     * @param target Says if cell is one of the targets.
+     * @return Nearest target as cell id or -1 if no target is reachable.
+     */
+    public int nearest(int size, int x, int y, IntIntPredicate barrier, IntIntPredicate target) {
+        return bfs(size, x, y, barrier, target);
+    }
+
+    private int bfs(int size, int x, int y, IntIntPredicate barrier, IntIntPredicate target) {
+        prepare(size, x, y);
+        queue[0] = source;
+        return bfs(1, barrier, target);
+    }
+
+    private int bfs(int tail, IntIntPredicate barrier, IntIntPredicate target) {
+        int head = 0;
+        while (head < tail) {
+            int id = queue[head++];
+            int cx = x(id);
+            int cy = y(id);
+            if (target != null && target.test(cx, cy)) {
+                reached = tail;
+                return id;
+            }
+            int next = distance[id] + 1;
+            for (int move = 0; move < moves; move++) {
+                int nx = cx + DX[move];
+                int ny = cy + DY[move];
+                if (isOut(nx, ny)) {
+                    continue;
+                }
+                int nid = xy.length(nx, ny);
+                if (stamp[nid] == epoch) {
+                    continue;
+                }
+                if (barrier.test(nx, ny)) {
+                    // барьер проверяем только один раз за поиск
+                    discover(nid, nid, UNREACHABLE);
+                    continue;
+                }
+                discover(nid, id, next);
+                queue[tail++] = nid;
+            }
+        }
+        reached = tail;
+        return -1;
+    }
+
+    /**
+     * Single source Dijkstra search over all reachable cells.
+     * @param size Board size.
+     * @param x Source X coordinate.
+     * @param y Source Y coordinate.
+     * @param cost Cost of entering the cell.
+     * @return Count of reachable cells (including source).
+     */
+    public int dijkstra(int size, int x, int y, Cost cost) {
+        weighted(size, x, y, cost, -1);
+        return reached;
+    }
+
+    /**
+     * A* search between two cells. Only distance and path
+     * of the target are guaranteed to be the shortest after it.
+     * @param size Board size.
+     * @param fromX Source X coordinate.
+     * @param fromY Source Y coordinate.
+     * @param toX Target X coordinate.
+     * @param toY Target Y coordinate.
+     * @param cost Cost of entering the cell.
+     * @return Distance to target or {@link #UNREACHABLE}.
+     */
+    public int aStar(int size, int fromX, int fromY, int toX, int toY, Cost cost) {
+        if (Point.isOutOf(toX, toY, size)) {
+            prepare(size, fromX, fromY);
+            return UNREACHABLE;
+        }
+        return weighted(size, fromX, fromY, cost, (size - 1 - toY) * size + toX);
+    }
+
+    private int weighted(int size, int x, int y, Cost cost, int target) {
+        prepare(size, x, y);
+        int tx = (target == -1) ? 0 : x(target);
+        int ty = (target == -1) ? 0 : y(target);
+        push(source, 0);
+        while (heapSize > 0) {
+            int id = pop();
+            if (settled[id] == epoch) {
+                continue;
+            }
+            settled[id] = epoch;
+            reached++;
+            if (id == target) {
+                return distance[id];
+            }
+            int cx = x(id);
+            int cy = y(id);
+            for (int move = 0; move < moves; move++) {
+                int nx = cx + DX[move];
+                int ny = cy + DY[move];
+                if (isOut(nx, ny)) {
+                    continue;
+                }
+                int nid = xy.length(nx, ny);
+                if (stamp[nid] != epoch) {
+                    int value = cost.cost(nx, ny);
+                    weight[nid] = value;
+                    discover(nid, nid, (value < Cost.MIN) ? UNREACHABLE : UNKNOWN);
+                }
+                if (weight[nid] < Cost.MIN || settled[nid] == epoch) {
+                    continue;
+                }
+                int next = distance[id] + weight[nid];
+                if (next < distance[nid]) {
+                    distance[nid] = next;
+                    parent[nid] = id;
+                    int key = next;
+                    if (target != -1) {
+                        key += heuristic(nx, ny, tx, ty);
+                    }
+                    push(nid, key);
+                }
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    private int heuristic(int x, int y, int tx, int ty) {
+        int dx = Math.abs(x - tx);
+        int dy = Math.abs(y - ty);
+        return Cost.MIN * (diagonals ? Math.max(dx, dy) : dx + dy);
+    }
+
+    private void push(int id, int key) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            keys = Arrays.copyOf(keys, heapSize * 2);
+        }
+        int index = heapSize++;
+        while (index > 0) {
+            int up = (index - 1) >>> 1;
+            if (keys[up] <= key) {
+                break;
+            }
+            heap[index] = heap[up];
+            keys[index] = keys[up];
+            index = up;
+        }
+        heap[index] = id;
+        keys[index] = key;
+    }
+
+    private int pop() {
+        int result = heap[0];
+        int id = heap[--heapSize];
+        int key = keys[heapSize];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            keys[index] = keys[child];
+            index = child;
+        }
+        heap[index] = id;
+        keys[index] = key;
+        return result;
+    }
+
+    /**
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Distance from source found by last search
+     *         or {@link #UNREACHABLE}.
+     */
+    public int distance(int x, int y) {
+        if (xy == null || isOut(x, y)) {
+            return UNREACHABLE;
+        }
+        return distance(xy.length(x, y));
+    }
+
+    /**
+     * @param id Cell id.
+     * @return Distance from source found by last search
+     *         or {@link #UNREACHABLE}.
+     */
+    public int distance(int id) {
+        if (xy == null || stamp[id] != epoch) {
+            return UNREACHABLE;
+        }
+        int result = distance[id];
+        return (result == UNKNOWN) ? UNREACHABLE : result;
+    }
+
+    public boolean isReachable(int x, int y) {
+        return distance(x, y) != UNREACHABLE;
+    }
+
+    /**
+     * @param x Target X coordinate.
+     * @param y Target Y coordinate.
+     * @return Path from source (exclusive) to target (inclusive).
+     *         Empty if target is unreachable or it is the source.
+     *         After multi source search it is the path from
+     *         the nearest source.
+     */
+    public List<Point> path(int x, int y) {
+        List<Point> result = new ArrayList<>();
+        if (!isReachable(x, y)) {
+            return result;
+        }
+        int id = xy.length(x, y);
+        while (parent[id] != id) {
+            result.add(xy.point(id));
+            id = parent[id];
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * @param x Target X coordinate.
+     * @param y Target Y coordinate.
+     * @return First step from source to target as cell id
+     *         or -1 if target is unreachable or it is the source.
+     */
+    public int firstStep(int x, int y) {
+        if (source == -1 || !isReachable(x, y)) {
+            return -1;
+        }
+        int id = xy.length(x, y);
+        if (id == source) {
+            return -1;
+        }
+        while (parent[id] != source) {
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * @param x Target X coordinate.
+     * @param y Target Y coordinate.
+     * @return Direction of the first step from source to target
+     *         or null if there is no such orthogonal step.
+     */
+    public Direction direction(int x, int y) {
+        int step = firstStep(x, y);
+        if (step == -1) {
+            return null;
+        }
+        int dx = x(step) - x(source);
+        int dy = y(step) - y(source);
+        for (Direction direction : Direction.getValues()) {
+            if (direction.changeX(0) == dx && direction.changeY(0) == dy) {
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Count of cells reached (settled) by last search.
+     */
+    public int reached() {
+        return reached;
+    }
+
+    /**
+     * @return Source of last search as cell id or -1.
+     */
+    public int source() {
+        return source;
+    }
+
+    public LengthToXY xy() {
+        return xy;
+    }
+}
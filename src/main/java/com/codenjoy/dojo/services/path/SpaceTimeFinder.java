@@ -0,0 +1,320 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.annotations.PerformanceOptimized;
+
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.services.Direction.*;
+
+/**
+ * Path search over (cell, tick) states for boards with moving hazards
+ * (see {@link HazardOracle}): every move (or waiting on place) takes
+ * one tick and the hero must never be in a deadly cell on the tick
+ * when it is deadly. The search goes tick by tick up to the horizon,
+ * only two ticks of states are kept (bitsets of reachable cells and
+ * first moves that lead to them), so memory doesn't depend on the horizon.
+ * Static barriers are read once per search.
+ *
+ * Result is the first move of the shortest safe path. If the target
+ * can't be reached safely within the horizon, it is the move that keeps
+ * the most cells reachable at the last tick the hero survives.
+ * All work arrays are reused between searches of the same board size.
+ */
+@PerformanceOptimized
+public class SpaceTimeFinder {
+
+    public static final int UNREACHABLE = -1;
+
+    public static final int DEFAULT_HORIZON = 32;
+
+    // LEFT, RIGHT, UP, DOWN, затем ожидание на месте
+    private static final int[] DX = {-1, 1, 0, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1, 0};
+    private static final Direction[] MOVES = {LEFT, RIGHT, UP, DOWN, STOP};
+
+    private static final byte SOURCE = -1;
+
+    private final int horizon;
+
+    private int size;
+    private LengthToXY xy;
+    private long[] free;
+    private long[] current;
+    private long[] next;
+    private long[] deadly;
+    private byte[] currentMoves;
+    private byte[] nextMoves;
+    private final int[] votes = new int[MOVES.length];
+
+    private int arrival;
+    private int survived;
+    private int states;
+
+    public SpaceTimeFinder() {
+        this(DEFAULT_HORIZON);
+    }
+
+    /**
+     * @param horizon How many ticks ahead to search.
+     */
+    public SpaceTimeFinder(int horizon) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("Horizon should be positive: " + horizon);
+        }
+        this.horizon = horizon;
+    }
+
+    /**
+     * Search of the nearest (by ticks) target.
+     * @param size Board size.
+     * @param x Source X coordinate.
+     * @param y Source Y coordinate.
+     * @param barrier Says if cell can't be entered (source is always allowed).
+     * @param hazard Says if cell is deadly on given tick.
+     * @param target Says if cell is one of the targets, null - just survive.
+     * @return First move ({@link Direction#STOP} to wait or if source is the target
+     *         and safe on the next tick)
+     *         or null if the hero can't survive the next tick.
+     */
+    public Direction nearest(int size, int x, int y, IntIntPredicate barrier,
+                             HazardOracle hazard, IntIntPredicate target) {
+        return search(size, x, y, barrier, hazard, target, -1, -1);
+    }
+
+    /**
+     * A* version of {@link #nearest} for one target: states that can't
+     * reach the target within the horizon (by manhattan distance) are skipped.
+     * @param size Board size.
+     * @param fromX Source X coordinate.
+     * @param fromY Source Y coordinate.
+     * @param toX Target X coordinate.
+     * @param toY Target Y coordinate.
+     * @param barrier Says if cell can't be entered (source is always allowed).
+     * @param hazard Says if cell is deadly on given tick.
+     * @return First move or null if the hero can't survive the next tick.
+     */
+    public Direction aStar(int size, int fromX, int fromY, int toX, int toY,
+                           IntIntPredicate barrier, HazardOracle hazard) {
+        IntIntPredicate target = (x, y) -> x == toX && y == toY;
+        return search(size, fromX, fromY, barrier, hazard, target, toX, toY);
+    }
+
+    /**
+     * @param size Board size.
+     * @param x Source X coordinate.
+     * @param y Source Y coordinate.
+     * @param barrier Says if cell can't be entered (source is always allowed).
+     * @param hazard Says if cell is deadly on given tick.
+     * @return Move that keeps the hero alive (and keeps the most options)
+     *         or null if the hero can't survive the next tick.
+     */
+    public Direction escape(int size, int x, int y, IntIntPredicate barrier, HazardOracle hazard) {
+        return search(size, x, y, barrier, hazard, null, -1, -1);
+    }
+
+    private void prepare(int size, IntIntPredicate barrier) {
+        if (this.size != size) {
+            this.size = size;
+            xy = new LengthToXY(size);
+            int words = (size * size + 63) >>> 6;
+            free = new long[words];
+            current = new long[words];
+            next = new long[words];
+            deadly = new long[words];
+            currentMoves = new byte[size * size];
+            nextMoves = new byte[size * size];
+        }
+        Arrays.fill(free, 0);
+        for (int id = 0; id < size * size; id++) {
+            if (!barrier.test(x(id), y(id))) {
+                free[id >>> 6] |= 1L << id;
+            }
+        }
+        arrival = UNREACHABLE;
+        survived = 0;
+        states = 1;
+    }
+
+    private Direction search(int size, int x, int y, IntIntPredicate barrier,
+                             HazardOracle hazard, IntIntPredicate target, int toX, int toY) {
+        if (Point.isOutOf(x, y, size)) {
+            throw new IllegalArgumentException(
+                    String.format("Source [%s,%s] is out of board", x, y));
+        }
+        prepare(size, barrier);
+        int source = xy.length(x, y);
+        free[source >>> 6] |= 1L << source;
+        Arrays.fill(current, 0);
+        current[source >>> 6] |= 1L << source;
+        currentMoves[source] = SOURCE;
+        if (target != null && target.test(x, y) && !hazard.isHazard(x, y, 1)) {
+            arrival = 0;
+            return STOP;
+        }
+
+        for (int tick = 1; tick <= horizon; tick++) {
+            if (!expand(tick, hazard, toX, toY)) {
+                break;
+            }
+            survived = tick;
+            if (target != null) {
+                int found = find(target);
+                if (found != -1) {
+                    arrival = tick;
+                    return MOVES[currentMoves[found]];
+                }
+            }
+        }
+        return (survived == 0) ? null : vote();
+    }
+
+    /**
+     * @return true if any cell is reachable on given tick,
+     *         then {@link #current} has all of them.
+     */
+    private boolean expand(int tick, HazardOracle hazard, int toX, int toY) {
+        Arrays.fill(next, 0);
+        Arrays.fill(deadly, 0);
+        boolean any = false;
+        for (int word = 0; word < current.length; word++) {
+            long bits = current[word];
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int cx = x(id);
+                int cy = y(id);
+                byte first = currentMoves[id];
+                for (int move = 0; move < MOVES.length; move++) {
+                    int nx = cx + DX[move];
+                    int ny = cy + DY[move];
+                    if (Point.isOutOf(nx, ny, size)) {
+                        continue;
+                    }
+                    int nid = xy.length(nx, ny);
+                    int index = nid >>> 6;
+                    long bit = 1L << nid;
+                    if ((free[index] & bit) == 0
+                            || (next[index] & bit) != 0
+                            || (deadly[index] & bit) != 0)
+                    {
+                        continue;
+                    }
+                    if (toX != -1 && tick + Math.abs(nx - toX) + Math.abs(ny - toY) > horizon) {
+                        continue;
+                    }
+                    if (hazard.isHazard(nx, ny, tick)) {
+                        // опасную клетку спрашиваем только один раз за тик
+                        deadly[index] |= bit;
+                        continue;
+                    }
+                    next[index] |= bit;
+                    nextMoves[nid] = (first == SOURCE) ? (byte) move : first;
+                    states++;
+                    any = true;
+                }
+            }
+        }
+        if (any) {
+            long[] bits = current;
+            current = next;
+            next = bits;
+            byte[] moves = currentMoves;
+            currentMoves = nextMoves;
+            nextMoves = moves;
+        }
+        return any;
+    }
+
+    private int find(IntIntPredicate target) {
+        for (int word = 0; word < current.length; word++) {
+            long bits = current[word];
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (target.test(x(id), y(id))) {
+                    return id;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private Direction vote() {
+        Arrays.fill(votes, 0);
+        for (int word = 0; word < current.length; word++) {
+            long bits = current[word];
+            while (bits != 0) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                votes[currentMoves[id]]++;
+            }
+        }
+        int best = 0;
+        for (int move = 1; move < votes.length; move++) {
+            if (votes[move] > votes[best]) {
+                best = move;
+            }
+        }
+        return MOVES[best];
+    }
+
+    private int x(int id) {
+        return id % size;
+    }
+
+    private int y(int id) {
+        return size - 1 - id / size;
+    }
+
+    /**
+     * @return Tick when the target was reached by last search
+     *         or {@link #UNREACHABLE}.
+     */
+    public int arrival() {
+        return arrival;
+    }
+
+    /**
+     * @return How many ticks the hero survives (up to the horizon) in last search.
+     */
+    public int survived() {
+        return survived;
+    }
+
+    /**
+     * @return Count of (cell, tick) states visited by last search.
+     */
+    public int states() {
+        return states;
+    }
+
+    public int horizon() {
+        return horizon;
+    }
+}
@@ -0,0 +1,112 @@
+package com.codenjoy.dojo;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.WebSocketRunner;
+import com.codenjoy.dojo.games.mollymage.Board;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FleetRunnerTest {
+
+    private FleetRunner fleet;
+    private int timeout;
+    private Integer attempts;
+    private boolean print;
+
+    @Before
+    public void before() {
+        timeout = WebSocketRunner.TIMEOUT;
+        attempts = WebSocketRunner.ATTEMPTS;
+        print = WebSocketRunner.PRINT_TO_CONSOLE;
+        WebSocketRunner.TIMEOUT = 100;
+        WebSocketRunner.ATTEMPTS = 1;
+        WebSocketRunner.PRINT_TO_CONSOLE = false;
+    }
+
+    @After
+    public void after() {
+        if (fleet != null) {
+            fleet.close();
+        }
+        WebSocketRunner.TIMEOUT = timeout;
+        WebSocketRunner.ATTEMPTS = attempts;
+        WebSocketRunner.PRINT_TO_CONSOLE = print;
+    }
+
+    @Test
+    public void shouldParse() {
+        // when
+        List<FleetRunner.Bot> bots = FleetRunner.parse(Arrays.asList(
+                "# bots of the team",
+                "mollymage http://127.0.0.1:8080/codenjoy-contest/board/player/bot1?code=123",
+                "",
+                "  snake   http://127.0.0.1:8080/codenjoy-contest/board/player/bot2?code=456  "));
+
+        // then
+        assertEquals("[mollymage:bot1, snake:bot2]", bots.toString());
+        assertEquals("http://127.0.0.1:8080/codenjoy-contest/board/player/bot2?code=456",
+                bots.get(1).url());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotParse_whenNoUrl() {
+        FleetRunner.parse(Arrays.asList("mollymage"));
+    }
+
+    @Test(timeout = 20000)
+    public void shouldIsolateFailures() {
+        // given
+        List<FleetRunner.Bot> bots = FleetRunner.parse(Arrays.asList(
+                "unknown http://127.0.0.1:1/codenjoy-contest/board/player/bot1?code=123",
+                "mollymage bad-url",
+                "mollymage http://127.0.0.1:1/codenjoy-contest/board/player/bot3?code=789"));
+        fleet = new FleetRunner(bots, 2);
+        fleet.loaders(
+                game -> {
+                    if (game.equals("unknown")) {
+                        throw new IllegalArgumentException("No solver for: " + game);
+                    }
+                    return board -> "ACT";
+                },
+                game -> new Board());
+
+        // when
+        fleet.start(10000);
+
+        // then
+        assertEquals("unknown:bot1                   FAILED java.lang.IllegalArgumentException: No solver for: unknown\n" +
+                "mollymage:bad-url              FAILED java.lang.RuntimeException: Please set url in format " +
+                        "'http://127.0.0.1:8080/codenjoy-contest/board/player/0?code=000000000000'\n" +
+                "mollymage:bot3                 DISCONNECTED count=0 p50=0.000ms p99=0.000ms max=0.000ms dropped=0",
+                fleet.report());
+        assertEquals(false, bots.get(2).isRunning());
+    }
+}
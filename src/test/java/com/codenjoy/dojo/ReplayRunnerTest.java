@@ -0,0 +1,207 @@
+package com.codenjoy.dojo;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.Solver;
+import com.codenjoy.dojo.client.record.Recorder;
+import com.codenjoy.dojo.games.mollymage.Board;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReplayRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ReplayRunner runner;
+
+    @Before
+    public void before() {
+        runner = null;
+    }
+
+    @After
+    public void after() {
+        if (runner != null) {
+            runner.close();
+        }
+    }
+
+    private Path record(String name, String... ticks) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Recorder recorder = new Recorder(file);
+        try {
+            for (int index = 0; index < ticks.length; index += 2) {
+                recorder.record(ticks[index], ticks[index + 1]);
+            }
+        } finally {
+            recorder.close();
+        }
+        return file;
+    }
+
+    private ReplayRunner replay(List<Path> files, Solver solver) {
+        runner = new ReplayRunner("mollymage", files, 2);
+        runner.loaders(game -> solver, game -> new Board());
+        return runner.run();
+    }
+
+    // герой идет налево пока может
+    private Solver<Board> solver() {
+        return board -> board.getHero().getX() > 1 ? "LEFT" : "ACT";
+    }
+
+    @Test
+    public void shouldReplay_whenSameAnswers() throws IOException {
+        // given
+        Path first = record("first.rec",
+                "☼☼☼☼☼" +
+                "☼  ☺☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼", "LEFT",
+                "☼☼☼☼☼" +
+                "☼ ☺ ☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼", "LEFT",
+                "☼☼☼☼☼" +
+                "☼☺  ☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼", "ACT");
+
+        Path second = record("second.rec",
+                "☼☼☼☼☼" +
+                "☼   ☼" +
+                "☼☺  ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼", "ACT");
+
+        // when
+        replay(Arrays.asList(first, second), solver());
+
+        // then
+        assertEquals(4, runner.ticks());
+        assertEquals(4, runner.latency().count());
+        assertEquals(true, runner.throughput() > 0);
+        assertEquals("[3, 1]", Arrays.toString(runner.games().stream()
+                .mapToInt(ReplayRunner.Game::ticks).toArray()));
+        assertEquals("[0, 0]", Arrays.toString(runner.games().stream()
+                .mapToInt(ReplayRunner.Game::differed).toArray()));
+    }
+
+    @Test
+    public void shouldReportDiffs() throws IOException {
+        // given
+        Path file = record("game.rec",
+                "☼☼☼☼☼" +
+                "☼  ☺☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼", "LEFT",
+                "☼☼☼☼☼" +
+                "☼ ☺ ☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼", "RIGHT");
+
+        // when
+        replay(Arrays.asList(file), solver());
+
+        // then
+        ReplayRunner.Game game = runner.games().get(0);
+        assertEquals(1, game.differed());
+        assertEquals("[#1 'RIGHT' != 'LEFT']", game.diffs().toString());
+        assertEquals(true, runner.report().contains("game.rec"));
+        assertEquals(true, runner.report().contains("#1 'RIGHT' != 'LEFT'"));
+    }
+
+    @Test
+    public void shouldCountErrors_whenSolverFailed() throws IOException {
+        // given
+        Path file = record("game.rec",
+                "☼☼☼" +
+                "☼☺☼" +
+                "☼☼☼", "ACT");
+
+        // when
+        replay(Arrays.asList(file), board -> {
+            throw new IllegalStateException("bug");
+        });
+
+        // then
+        ReplayRunner.Game game = runner.games().get(0);
+        assertEquals(1, game.errors());
+        assertEquals(1, game.differed());
+        assertEquals("[#0 'ACT' != 'ERROR java.lang.IllegalStateException: bug']",
+                game.diffs().toString());
+    }
+
+    @Test
+    public void shouldIsolateFailures() throws IOException {
+        // given
+        Path broken = folder.getRoot().toPath().resolve("broken.rec");
+        Files.write(broken, new byte[]{1, 2, 3});
+        Path file = record("game.rec",
+                "☼☼☼" +
+                "☼☺☼" +
+                "☼☼☼", "ACT");
+
+        // when
+        replay(Arrays.asList(broken, file), solver());
+
+        // then
+        assertEquals(true, runner.games().get(0).error() != null);
+        assertEquals(null, runner.games().get(1).error());
+        assertEquals(1, runner.ticks());
+        assertEquals(true, runner.report().contains("broken.rec"));
+    }
+
+    @Test
+    public void shouldFindFiles() throws IOException {
+        // given
+        Path first = record("b.rec", "☼", "ACT");
+        Path second = record("a.rec", "☼", "ACT");
+        folder.newFile("notes.txt");
+        Path other = folder.newFolder("other").toPath().resolve("c.rec");
+
+        // when
+        List<Path> files = ReplayRunner.files(Arrays.asList(folder.getRoot().toPath(), other));
+
+        // then
+        assertEquals(Arrays.asList(second, first, other), files);
+    }
+}
@@ -23,6 +23,10 @@ package com.codenjoy.dojo.client;
  */
 
 
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntPointList;
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.PointBitSet;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -184,6 +188,22 @@ public class AbstractBoardTest {
                 board.getFirst(Element.ONE, Element.TWO, Element.THREE).toString());
     }
 
+    @Test
+    public void shouldReturnMutablePoints() {
+        // given
+        Point first = board.getFirst(Element.TWO);
+        Point found = (Point) board.get(Element.TWO).get(0);
+
+        // when
+        first.move(Direction.UP);
+        found.move(Direction.RIGHT);
+
+        // then
+        assertEquals("[1,2]", first.toString());
+        assertEquals("[2,1]", found.toString());
+        assertEquals("[1,1]", board.getFirst(Element.TWO).toString());
+    }
+
     @Test
     public void shouldWork_size() {
         assertEquals(4, board.size());
@@ -203,6 +223,82 @@ public class AbstractBoardTest {
                 board.get(Element.THREE).toString());
     }
 
+    @Test
+    public void shouldWork_count() {
+        assertEquals(12, board.count(Element.ONE));
+        assertEquals(2, board.count(Element.TWO));
+        assertEquals(4, board.count(Element.TWO, Element.THREE));
+        assertEquals(0, board.count(Element.FOUR));
+    }
+
+    @Test
+    public void shouldWork_count_afterSet() {
+        // when
+        board.set(1, 1, Element.THREE.ch());
+
+        // then
+        assertEquals(1, board.count(Element.TWO));
+        assertEquals(3, board.count(Element.THREE));
+    }
+
+    @Test
+    public void shouldWork_duplicateElements_get() {
+        assertEquals("[[1,1], [1,1], [2,1], [2,1]]",
+                board.get(Element.TWO, Element.TWO).toString());
+    }
+
+    @Test
+    public void shouldWork_notExistingElement_get() {
+        assertEquals("[]",
+                board.get(Element.FOUR).toString());
+
+        assertEquals(null,
+                board.getFirst(Element.FOUR));
+    }
+
+    @Test
+    public void shouldWork_getIds() {
+        // when
+        IntPointList ids = board.getIds(Element.TWO, Element.THREE);
+
+        // then
+        assertEquals("[[1,1], [1,2], [2,1], [2,2]]", ids.toString());
+        assertEquals(4, ids.size());
+        assertEquals(board.xy().length(1, 1), ids.get(0));
+        assertEquals(1, ids.x(1));
+        assertEquals(2, ids.y(1));
+    }
+
+    @Test
+    public void shouldWork_getBits() {
+        // when
+        PointBitSet bits = board.getBits(Element.TWO, Element.TWO);
+
+        // then
+        assertEquals("[[1,1], [2,1]]", bits.toString());
+        assertEquals(true, bits.contains(1, 1));
+        assertEquals(false, bits.contains(1, 2));
+        assertEquals(false, bits.contains(-1, 1));
+    }
+
+    @Test
+    public void shouldWork_get_whenBigBoard() {
+        // given
+        StringBuilder string = new StringBuilder();
+        for (int index = 0; index < 100 * 100; index++) {
+            string.append(index % 67 == 0 ? '2' : '1');
+        }
+
+        // when
+        board = board(string.toString());
+
+        // then
+        assertEquals(150, board.count(Element.TWO));
+        assertEquals(150, board.get(Element.TWO).size());
+        assertEquals("[0,0]", board.getFirst(Element.TWO).toString());
+        assertEquals(100 * 100 - 150, board.get(Element.ONE).size());
+    }
+
     @Test
     public void getBoardAsString() {
         assertEquals(
@@ -27,7 +27,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 
+import static com.codenjoy.dojo.client.AbstractLayeredBoard.Layers.LAYER1;
+import static com.codenjoy.dojo.client.AbstractLayeredBoard.Layers.LAYER2;
 import static com.codenjoy.dojo.client.Element.*;
 import static org.junit.Assert.assertEquals;
 
@@ -212,6 +216,62 @@ public class AbstractBoardWithSeveralLayersTest {
         assertEquals(expected3, board.get(SIX).toString());
     }
 
+    @Test
+    public void shouldWork_forEachAt() {
+        // given
+        List<String> points = new LinkedList<>();
+
+        // when
+        board.forEachAt((x, y) -> points.add(x + "," + y), THREE, SIX);
+
+        // then
+        assertEquals("[1,2, 2,2, 1,2, 2,2]", points.toString());
+    }
+
+    @Test
+    public void shouldWork_firstIndexOf() {
+        assertEquals(board.xy().length(1, 1), board.firstIndexOf(TWO));
+        assertEquals(board.xy().length(1, 2), board.firstIndexOf(SIX));
+        assertEquals("[1,2]", board.xy().point(board.firstIndexOf(SIX)).toString());
+        assertEquals(-1, board.firstIndexOf(Element.NONE));
+    }
+
+    @Test
+    public void shouldWork_countAt() {
+        assertEquals(1, board.countAt(0, 0, ONE));
+        assertEquals(2, board.countAt(0, 0, ONE, FOUR));
+        assertEquals(1, board.countAt(1, 1, ONE, FIVE));
+        assertEquals(0, board.countAt(1, 1, ONE, FOUR));
+        assertEquals(0, board.countAt(-1, 1, ONE, FOUR));
+    }
+
+    @Test
+    public void shouldWork_getAt_atLayer() {
+        assertEquals(ONE, board.getAt(LAYER1, 0, 0));
+        assertEquals(FOUR, board.getAt(LAYER2, 0, 0));
+        assertEquals(THREE, board.getAt(LAYER1, 2, 2));
+        assertEquals(SIX, board.getAt(LAYER2, 2, 2));
+    }
+
+    @Test
+    public void shouldWork_forEachNear() {
+        // given
+        List<Object> elements = new LinkedList<>();
+
+        // when
+        board.forEachNear(3, 3, elements::add);
+
+        // then
+        assertEquals(board.getNear(3, 3), elements);
+    }
+
+    @Test
+    public void shouldWork_count() {
+        assertEquals(12, board.count(ONE));
+        assertEquals(24, board.count(ONE, FOUR));
+        assertEquals(4, board.count(THREE, SIX));
+    }
+
     @Test
     public void shouldWork_size() {
         assertEquals(4, board.size());
@@ -23,13 +23,17 @@ package com.codenjoy.dojo.client;
  */
 
 
+import com.codenjoy.dojo.services.path.DistanceCache;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static com.codenjoy.dojo.client.AbstractLayeredBoard.Layers.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class AbstractLayeredBoardTest {
 
@@ -406,4 +410,292 @@ public class AbstractLayeredBoardTest {
         assertEquals("[[1,1]]",
                 board.layer(LAYER2).get( Element.THREE).toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldSkipLineBreaks() {
+        board = board(
+                "1111\n" +
+                "1221\n" +
+                "1331\n" +
+                "1111\n");
+
+        assertEquals(4, board.size());
+        assertEquals("[[1,1], [2,1]]",
+                board.layer(LAYER1).get(Element.TWO).toString());
+    }
+
+    @Test
+    public void shouldReuseBuffers_whenSizeIsSame() {
+        // given
+        board.setReuseBuffers(true);
+        char[][] field = board.layer(LAYER1).field();
+        AbstractLayeredBoard.GetLayer layer = board.layer(LAYER1);
+
+        // when
+        board.forString(
+                "1111" +
+                "1331" +
+                "1221" +
+                "1111",
+                "    " +
+                "  4 " +
+                " 4  " +
+                "    ");
+
+        // then
+        assertSame(field, board.layer(LAYER1).field());
+        assertSame(layer, board.layer(LAYER1));
+
+        assertEquals(
+                "Board:\n" +
+                "1111\n" +
+                "1331\n" +
+                "1221\n" +
+                "1111\n" +
+                "\n" +
+                "    \n" +
+                "  4 \n" +
+                " 4  \n" +
+                "    \n", board.toString());
+
+        assertEquals("[[1,2], [2,2]]",
+                board.layer(LAYER1).get(Element.TWO).toString());
+        assertEquals("[[1,1], [2,1]]",
+                board.layer(LAYER1).get(Element.THREE).toString());
+        assertEquals("[[1,2], [2,1]]",
+                board.layer(LAYER2).get(Element.FOUR).toString());
+    }
+
+    @Test
+    public void shouldNotReuseBuffers_whenSizeChanged() {
+        // given
+        board.setReuseBuffers(true);
+        char[][] field = board.layer(LAYER1).field();
+
+        // when
+        board.forString(
+                "111" +
+                "121" +
+                "111",
+                "   " +
+                " 4 " +
+                "   ");
+
+        // then
+        assertNotSame(field, board.layer(LAYER1).field());
+        assertEquals(3, board.size());
+        assertEquals("[[1,1]]",
+                board.layer(LAYER1).get(Element.TWO).toString());
+    }
+
+    @Test
+    public void shouldNotReuseBuffers_byDefault() {
+        // given
+        char[][] field = board.layer(LAYER1).field();
+
+        // when
+        board.forString(
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111",
+                "    " +
+                " 4  " +
+                "  4 " +
+                "    ");
+
+        // then
+        assertNotSame(field, board.layer(LAYER1).field());
+    }
+
+    @Test
+    public void shouldInvalidateDistanceCache_onlyWhenChanged() {
+        // given
+        DistanceCache cache = new DistanceCache(1024);
+        int profile = cache.profile((x, y) -> false);
+        board.invalidateOnChange(cache);
+        cache.distance(board.size(), profile, 0, 0, 3, 3);
+
+        // when
+        board.forString(
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111",
+                "    " +
+                " 4  " +
+                "  4 " +
+                "    ");
+
+        // then
+        assertEquals(1, cache.fields());
+
+        // when
+        board.forString(
+                "1111" +
+                "1221" +
+                "1321" +
+                "1111",
+                "    " +
+                " 4  " +
+                "  4 " +
+                "    ");
+
+        // then
+        assertEquals(0, cache.fields());
+    }
+
+    @Test
+    public void shouldForChars_sameAsForString() {
+        // given
+        String json = "{\"layers\":[\"" +
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111" +
+                "\", \"" +
+                "    " +
+                " 4  " +
+                "  4 " +
+                "    " +
+                "\"], \"key\":\"value\", \"offset\":{\"x\":1,\"y\":2}, \"tick\":15}";
+        String frame = "board=" + json;
+
+        // when
+        board.forChars(new CharSlice(frame, 6, frame.length()));
+
+        // then
+        assertEquals(board(json).toString(), board.toString());
+        assertEquals("[1111122113311111,      4    4     ]", board.getLayersString().toString());
+        assertEquals("value", board.source.getString("key"));
+        assertEquals(2, board.source.getJSONObject("offset").getInt("y"));
+        assertEquals(15, board.source.getInt("tick"));
+        assertEquals(false, board.source.has("layers"));
+    }
+
+    @Test
+    public void shouldGetLayersString_fromProtectedField() {
+        // given
+        board = board("1111" +
+                "1221" +
+                "1331" +
+                "1111");
+        List<String> layers = board.layersString;
+        assertEquals("[1111122113311111]", layers.toString());
+
+        // when
+        board.forString("2222" +
+                "2112" +
+                "2332" +
+                "2222");
+
+        // then
+        // тот же список, но уже со слоями нового тика
+        assertSame(layers, board.getLayersString());
+        assertEquals("[2222211223322222]", layers.toString());
+        assertEquals(1, layers.size());
+    }
+
+    @Test
+    public void shouldForChars_whenLayersEscaped() {
+        // when
+        board.forChars("{\"layers\":[\"" +
+                "1111\\n" +
+                "12\\u00321\\n" +
+                "13\\u00331\\n" +
+                "1111" +
+                "\"]}");
+
+        // then
+        assertEquals("Board:\n" +
+                "1111\n" +
+                "1221\n" +
+                "1331\n" +
+                "1111\n", board.toString());
+    }
+
+    @Test
+    public void shouldForChars_whenNotJson() {
+        // when
+        board.forChars(
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111");
+
+        // then
+        assertEquals("Board:\n" +
+                "1111\n" +
+                "1221\n" +
+                "1331\n" +
+                "1111\n", board.toString());
+    }
+
+    @Test
+    public void shouldForChars_reuseBuffers() {
+        // given
+        board.setReuseBuffers(true);
+        board.forChars("{\"layers\":[\"1111122113311111\",\"     4    4     \"]}");
+        char[][] field = board.layer(LAYER1).field();
+
+        // when
+        board.forChars("{\"layers\":[\"1111132113311111\",\"     4    4     \"]}");
+
+        // then
+        assertSame(field, board.layer(LAYER1).field());
+        assertEquals(1, board.diff().count());
+    }
+
+    @Test
+    public void shouldForChars_useOverriddenForString() {
+        // given
+        // доска сама готовит строку: старый сервер присылает 'x' вместо '3'
+        AbstractLayeredBoard custom = new AbstractLayeredBoard<Element>() {
+            @Override
+            public Element[] elements() {
+                return Element.values();
+            }
+
+            @Override
+            public ClientBoard forString(String boardString) {
+                return super.forString(boardString.replace('x', '3'));
+            }
+        };
+
+        // when
+        custom.forChars("{\"layers\":[\"1111" + "1221" + "1xx1" + "1111\"]}");
+
+        // then
+        assertEquals("Board:\n" +
+                "1111\n" +
+                "1221\n" +
+                "1331\n" +
+                "1111\n", custom.toString());
+    }
+
+    @Test
+    public void shouldForChars_useOverriddenForString_whenNotJson() {
+        // given
+        AbstractLayeredBoard custom = new AbstractLayeredBoard<Element>() {
+            @Override
+            public Element[] elements() {
+                return Element.values();
+            }
+
+            @Override
+            public ClientBoard forString(String... layers) {
+                return super.forString(new String[]{layers[0].replace('x', '3')});
+            }
+        };
+
+        // when
+        custom.forChars("1111" + "1221" + "1xx1" + "1111");
+
+        // then
+        assertEquals("Board:\n" +
+                "1111\n" +
+                "1221\n" +
+                "1331\n" +
+                "1111\n", custom.toString());
+    }
+}
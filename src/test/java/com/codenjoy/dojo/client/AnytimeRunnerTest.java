@@ -0,0 +1,144 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class AnytimeRunnerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private AnytimeRunner runner = new AnytimeRunner();
+
+    @After
+    public void after() {
+        runner.close();
+    }
+
+    // итеративное углубление - каждая следующая глубина дает лучший ответ
+    private static class DeepeningSolver implements AnytimeSolver<ClientBoard> {
+
+        AtomicInteger depth = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        int maxDepth = Integer.MAX_VALUE;
+
+        @Override
+        public void solve(ClientBoard board, Deadline deadline) {
+            depth.set(0);
+            stopped.set(false);
+            while (!deadline.isExpired() && depth.get() < maxDepth) {
+                sleep(5);
+                deadline.publish("depth" + depth.incrementAndGet());
+            }
+            stopped.set(true);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSendBestAnswer_atDeadline() {
+        // given
+        DeepeningSolver solver = new DeepeningSolver();
+        Deadline deadline = Deadline.in(100 * MILLIS);
+
+        // when
+        String answer = runner.get(solver, null, deadline);
+
+        // then
+        assertEquals(true, answer.startsWith("depth"));
+        assertEquals(true, solver.depth.get() > 1);
+        assertEquals(true, deadline.isExpired());
+
+        // поиск остановится сам, кооперативно
+        runner.await();
+        assertEquals(true, solver.stopped.get());
+        assertEquals(false, runner.isSearching());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldReturnImmediately_whenSearchFinished() {
+        // given
+        DeepeningSolver solver = new DeepeningSolver();
+        solver.maxDepth = 3;
+
+        // when
+        long time = System.nanoTime();
+        String answer = runner.get(solver, null, Deadline.in(5000 * MILLIS));
+
+        // then
+        assertEquals("depth3", answer);
+        assertEquals(true, System.nanoTime() - time < 4000 * MILLIS);
+    }
+
+    @Test(timeout = 10000)
+    public void shouldReturnEmpty_whenNothingPublished() {
+        // when
+        String answer = runner.get((board, deadline) -> {}, null, Deadline.in(100 * MILLIS));
+
+        // then
+        assertEquals("", answer);
+    }
+
+    @Test(timeout = 10000)
+    public void shouldReturnPublished_whenSolverFailed() {
+        // when
+        String answer = runner.get((board, deadline) -> {
+            deadline.publish("ACT");
+            throw new IllegalStateException("Search failed");
+        }, null, Deadline.in(1000 * MILLIS));
+
+        // then
+        assertEquals("ACT", answer);
+    }
+
+    @Test(expected = RuntimeException.class, timeout = 10000)
+    public void shouldThrow_whenSolverFailedWithoutAnswer() {
+        runner.get((board, deadline) -> {
+            throw new IllegalStateException("Search failed");
+        }, null, Deadline.in(1000 * MILLIS));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldWorkAsUsualSolver() {
+        // given
+        DeepeningSolver solver = new DeepeningSolver();
+        solver.maxDepth = 2;
+
+        // when then
+        assertEquals("depth2", solver.get(null));
+    }
+}
@@ -0,0 +1,122 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+public class AsyncConsoleTest {
+
+    private AsyncConsole console;
+
+    @After
+    public void after() {
+        console.close();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldPrintInOrder() {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        console = new AsyncConsole(out);
+
+        // when
+        console.print("one");
+        console.print("два");
+        console.print("three");
+
+        // then
+        assertEquals(true, console.flush(5000));
+        assertEquals("one\nдва\nthree\n",
+                out.toString(StandardCharsets.UTF_8).replace("\r", ""));
+        assertEquals(0, console.dropped());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldDropMessages_whenOutputIsSlow() {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                await(release);
+                written.write(b);
+            }
+        };
+        console = new AsyncConsole(blocked, 2);
+
+        // when
+        // одно сообщение может застрять в записи и еще два поместятся в буфер
+        for (int i = 0; i < 10; i++) {
+            console.print("message" + i);
+        }
+        long dropped = console.dropped();
+        release.countDown();
+
+        // then
+        assertEquals(true, dropped >= 7);
+        assertEquals(true, console.flush(5000));
+    }
+
+    @Test(timeout = 10000)
+    public void shouldStopWaiting_whenFlushTimeout() {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                await(release);
+            }
+        };
+        console = new AsyncConsole(blocked);
+        console.print("message");
+
+        // when
+        long start = System.nanoTime();
+        boolean flushed = console.flush(100);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        release.countDown();
+
+        // then
+        assertEquals(false, flushed);
+        assertEquals(true, millis >= 90);
+        assertEquals(true, console.flush(5000));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
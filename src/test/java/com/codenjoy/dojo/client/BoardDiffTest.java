@@ -0,0 +1,164 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.codenjoy.dojo.client.AbstractLayeredBoard.Layers.LAYER1;
+import static com.codenjoy.dojo.client.AbstractLayeredBoard.Layers.LAYER2;
+import static com.codenjoy.dojo.client.Element.*;
+import static org.junit.Assert.assertEquals;
+
+public class BoardDiffTest {
+
+    private AbstractBoard<Element> board;
+    private List<String> events;
+
+    @Before
+    public void before() {
+        board = new AbstractBoard<>() {
+            @Override
+            public Element[] elements() {
+                return Element.values();
+            }
+        };
+        events = new LinkedList<>();
+        board.addDiffListener(diff -> events.add(diff.toString()));
+
+        board.forString(
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111",
+                "    " +
+                " 4  " +
+                "  4 " +
+                "    ");
+    }
+
+    private void tick() {
+        board.forString(
+                "1111" +
+                "1321" +
+                "1331" +
+                "1111",
+                "    " +
+                "  4 " +
+                "  4 " +
+                "    ");
+    }
+
+    @Test
+    public void shouldReset_onFirstTick() {
+        assertEquals("[[reset]]", events.toString());
+        assertEquals(true, board.diff().isReset());
+        assertEquals(0, board.diff().count());
+    }
+
+    @Test
+    public void shouldCollectChanges() {
+        // when
+        tick();
+
+        // then
+        BoardDiff<Element> diff = board.diff();
+        assertEquals(false, diff.isReset());
+        assertEquals(3, diff.count());
+        assertEquals("[0:[1,1]'2'->'3', 1:[1,1]'4'->' ', 1:[2,1]' '->'4']",
+                diff.toString());
+
+        assertEquals(LAYER2, diff.layer(2));
+        assertEquals(2, diff.x(2));
+        assertEquals(1, diff.y(2));
+        assertEquals(' ', diff.before(2));
+        assertEquals('4', diff.after(2));
+    }
+
+    @Test
+    public void shouldCollectAddedAndRemoved() {
+        // when
+        tick();
+
+        // then
+        BoardDiff<Element> diff = board.diff();
+        assertEquals("[[1,1]]", diff.added(THREE).toString());
+        assertEquals("[[1,1]]", diff.removed(TWO).toString());
+        assertEquals("[[2,1]]", diff.added(FOUR).toString());
+        assertEquals("[[1,1]]", diff.removed(FOUR).toString());
+        assertEquals("[]", diff.added(ONE).toString());
+        assertEquals("[]", diff.added(TWO, THREE).toString());
+    }
+
+    @Test
+    public void shouldBeEmpty_whenNothingChanged() {
+        // when
+        board.forString(board.getLayersString().toArray(new String[0]));
+
+        // then
+        assertEquals(true, board.diff().isEmpty());
+        assertEquals(false, board.diff().isReset());
+    }
+
+    @Test
+    public void shouldReset_whenSizeChanged() {
+        // when
+        board.forString("111121111", "         ");
+
+        // then
+        assertEquals(true, board.diff().isReset());
+        assertEquals(true, board.diff().isEmpty());
+    }
+
+    @Test
+    public void shouldNotifyListeners() {
+        // when
+        tick();
+        tick();
+
+        // then
+        assertEquals("[[reset], " +
+                "[0:[1,1]'2'->'3', 1:[1,1]'4'->' ', 1:[2,1]' '->'4'], " +
+                "[]]", events.toString());
+    }
+
+    @Test
+    public void shouldUpdateIndex_whenReuseBuffers() {
+        // given
+        board.setReuseBuffers(true);
+
+        // when
+        tick();
+
+        // then
+        assertEquals("[[1,1], [1,2], [2,2]]", board.get(THREE).toString());
+        assertEquals("[[2,1]]", board.get(TWO).toString());
+        assertEquals("[[2,1], [2,2]]", board.layer(LAYER2).get(FOUR).toString());
+        assertEquals(12, board.layer(LAYER1).count(ONE));
+        assertEquals(3, board.diff().count());
+    }
+}
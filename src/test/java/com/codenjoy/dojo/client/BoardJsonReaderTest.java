@@ -0,0 +1,134 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BoardJsonReaderTest {
+
+    private BoardJsonReader reader = new BoardJsonReader();
+
+    @Test
+    public void shouldReadLayersAndFields() {
+        // when
+        boolean read = reader.read("{ \"myBase\": {\"x\": 2, \"y\": [8, {\"z\": \"}\"}]}, " +
+                "\"layers\" : [ \"ab\\ncd\", \"\" ] ,\"inLobby\":false, \"tick\":10, " +
+                "\"rate\":1.5, \"none\":null, \"forces\":\"-=#\", \"list\":[1,2] }");
+
+        // then
+        assertEquals(true, read);
+        assertEquals("[ab\ncd, ]", Arrays.toString(reader.layers()));
+        assertEquals(2, reader.fields().getJSONObject("myBase").getInt("x"));
+        assertEquals("}", reader.fields().getJSONObject("myBase")
+                .getJSONArray("y").getJSONObject(1).getString("z"));
+        assertEquals(false, reader.fields().getBoolean("inLobby"));
+        assertEquals(10, reader.fields().getInt("tick"));
+        assertEquals(1.5, reader.fields().getDouble("rate"), 0);
+        assertEquals(true, reader.fields().isNull("none"));
+        assertEquals("-=#", reader.fields().getString("forces"));
+        assertEquals("[1,2]", reader.fields().getJSONArray("list").toString());
+        assertEquals(false, reader.fields().has("layers"));
+    }
+
+    @Test
+    public void shouldNotCopyLayers() {
+        // given
+        String json = "{\"layers\":[\"abcd\"]}";
+
+        // when
+        reader.read(json);
+
+        // then
+        CharSequence layer = reader.layers()[0];
+        assertEquals(CharSlice.class, layer.getClass());
+        assertEquals("abcd", layer.toString());
+    }
+
+    @Test
+    public void shouldDecodeEscapedLayers() {
+        // when
+        reader.read("{\"layers\":[\"a\\\"b\\\\c\\/d\\u263Ce\\n\"]}");
+
+        // then
+        assertEquals("a\"b\\c/d☼e\n", reader.layers()[0].toString());
+    }
+
+    @Test
+    public void shouldDecodeEscapedKeysAndStrings() {
+        // when
+        reader.read("{\"layers\":[], \"k\\u0065y\":\"\\tvalue\"}");
+
+        // then
+        assertEquals(0, reader.layers().length);
+        assertEquals("\tvalue", reader.fields().getString("key"));
+    }
+
+    @Test
+    public void shouldReuseLayers_whenCountIsSame() {
+        // given
+        reader.read("{\"layers\":[\"ab\", \"cd\"]}");
+        CharSequence[] layers = reader.layers();
+        CharSequence first = layers[0];
+
+        // when
+        reader.read("{\"layers\":[\"ef\", \"gh\"]}");
+
+        // then
+        assertSame(layers, reader.layers());
+        assertSame(first, reader.layers()[0]);
+        assertEquals("[ef, gh]", Arrays.toString(reader.layers()));
+    }
+
+    @Test
+    public void shouldReturnFalse_whenNoLayers() {
+        // when then
+        assertEquals(false, reader.read("{\"key\":\"value\"}"));
+        assertEquals(false, reader.read("{}"));
+    }
+
+    @Test
+    public void shouldThrow_whenBrokenJson() {
+        assertError("Expected '{' at 0", "[]");
+        assertError("Unterminated string at 14", "{\"layers\":[\"ab");
+        assertError("Expected ',' or ']' at 15", "{\"layers\":[\"ab\"}");
+        assertError("Expected ':' at 7", "{\"key\" 1}");
+        assertError("Unexpected end at 9", "{\"key\":1,");
+    }
+
+    private void assertError(String expected, String json) {
+        try {
+            reader.read(json);
+        } catch (JSONException e) {
+            assertEquals(expected, e.getMessage());
+            return;
+        }
+        throw new AssertionError("Expected exception");
+    }
+}
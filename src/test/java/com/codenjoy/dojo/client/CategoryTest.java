@@ -0,0 +1,121 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.printer.CharElement;
+import org.junit.Test;
+
+import static com.codenjoy.dojo.client.Element.*;
+import static org.junit.Assert.assertEquals;
+
+public class CategoryTest {
+
+    enum Twins implements CharElement {
+
+        FIRST('a'), SECOND('a'), THIRD('b');
+
+        final char ch;
+
+        Twins(char ch) {
+            this.ch = ch;
+        }
+
+        @Override
+        public char ch() {
+            return ch;
+        }
+    }
+
+    @Test
+    public void shouldCompileByChar() {
+        // given
+        Category<Element> category = Category.of(TWO, FIVE);
+
+        // when then
+        assertEquals(true, category.has('2'));
+        assertEquals(true, category.has('5'));
+        assertEquals(false, category.has('1'));
+        assertEquals(false, category.has('~'));
+        assertEquals(false, category.has((char) 1000));
+        assertEquals(true, category.has(TWO));
+        assertEquals(false, category.has(ONE));
+        assertEquals("[2, 5]", category.toString());
+    }
+
+    @Test
+    public void shouldUseElementRecognizedByBoard_whenSameChars() {
+        // when then
+        assertEquals(false, Category.of(Twins.FIRST).has('a'));
+        assertEquals(true, Category.of(Twins.SECOND).has('a'));
+        assertEquals(true, Category.of(Twins.FIRST, Twins.SECOND).has('a'));
+        assertEquals(false, Category.of(Twins.FIRST, Twins.SECOND).has('b'));
+    }
+
+    @Test
+    public void shouldNotDependOnOrder_whenSameChars() {
+        // when then
+        assertEquals(true, Category.of(Twins.FIRST, Twins.SECOND).has('a'));
+        assertEquals(true, Category.of(Twins.SECOND, Twins.FIRST).has('a'));
+        assertEquals(true, Category.of(Twins.SECOND, Twins.FIRST, Twins.THIRD).has('b'));
+        assertEquals(true, Category.of(Twins.THIRD, Twins.SECOND, Twins.FIRST).has('a'));
+    }
+
+    @Test
+    public void shouldWorkEmpty() {
+        // when then
+        assertEquals(false, Category.<Element>of().has('1'));
+    }
+
+    @Test
+    public void shouldBeSameAsIsAtWithElements() {
+        // given
+        AbstractBoard board = AbstractBoardWithSeveralLayersTest.board(
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111",
+                "4444" +
+                "4554" +
+                "4664" +
+                "4444");
+
+        Element[][] groups = {
+                {ONE},
+                {TWO, SIX},
+                {THREE, FOUR},
+                {NONE},
+        };
+
+        // when then
+        for (Element[] group : groups) {
+            Category<Element> category = Category.of(group);
+            for (int x = -1; x <= board.size(); x++) {
+                for (int y = -1; y <= board.size(); y++) {
+                    assertEquals(board.isAt(x, y, group),
+                            board.isAt(x, y, category));
+                }
+            }
+        }
+    }
+}
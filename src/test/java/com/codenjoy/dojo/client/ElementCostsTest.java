@@ -0,0 +1,103 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Point;
+import com.codenjoy.dojo.services.path.Cost;
+import com.codenjoy.dojo.services.path.PathFinder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.codenjoy.dojo.client.Element.*;
+import static org.junit.Assert.assertEquals;
+
+public class ElementCostsTest {
+
+    private AbstractBoard<Element> board;
+
+    @Before
+    public void before() {
+        board = (AbstractBoard<Element>) AbstractBoardWithSeveralLayersTest.board(
+                "1111" +
+                "1221" +
+                "1331" +
+                "1111",
+                "4444" +
+                "4554" +
+                "4664" +
+                "4444");
+    }
+
+    @Test
+    public void shouldTakeMaxCostFromAllLayers() {
+        // given
+        ElementCosts<Element> costs = new ElementCosts<>(board)
+                .set(3, TWO)
+                .set(7, FIVE)
+                .barrier(SIX);
+
+        Point two = board.getFirst(TWO);
+        Point three = board.getFirst(THREE);
+
+        // when then
+        assertEquals(7, costs.cost(two.getX(), two.getY()));
+        assertEquals(Cost.BARRIER, costs.cost(three.getX(), three.getY()));
+        assertEquals(Cost.MIN, costs.cost(0, 0));
+        assertEquals(Cost.BARRIER, costs.cost(-1, 0));
+        assertEquals(3, costs.cost(TWO.ch()));
+        assertEquals(Cost.MIN, costs.cost(ONE.ch()));
+    }
+
+    @Test
+    public void shouldUseDefaultCost() {
+        // given
+        ElementCosts<Element> costs = new ElementCosts<>(board, 2)
+                .set(1, ONE, FOUR);
+
+        Point two = board.getFirst(TWO);
+
+        // when then
+        assertEquals(1, costs.cost(0, 0));
+        assertEquals(2, costs.cost(two.getX(), two.getY()));
+    }
+
+    @Test
+    public void shouldSearchPath_overBoard() {
+        // given
+        PathFinder finder = new PathFinder();
+
+        // when
+        int reached = finder.bfs(board.size(), 0, 0, board.predicate(THREE));
+
+        // then
+        assertEquals(14, reached);
+
+        // when
+        finder.dijkstra(board.size(), 0, 0,
+                new ElementCosts<>(board).set(10, FIVE, SIX));
+
+        // then
+        assertEquals(6, finder.distance(3, 3));
+    }
+}
@@ -0,0 +1,158 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void shouldBucketsCoverAllValues_withoutGaps() {
+        // given
+        long previous = -1;
+
+        // when then
+        for (int index = 0; index < LatencyHistogram.index(LatencyHistogram.MAX_VALUE); index++) {
+            assertEquals(previous + 1, LatencyHistogram.lowest(index));
+            assertEquals(index, LatencyHistogram.index(LatencyHistogram.lowest(index)));
+            assertEquals(index, LatencyHistogram.index(LatencyHistogram.highest(index)));
+            previous = LatencyHistogram.highest(index);
+        }
+    }
+
+    @Test
+    public void shouldBucketHasGivenPrecision() {
+        // given
+        long value = 123_456_789L;
+
+        // when
+        int index = LatencyHistogram.index(value);
+
+        // then
+        long width = LatencyHistogram.highest(index) - LatencyHistogram.lowest(index) + 1;
+        assertEquals(true, width * LatencyHistogram.SUB_BUCKETS <= value);
+    }
+
+    @Test
+    public void shouldEmpty() {
+        // when then
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean());
+    }
+
+    @Test
+    public void shouldRecordExactValues_whenSmall() {
+        // given
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        // when then
+        assertEquals(10, histogram.count());
+        assertEquals(5, histogram.percentile(50));
+        assertEquals(10, histogram.percentile(99));
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(10, histogram.max());
+        assertEquals(5, histogram.mean());
+    }
+
+    @Test
+    public void shouldRecordValues_withRelativePrecision() {
+        // given
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        // when
+        long p50 = histogram.percentile(50);
+        long p99 = histogram.percentile(99);
+
+        // then
+        assertEquals(true, Math.abs(p50 - 50_000_000L) < 50_000_000L / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(true, Math.abs(p99 - 99_000_000L) < 99_000_000L / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(100_000_000L, histogram.percentile(100));
+        assertEquals(100_000_000L, histogram.max());
+    }
+
+    @Test
+    public void shouldClampValues() {
+        // when
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        // then
+        assertEquals(0, histogram.percentile(50));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.max());
+    }
+
+    @Test
+    public void shouldReset() {
+        // given
+        histogram.record(100);
+
+        // when
+        histogram.reset();
+
+        // then
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    public void shouldDump() {
+        // given
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(100);
+
+        // when
+        StringWriter out = new StringWriter();
+        histogram.dump(new PrintWriter(out));
+
+        // then
+        assertEquals("3 3 2\n" +
+                "100 101 1\n",
+                out.toString().replace("\r", ""));
+    }
+
+    @Test
+    public void shouldPrint() {
+        // given
+        histogram.record(1_500_000);
+
+        // when then
+        assertEquals("count=1 p50=1.500ms p99=1.500ms max=1.500ms",
+                histogram.toString());
+    }
+}
@@ -0,0 +1,120 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LatestMailboxTest {
+
+    private LatestMailbox<String> mailbox = new LatestMailbox<>();
+
+    @Test
+    public void shouldPoll_whenEmpty() {
+        // when then
+        assertNull(mailbox.poll());
+        assertEquals(0, mailbox.offered());
+        assertEquals(0, mailbox.dropped());
+    }
+
+    @Test
+    public void shouldPoll_latestItem() {
+        // given
+        assertEquals(true, mailbox.offer("one"));
+        assertEquals(false, mailbox.offer("two"));
+        assertEquals(false, mailbox.offer("three"));
+
+        // when then
+        assertEquals("three", mailbox.poll());
+        assertNull(mailbox.poll());
+
+        assertEquals(3, mailbox.offered());
+        assertEquals(2, mailbox.dropped());
+    }
+
+    @Test
+    public void shouldNotCountAsDropped_whenTaken() {
+        // given
+        mailbox.offer("one");
+        assertEquals("one", mailbox.poll());
+
+        // when
+        assertEquals(true, mailbox.offer("two"));
+
+        // then
+        assertEquals("two", mailbox.poll());
+        assertEquals(0, mailbox.dropped());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotOffer_null() {
+        mailbox.offer(null);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldTake_whenOfferedFromOtherThread() throws Exception {
+        // given
+        AtomicReference<String> taken = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                taken.set(mailbox.take());
+            } catch (InterruptedException e) {
+                taken.set("interrupted");
+            }
+        });
+        consumer.start();
+
+        // when
+        mailbox.offer("board");
+        consumer.join();
+
+        // then
+        assertEquals("board", taken.get());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldStopTaking_whenInterrupted() throws Exception {
+        // given
+        AtomicReference<String> taken = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                taken.set(mailbox.take());
+            } catch (InterruptedException e) {
+                taken.set("interrupted");
+            }
+        });
+        consumer.start();
+
+        // when
+        consumer.interrupt();
+        consumer.join();
+
+        // then
+        assertEquals("interrupted", taken.get());
+    }
+}
@@ -0,0 +1,201 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class SolvePipelineTest {
+
+    private SolvePipeline pipeline;
+
+    @After
+    public void after() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSolveLatestBoard_whenSolverIsSlow() throws Exception {
+        // given
+        List<String> solved = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = new SolvePipeline("solver", data -> {
+            started.countDown();
+            await(release);
+            solved.add(data);
+        });
+
+        // when
+        pipeline.submit("board1");
+        started.await();
+        // solver занят первой бордой, эти копятся в ящике
+        pipeline.submit("board2");
+        pipeline.submit("board3");
+        pipeline.submit("board4");
+        release.countDown();
+
+        // then
+        waitProcessed(2);
+        assertEquals("[board1, board4]", solved.toString());
+        assertEquals(4, pipeline.received());
+        assertEquals(2, pipeline.dropped());
+        assertEquals(2, pipeline.processed());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldSolveAllBoards_whenSolverIsFast() throws Exception {
+        // given
+        List<String> solved = new CopyOnWriteArrayList<>();
+        pipeline = new SolvePipeline("solver", solved::add);
+
+        // when
+        for (int i = 1; i <= 3; i++) {
+            pipeline.submit("board" + i);
+            waitProcessed(i);
+        }
+
+        // then
+        assertEquals("[board1, board2, board3]", solved.toString());
+        assertEquals(0, pipeline.dropped());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldContinue_whenSolverFails() throws Exception {
+        // given
+        List<String> solved = new CopyOnWriteArrayList<>();
+        pipeline = new SolvePipeline("solver", data -> {
+            if (data.equals("bad")) {
+                throw new IllegalStateException("Bad board");
+            }
+            solved.add(data);
+        });
+
+        // when
+        pipeline.submit("bad");
+        waitProcessed(1);
+        pipeline.submit("good");
+        waitProcessed(2);
+
+        // then
+        assertEquals("[good]", solved.toString());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldStopThread_whenClose() throws Exception {
+        // given
+        pipeline = new SolvePipeline("solver", data -> {});
+
+        // when
+        pipeline.close();
+
+        // then
+        while (pipeline.isAlive()) {
+            Thread.sleep(10);
+        }
+        assertEquals(false, pipeline.isAlive());
+    }
+
+    @Test(timeout = 30000)
+    public void shouldCountEveryBoard_underLoad() throws Exception {
+        // given
+        List<String> solved = new CopyOnWriteArrayList<>();
+        pipeline = new SolvePipeline("solver", solved::add);
+
+        // when
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            pipeline.submit("board" + i);
+        }
+
+        // then
+        // последняя борда всегда будет решена
+        while (!solved.contains("board" + (count - 1))) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, pipeline.received());
+        assertEquals(count, pipeline.dropped() + pipeline.processed());
+    }
+
+    private void waitProcessed(int count) throws InterruptedException {
+        while (pipeline.processed() < count) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldShareExecutor_betweenPipelines() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<String> solved = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        SolvePipeline first = new SolvePipeline(executor, data -> {
+            await(release);
+            solved.add(data);
+        });
+        pipeline = new SolvePipeline(executor, solved::add);
+
+        // when
+        first.submit("first1");
+        first.submit("first2");
+        first.submit("first3");
+        pipeline.submit("second1");
+        waitProcessed(1);
+
+        // then
+        // медленный бот не мешает другим
+        assertEquals("[second1]", solved.toString());
+
+        // when
+        release.countDown();
+        while (first.processed() + first.dropped() < 3) {
+            Thread.sleep(10);
+        }
+
+        // then
+        assertEquals(true, solved.contains("first3"));
+        assertEquals(3, first.received());
+        first.close();
+        executor.shutdownNow();
+    }
+}
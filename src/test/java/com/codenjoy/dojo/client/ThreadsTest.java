@@ -0,0 +1,101 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+public class ThreadsTest {
+
+    private boolean virtual = Threads.VIRTUAL;
+
+    @After
+    public void after() {
+        Threads.VIRTUAL = virtual;
+    }
+
+    private static boolean isJava21() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Test
+    public void shouldDetectVirtualThreads() {
+        // when then
+        assertEquals(isJava21(), Threads.isVirtualSupported());
+    }
+
+    @Test
+    public void shouldStartPlatformThread_whenVirtualIsOff() throws Exception {
+        // given
+        Threads.VIRTUAL = false;
+        AtomicReference<String> name = new AtomicReference<>();
+
+        // when
+        Thread thread = Threads.start("worker", () -> name.set(Thread.currentThread().getName()));
+        thread.join();
+
+        // then
+        assertEquals(false, Threads.isVirtual());
+        assertEquals("worker", name.get());
+        assertEquals(true, thread.isDaemon());
+    }
+
+    @Test
+    public void shouldStartThread_whenVirtualIsOn() throws Exception {
+        // given
+        Threads.VIRTUAL = true;
+        AtomicReference<String> name = new AtomicReference<>();
+
+        // when
+        Thread thread = Threads.start("worker", () -> name.set(Thread.currentThread().getName()));
+        thread.join();
+
+        // then
+        // на JDK < 21 остаются обычные потоки
+        assertEquals(isJava21(), Threads.isVirtual());
+        assertEquals("worker", name.get());
+        assertEquals(true, thread.isDaemon());
+    }
+
+    @Test
+    public void shouldRunTasks_perTaskExecutor() throws Exception {
+        // given
+        ExecutorService executor = Threads.perTask("task-");
+        AtomicReference<String> name = new AtomicReference<>();
+
+        // when
+        executor.submit(() -> name.set(Thread.currentThread().getName())).get();
+        executor.shutdown();
+
+        // then
+        assertEquals(true, executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals("task-1", name.get());
+    }
+}
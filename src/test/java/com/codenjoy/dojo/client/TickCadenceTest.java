@@ -0,0 +1,93 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TickCadenceTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void shouldUseExpectedPeriod_whenNotMeasured() {
+        // given
+        TickCadence cadence = new TickCadence(SECOND, 0.5);
+
+        // when
+        cadence.arrived(0);
+
+        // then
+        assertEquals(SECOND, cadence.period());
+        assertEquals(SECOND / 2 + 10, cadence.deadline(10).at());
+    }
+
+    @Test
+    public void shouldMeasurePeriod() {
+        // given
+        TickCadence cadence = new TickCadence(SECOND, 0.5);
+
+        // when
+        cadence.arrived(0);
+        cadence.arrived(SECOND / 2);
+
+        // then
+        assertEquals(SECOND / 2, cadence.period());
+    }
+
+    @Test
+    public void shouldSmoothPeriod() {
+        // given
+        TickCadence cadence = new TickCadence(SECOND, 0.5);
+        cadence.arrived(0);
+        cadence.arrived(SECOND);
+
+        // when
+        cadence.arrived(SECOND + SECOND / 2 + SECOND / 2);
+
+        // then
+        assertEquals(SECOND, cadence.period());
+
+        // when
+        cadence.arrived(2 * SECOND + SECOND / 2);
+
+        // then
+        assertEquals(SECOND - SECOND / 2 / 8, cadence.period());
+    }
+
+    @Test
+    public void shouldIgnoreLongPauses() {
+        // given
+        TickCadence cadence = new TickCadence(SECOND, 0.5);
+        cadence.arrived(0);
+        cadence.arrived(SECOND);
+
+        // when
+        cadence.arrived(SECOND + 100 * SECOND);
+
+        // then
+        assertEquals(SECOND + 3 * SECOND / 8, cadence.period());
+    }
+}
@@ -0,0 +1,98 @@
+package com.codenjoy.dojo.client;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.codenjoy.dojo.client.TickMetrics.Phase.*;
+import static org.junit.Assert.assertEquals;
+
+public class TickMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TickMetrics metrics = new TickMetrics();
+
+    @Test
+    public void shouldRecordPhases() {
+        // when
+        metrics.record(PARSE, 1_000_000);
+        metrics.record(SOLVE, 2_000_000);
+        metrics.record(SEND, 3_000_000);
+        metrics.record(TICK, 6_000_000);
+        metrics.drop();
+
+        // then
+        assertEquals(1, metrics.ticks());
+        assertEquals(1, metrics.dropped());
+        assertEquals(0, metrics.histogram(WAIT).count());
+        assertEquals(2_000_000, metrics.histogram(SOLVE).max());
+        assertEquals("Ticks: 1, dropped: 1\n" +
+                "WAIT  p50=0.000ms p99=0.000ms max=0.000ms\n" +
+                "PARSE p50=1.000ms p99=1.000ms max=1.000ms\n" +
+                "SOLVE p50=2.000ms p99=2.000ms max=2.000ms\n" +
+                "SEND  p50=3.000ms p99=3.000ms max=3.000ms\n" +
+                "TICK  p50=6.000ms p99=6.000ms max=6.000ms",
+                metrics.summary());
+    }
+
+    @Test
+    public void shouldReset() {
+        // given
+        metrics.record(TICK, 100);
+        metrics.drop();
+
+        // when
+        metrics.reset();
+
+        // then
+        assertEquals(0, metrics.ticks());
+        assertEquals(0, metrics.dropped());
+    }
+
+    @Test
+    public void shouldDumpToFile() throws Exception {
+        // given
+        metrics.record(SOLVE, 10);
+        metrics.record(TICK, 20);
+        Path file = folder.getRoot().toPath().resolve("metrics.txt");
+
+        // when
+        metrics.dump(file);
+
+        // then
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+                .replace("\r", "");
+        assertEquals(true, content.startsWith("Ticks: 1, dropped: 0\n"));
+        assertEquals(true, content.contains("# SOLVE (lowest_ns highest_ns count)\n10 10 1\n"));
+        assertEquals(true, content.contains("# TICK (lowest_ns highest_ns count)\n20 20 1\n"));
+    }
+}
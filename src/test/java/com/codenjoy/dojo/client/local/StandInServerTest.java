@@ -0,0 +1,221 @@
+package com.codenjoy.dojo.client.local;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.WebSocketRunner;
+import com.codenjoy.dojo.games.sample.Board;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+public class StandInServerTest {
+
+    private static final String BOARD1 =
+            "☼☼☼☼" +
+            "☼☺ ☼" +
+            "☼  ☼" +
+            "☼☼☼☼";
+
+    private static final String BOARD2 =
+            "☼☼☼☼" +
+            "☼  ☼" +
+            "☼ ☺☼" +
+            "☼☼☼☼";
+
+    private StandInServer server;
+    private WebSocketRunner client;
+    private List<String> received = new CopyOnWriteArrayList<>();
+    private boolean print;
+
+    @Before
+    public void before() {
+        print = WebSocketRunner.PRINT_TO_CONSOLE;
+        WebSocketRunner.PRINT_TO_CONSOLE = false;
+        server = new StandInServer(0, FrameSource.cycle(Arrays.asList(BOARD1, BOARD2))).start();
+    }
+
+    @After
+    public void after() {
+        if (client != null) {
+            client.close();
+        }
+        server.close();
+        WebSocketRunner.PRINT_TO_CONSOLE = print;
+    }
+
+    private void connect(String user) throws Exception {
+        client = WebSocketRunner.runClient(server.url(user, "secret"),
+                board -> {
+                    received.add(((Board) board).boardAsString());
+                    return "ACT" + received.size();
+                },
+                new Board());
+        server.awaitPlayers(1, 5000);
+    }
+
+    @Test(timeout = 20000)
+    public void shouldSendBoards_andCollectAnswers() throws Exception {
+        // given
+        connect("player1");
+
+        // when
+        server.tick();
+        assertEquals(true, server.awaitAnswers(5000));
+        server.tick();
+        assertEquals(true, server.awaitAnswers(5000));
+
+        // then
+        StandInServer.Player player = server.player("player1");
+        assertEquals("player1", player.user());
+        assertEquals("secret", player.code());
+        assertEquals("ACT2", player.answer());
+        assertEquals(2, player.latency().count());
+        assertEquals(0, player.missed());
+        assertEquals(2, server.ticks());
+        assertEquals("[☼☼☼☼\n" +
+                "☼☺ ☼\n" +
+                "☼  ☼\n" +
+                "☼☼☼☼\n, " +
+                "☼☼☼☼\n" +
+                "☼  ☼\n" +
+                "☼ ☺☼\n" +
+                "☼☼☼☼\n]", received.toString());
+    }
+
+    @Test(timeout = 20000)
+    public void shouldNotCountStaleAnswer_asAnswerOnNextTick() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        client = WebSocketRunner.runClient(server.url("player3", "secret"),
+                board -> {
+                    received.add(((Board) board).boardAsString());
+                    if (received.size() == 1) {
+                        await(release);
+                    }
+                    return "ACT" + received.size();
+                },
+                new Board());
+        server.awaitPlayers(1, 5000);
+        server.tick();
+        assertEquals(false, server.awaitAnswers(100));
+
+        // when
+        // ответ на первую борду придет уже после второй
+        server.tick();
+        release.countDown();
+
+        // then
+        assertEquals(true, server.awaitAnswers(5000));
+        StandInServer.Player player = server.player("player3");
+        assertEquals("ACT2", player.answer());
+        assertEquals(1, player.latency().count());
+        assertEquals(1, player.missed());
+    }
+
+    @Test(timeout = 20000)
+    public void shouldCountAnswer_onItsOwnTick_whenItComesBeforeNextBoardIsSent() throws Exception {
+        // given
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        server.close();
+        server = new StandInServer(0, (user, tick) -> {
+            if (tick == 1) {
+                // новый тик уже начат, а борда еще не отправлена - тут приходит ответ на прошлую
+                first.countDown();
+                while (server.player(user).latency().count() == 0) {
+                    Thread.yield();
+                }
+            }
+            return BOARD1;
+        }).start();
+        client = WebSocketRunner.runClient(server.url("player4", "secret"),
+                board -> {
+                    received.add(((Board) board).boardAsString());
+                    await(received.size() == 1 ? first : second);
+                    return "ACT" + received.size();
+                },
+                new Board());
+        server.awaitPlayers(1, 5000);
+        server.tick();
+
+        // when
+        server.tick();
+
+        // then
+        // ответ на первую борду не засчитан второму тику
+        assertEquals(false, server.awaitAnswers(100));
+
+        // when
+        second.countDown();
+
+        // then
+        assertEquals(true, server.awaitAnswers(5000));
+        StandInServer.Player player = server.player("player4");
+        assertEquals("ACT2", player.answer());
+        assertEquals(2, player.latency().count());
+        assertEquals(0, player.missed());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void shouldTickWithPeriod() throws Exception {
+        // given
+        connect("player2");
+
+        // when
+        server.startTicks(20);
+        while (server.player("player2").latency().count() < 5) {
+            Thread.sleep(10);
+        }
+        server.stopTicks();
+
+        // then
+        assertEquals(true, server.ticks() >= 5);
+        assertEquals(true, server.report().startsWith("Ticks: "));
+        assertEquals(true, server.report().contains("\nplayer2 "));
+    }
+
+    @Test(timeout = 20000)
+    public void shouldNotWait_whenNoPlayers() throws Exception {
+        // when
+        server.tick();
+
+        // then
+        assertEquals(true, server.awaitAnswers(0));
+    }
+}
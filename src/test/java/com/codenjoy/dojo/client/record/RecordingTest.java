@@ -0,0 +1,230 @@
+package com.codenjoy.dojo.client.record;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecordingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private Recording recording;
+    private int interval;
+
+    @Before
+    public void before() throws IOException {
+        file = folder.getRoot().toPath().resolve("game.rec");
+        interval = Recorder.KEYFRAME_INTERVAL;
+    }
+
+    @After
+    public void after() {
+        if (recording != null) {
+            recording.close();
+        }
+        Recorder.KEYFRAME_INTERVAL = interval;
+    }
+
+    private Recording write(List<String> boards) throws IOException {
+        Recorder recorder = new Recorder(file);
+        try {
+            for (int index = 0; index < boards.size(); index++) {
+                recorder.record(boards.get(index), "ACT" + index, 1000 + index);
+            }
+        } finally {
+            recorder.close();
+        }
+        return recording = Recording.open(file);
+    }
+
+    @Test
+    public void shouldReadLayerBoards() throws IOException {
+        // given
+        List<String> boards = Arrays.asList(
+                "☼☼☼☼☼☺ ☼☼  ☼☼☼☼☼",
+                "☼☼☼☼☼ ☺☼☼  ☼☼☼☼☼",
+                "☼☼☼☼☼  ☼☼ ☺☼☼☼☼☼");
+
+        // when
+        write(boards);
+
+        // then
+        assertEquals(3, recording.size());
+        for (int index = 0; index < boards.size(); index++) {
+            Recording.Tick tick = recording.tick(index);
+            assertEquals(boards.get(index), tick.board());
+            assertEquals("ACT" + index, tick.answer());
+            assertEquals(1000 + index, tick.time());
+        }
+    }
+
+    @Test
+    public void shouldReadJsonBoards() throws IOException {
+        // given
+        List<String> boards = Arrays.asList(
+                "{\"layers\":[\"abcd\",\"----\"],\"tick\":1,\"offset\":{\"x\":1,\"y\":2}}",
+                "{\"layers\":[\"abdd\",\"----\"],\"tick\":2,\"offset\":{\"x\":1,\"y\":2}}",
+                "{\"layers\":[\"abdd\",\"-☺--\"],\"tick\":2,\"offset\":{\"x\":1,\"y\":2}}");
+
+        // when
+        write(boards);
+
+        // then
+        for (int index = 0; index < boards.size(); index++) {
+            assertEquals(new JSONObject(boards.get(index)).toString(),
+                    new JSONObject(recording.tick(index).board()).toString());
+            assertEquals(new JSONObject(boards.get(index)).toString(),
+                    new JSONObject(recording.tick(index).frame()).toString());
+        }
+        assertEquals("[abdd, -☺--]", Arrays.toString(recording.tick(2).layers()));
+        assertEquals(2, new JSONObject(recording.tick(2).fields()).getInt("tick"));
+    }
+
+    @Test
+    public void shouldGlueFrame_whenOnlyLayers() throws IOException {
+        // given
+        write(Arrays.asList("{\"layers\":[\"a\\\"\\\\c\",\"----\"]}"));
+
+        // when
+        String frame = recording.tick(0).frame();
+
+        // then
+        assertEquals("{\"layers\":[\"a\\\"\\\\c\",\"----\"]}", frame);
+    }
+
+    @Test
+    public void shouldReadTextBoards() throws IOException {
+        // given
+        List<String> boards = Arrays.asList(
+                "{\"glass\":\"   \",\"next\":[\"I\"]}",
+                "{\"glass\":\" I \",\"next\":[\"O\"]}");
+
+        // when
+        write(boards);
+
+        // then
+        assertEquals(boards.get(0), recording.tick(0).board());
+        assertEquals(boards.get(1), recording.tick(1).board());
+    }
+
+    @Test
+    public void shouldWriteKeyframe_whenSizeChanged() throws IOException {
+        // given
+        List<String> boards = Arrays.asList(
+                "abcd",
+                "abce",
+                "abcdefghi",
+                "abcdefghj");
+
+        // when
+        write(boards);
+
+        // then
+        assertEquals("abcdefghi", recording.tick(2).board());
+        assertEquals("abce", recording.tick(1).board());
+        assertEquals("abcdefghj", recording.tick(3).board());
+    }
+
+    @Test
+    public void shouldRandomAccess_withKeyframes() throws IOException {
+        // given
+        Recorder.KEYFRAME_INTERVAL = 7;
+        Random random = new Random(42);
+        List<String> boards = new ArrayList<>();
+        char[] board = "☼☼☼☼☼☼☼☼☼☼☼      ☼☼ ☺    ☼☼      ☼☼      ☼☼☼☼☼☼☼☼☼☼☼".toCharArray();
+        for (int index = 0; index < 50; index++) {
+            board[random.nextInt(board.length)] = " ☺♥#".charAt(random.nextInt(4));
+            boards.add(new String(board));
+        }
+
+        // when
+        write(boards);
+
+        // then
+        for (int index : new int[]{49, 3, 0, 14, 15, 16, 8, 7, 48}) {
+            assertEquals(boards.get(index), recording.tick(index).board());
+        }
+        for (int index = 0; index < boards.size(); index++) {
+            assertEquals(boards.get(index), new String(recording.layers(index)[0]));
+        }
+    }
+
+    @Test
+    public void shouldBeCompact() throws IOException {
+        // given
+        List<String> boards = new ArrayList<>();
+        char[] board = new char[100 * 100];
+        Arrays.fill(board, ' ');
+        for (int index = 0; index < 100; index++) {
+            board[index * 7] = '☺';
+            boards.add(new String(board));
+        }
+
+        // when
+        write(boards);
+
+
+        // then
+        long raw = boards.stream().mapToLong(b -> b.getBytes().length).sum();
+        assertEquals(true, Files.size(file) * 50 < raw);
+    }
+
+    @Test
+    public void shouldSkipLastTick_whenNotFinished() throws IOException {
+        // given
+        write(Arrays.asList("abcd", "abce")).close();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+
+        // when
+        recording = Recording.open(file);
+
+        // then
+        assertEquals(1, recording.size());
+        assertEquals("abcd", recording.tick(0).board());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldThrow_whenNoTick() throws IOException {
+        write(Arrays.asList("abcd"));
+        recording.tick(1);
+    }
+}
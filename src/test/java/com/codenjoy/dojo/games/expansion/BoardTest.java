@@ -27,6 +27,7 @@ import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 
+import static com.codenjoy.dojo.services.PointImpl.pt;
 import static org.junit.Assert.assertEquals;
 
 public class BoardTest {
@@ -278,4 +279,112 @@ public class BoardTest {
         // when then
         assertEquals(true, board.isGameOver());
     }
+
+    @Test
+    public void shouldGetForcesGrid() {
+        // when
+        ForcesGrid grid = board.getForcesGrid();
+
+        // then
+        assertEquals(11, grid.count(2, 8));
+        assertEquals(0, grid.owner(2, 8));
+        assertEquals(true, grid.isMine(2, 8));
+        assertEquals(false, grid.isEnemy(2, 8));
+
+        assertEquals(14, grid.count(8, 1));
+        assertEquals(3, grid.owner(8, 1));
+        assertEquals(false, grid.isMine(8, 1));
+        assertEquals(true, grid.isEnemy(8, 1));
+
+        assertEquals(0, grid.count(1, 1));
+        assertEquals(ForcesGrid.NO_OWNER, grid.owner(1, 1));
+        assertEquals(false, grid.isEnemy(1, 1));
+        assertEquals(0, grid.count(-1, 20));
+
+        assertEquals(11, grid.total(0));
+        assertEquals(13, grid.total(2));
+    }
+
+    @Test
+    public void shouldGetOwner_sameAsColorOfForcesElement() {
+        // given
+        char[][] layer = {
+                {Element.FORCE1.ch(), Element.FORCE2.ch()},
+                {Element.FORCE3.ch(), Element.FORCE4.ch()},
+        };
+
+        // when
+        ForcesGrid grid = new ForcesGrid().build(2, "-=#-=#-=#-=#", layer, 0);
+
+        // then
+        for (int x = 0; x < 2; x++) {
+            for (int y = 0; y < 2; y++) {
+                Element force = ElementUtils.force(grid.owner(x, y));
+                assertEquals(layer[x][y], force.ch());
+            }
+        }
+    }
+
+    @Test
+    public void shouldGetForceAt() {
+        assertEquals("[7,1]=13", board.forceAt(pt(7, 1)).toString());
+        assertEquals(null, board.forceAt(pt(1, 1)));
+        assertEquals(12, board.getForcesCountAt(6, 1));
+    }
+
+    @Test
+    public void shouldRebuildForcesGrid_whenNewSource() {
+        // given
+        assertEquals(11, board.getForcesGrid().count(2, 8));
+        StringBuilder forces = new StringBuilder();
+        for (int cell = 0; cell < 11 * 11; cell++) {
+            // третья клетка третьей строки сверху
+            forces.append(cell == 2 * 11 + 2 ? "01Z" : "-=#");
+        }
+
+        // when
+        board.setSource(new JSONObject()
+                .put("myColor", 0)
+                .put("forces", forces.toString()));
+
+        // then
+        assertEquals(36 + 35, board.getForcesGrid().count(2, 8));
+        assertEquals("[[2,8]=71]", board.getMyForces().toString());
+        assertEquals("[]", board.getEnemyForces().toString());
+    }
+
+    @Test
+    public void shouldRebuildForcesGrid_whenSet() {
+        // given
+        JSONObject source = new JSONObject()
+                .put("myColor", 0)
+                .put("forces", forces(2, 8, "001"));
+        board.setSource(source);
+        assertEquals(1, board.getForcesGrid().count(2, 8));
+
+        // when
+        source.put("forces", forces(2, 8, "002"));
+        board.set(0, 0, board.getAt(0, 0).ch());
+
+        // then
+        assertEquals(2, board.getForcesGrid().count(2, 8));
+    }
+
+    private String forces(int x, int y, String count) {
+        StringBuilder result = new StringBuilder();
+        for (int cell = 0; cell < 11 * 11; cell++) {
+            // первая строка - верх поля
+            result.append(cell == (10 - y) * 11 + x ? count : "-=#");
+        }
+        return result.toString();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrow_whenForcesTooShort() {
+        // given
+        board.setSource(new JSONObject("{'myColor':0,'forces':'-=#'}"));
+
+        // when
+        board.getForcesGrid();
+    }
 }
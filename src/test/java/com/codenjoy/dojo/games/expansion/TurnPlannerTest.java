@@ -0,0 +1,184 @@
+package com.codenjoy.dojo.games.expansion;
+
+
+/*-
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.client.Deadline;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.codenjoy.dojo.games.expansion.BoardTest.board;
+import static org.junit.Assert.assertEquals;
+
+public class TurnPlannerTest {
+
+    private TurnPlanner planner = new TurnPlanner(2);
+
+    @After
+    public void after() {
+        planner.close();
+    }
+
+    // поле 5x5, внутри 3x3 клетки, силы задаются по строкам сверху вниз
+    private Board field(int available, String... forces) {
+        return board("{'myColor':0," +
+                        "'available':" + available + "," +
+                        "'forces':'" + String.join("", forces) + "'}",
+                "╔═══┐" +
+                "║...│" +
+                "║...│" +
+                "║...│" +
+                "└───┘",
+                "-----" +
+                "-♥---" +
+                "--♦--" +
+                "-----" +
+                "-----");
+    }
+
+    private static final String NONE = "-=#";
+
+    private Board myAndEnemy(int available, String my, String enemy) {
+        return field(available,
+                NONE, NONE, NONE, NONE, NONE,
+                NONE, my, NONE, NONE, NONE,
+                NONE, NONE, enemy, NONE, NONE,
+                NONE, NONE, NONE, NONE, NONE,
+                NONE, NONE, NONE, NONE, NONE);
+    }
+
+    private static Deadline enough() {
+        return Deadline.in(TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    public void shouldDoNothing_whenNoMyForces() {
+        // given
+        Board board = field(10,
+                NONE, NONE, NONE, NONE, NONE,
+                NONE, NONE, NONE, NONE, NONE,
+                NONE, NONE, "005", NONE, NONE,
+                NONE, NONE, NONE, NONE, NONE,
+                NONE, NONE, NONE, NONE, NONE);
+
+        // when
+        Command command = planner.plan(board, enough(), 100);
+
+        // then
+        assertEquals("", command.toString());
+        assertEquals(0, planner.evaluated());
+    }
+
+    @Test
+    public void shouldEvaluateGreedyCandidate_whenDeadlineExpired() {
+        // given
+        Board board = myAndEnemy(7, "002", "009");
+
+        // when
+        Command command = planner.plan(board, Deadline.in(0), 10_000);
+
+        // then
+        assertEquals(1, planner.evaluated());
+        assertEquals("{\"movements\":[],\"increase\":[{\"count\":7,\"region\":{\"x\":1,\"y\":3}}]}",
+                command.toString());
+    }
+
+    @Test
+    public void shouldEvaluateGreedyCandidate_whenNoCandidates() {
+        // given
+        Board board = myAndEnemy(7, "002", "009");
+
+        // when
+        Command command = planner.plan(board, enough(), 0);
+
+        // then
+        assertEquals(1, planner.evaluated());
+        assertEquals("{\"movements\":[],\"increase\":[{\"count\":7,\"region\":{\"x\":1,\"y\":3}}]}",
+                command.toString());
+
+        // when
+        planner.plan(board, enough(), -5);
+
+        // then
+        assertEquals(1, planner.evaluated());
+    }
+
+    @Test
+    public void shouldEvaluateAllCandidates_whenTimeIsEnough() {
+        // when
+        planner.plan(myAndEnemy(3, "00A", "002"), enough(), 1000);
+
+        // then
+        assertEquals(1000, planner.evaluated());
+    }
+
+    @Test
+    public void shouldBeNotWorseThanGreedy() {
+        // given
+        Board board = myAndEnemy(3, "00A", "002");
+        planner.plan(board, Deadline.in(0), 1000);
+        long greedy = planner.score();
+
+        // when
+        planner.plan(board, enough(), 1000);
+
+        // then
+        assertEquals(true, planner.score() >= greedy);
+    }
+
+    @Test
+    public void shouldCaptureWeakEnemy() {
+        // given
+        Board board = myAndEnemy(0, "00A", "001");
+
+        // when
+        Command command = planner.plan(board, enough(), 5000);
+
+        // then
+        assertEquals(true, command.toString().contains("\"direction\":\"RIGHT_DOWN\""));
+    }
+
+    @Test
+    public void shouldPlanSame_whenSameSeed() {
+        // given
+        Board board = myAndEnemy(5, "00A", "003");
+        TurnPlanner other = new TurnPlanner(1);
+        try {
+            planner.setSeed(42);
+            other.setSeed(42);
+
+            // when
+            String first = planner.plan(board, enough(), 2000).toString();
+            String second = other.plan(board, enough(), 2000).toString();
+
+            // then
+            assertEquals(first, second);
+            assertEquals(planner.score(), other.score());
+        } finally {
+            other.close();
+        }
+    }
+}
@@ -179,6 +179,60 @@ public class BoardTest {
         assertEquals(true, board.isBarrierAt(6, 1));
     }
 
+    @Test
+    public void shouldGetMe_whenFlying() {
+        // given
+        board = board(
+                "╔══┐" +
+                "║..│" +
+                "║..│" +
+                "└──┘",
+                "----" +
+                "----" +
+                "----" +
+                "----",
+                "----" +
+                "----" +
+                "--*-" +
+                "----");
+
+        // when then
+        assertEquals("[2,1]", board.getHero().toString());
+    }
+
+    @Test
+    public void shouldGetMe_whenNoRobot() {
+        // given
+        board = board(
+                "╔══┐" +
+                "║..│" +
+                "║..│" +
+                "└──┘",
+                "----" +
+                "----" +
+                "----" +
+                "----",
+                "----" +
+                "----" +
+                "----" +
+                "----");
+
+        // when then
+        assertEquals(null, board.getHero());
+    }
+
+    @Test
+    public void shouldRebuildHazardMap_whenSet() {
+        // given
+        assertEquals(true, board.getHazardMap().isHole(3, 3));
+
+        // when
+        board.set(3, 3, Element.FLOOR.ch());
+
+        // then
+        assertEquals(false, board.getHazardMap().isHole(3, 3));
+    }
+
     @Test
     public void shouldNotBeGameOver() {
         assertEquals(true, board.isMeAlive());
@@ -0,0 +1,136 @@
+package com.codenjoy.dojo.games.icancode;
+
+
+/*-
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.codenjoy.dojo.games.icancode.BoardTest.board;
+import static com.codenjoy.dojo.games.icancode.HazardMap.NEVER;
+import static org.junit.Assert.assertEquals;
+
+public class HazardMapTest {
+
+    private HazardMap map;
+
+    @Before
+    public void before() {
+        map = board(
+                "╔═════┐" +
+                "║►....│" +
+                "║.....│" +
+                "║..O..│" +
+                "║.....│" +
+                "║˄....│" +
+                "└─────┘",
+
+                "-------" +
+                "-------" +
+                "---←---" +
+                "-------" +
+                "-----♂-" +
+                "---B---" +
+                "-------",
+
+                "-------" +
+                "-------" +
+                "-------" +
+                "-------" +
+                "-------" +
+                "-------" +
+                "-------").getHazardMap();
+    }
+
+    @Test
+    public void shouldGetBarriers() {
+        assertEquals(true, map.isBarrier(0, 0));
+        assertEquals(true, map.isBarrier(-1, 3));
+        assertEquals(true, map.isBarrier(1, 5)); // лазерная машина
+        assertEquals(true, map.isBarrier(3, 1)); // ящик
+        assertEquals(true, map.isBarrier(5, 2)); // зомби
+
+        assertEquals(false, map.isBarrier(3, 4)); // лазер
+        assertEquals(false, map.isBarrier(3, 3)); // дыра
+        assertEquals(false, map.isBarrier(2, 2));
+    }
+
+    @Test
+    public void shouldGetHoles() {
+        assertEquals(true, map.isHole(3, 3));
+        assertEquals(false, map.isHole(2, 3));
+        assertEquals(false, map.isHole(7, 3));
+    }
+
+    @Test
+    public void shouldMoveLaser() {
+        assertEquals(true, map.isLaser(3, 4, 0));
+        assertEquals(true, map.isLaser(2, 4, 1));
+        assertEquals(true, map.isLaser(1, 4, 2));
+
+        assertEquals(false, map.isLaser(2, 4, 0));
+        assertEquals(false, map.isLaser(2, 4, 2));
+        assertEquals(false, map.isLaser(4, 4, 1));
+    }
+
+    @Test
+    public void shouldShoot_whenMachineReady() {
+        assertEquals(true, map.isLaser(2, 5, 1));
+        assertEquals(true, map.isLaser(5, 5, 4));
+        assertEquals(false, map.isLaser(5, 5, 3));
+        assertEquals(false, map.isLaser(6, 5, 5)); // стена
+
+        assertEquals(1, map.rayAt(2, 5));
+        assertEquals(4, map.rayAt(5, 5));
+    }
+
+    @Test
+    public void shouldNotShoot_whenMachineCharging() {
+        assertEquals(false, map.isLaser(1, 2, 2));
+
+        assertEquals(2, map.rayAt(1, 2));
+        assertEquals(4, map.rayAt(1, 4));
+        assertEquals(NEVER, map.rayAt(1, 5)); // вторая машина останавливает луч
+        assertEquals(NEVER, map.rayAt(2, 2));
+    }
+
+    @Test
+    public void shouldGetZombieReach() {
+        assertEquals(0, map.zombieAt(5, 2));
+        assertEquals(1, map.zombieAt(4, 2));
+        assertEquals(1, map.zombieAt(5, 1));
+        assertEquals(2, map.zombieAt(3, 2));
+        assertEquals(3, map.zombieAt(3, 3)); // через дыру
+        assertEquals(NEVER, map.zombieAt(3, 1)); // ящик
+        assertEquals(NEVER, map.zombieAt(0, 0));
+    }
+
+    @Test
+    public void shouldGetHazard() {
+        assertEquals(true, map.isHazard(2, 4, 1)); // лазер
+        assertEquals(false, map.isHazard(2, 4, 2));
+        assertEquals(true, map.isHazard(2, 4, 5)); // зомби дошел
+        assertEquals(false, map.isHazard(1, 2, 2)); // луч заряжающейся машины
+    }
+}
@@ -0,0 +1,210 @@
+package com.codenjoy.dojo.games.mollymage;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static com.codenjoy.dojo.games.mollymage.BoardTest.board;
+import static com.codenjoy.dojo.services.PointImpl.pt;
+import static org.junit.Assert.assertEquals;
+
+public class BlastTimelineTest {
+
+    private Board board;
+
+    // earliest тик когда клетка горит, '.' - не горит
+    private String timeline() {
+        BlastTimeline timeline = board.getBlastTimeline();
+        StringBuilder result = new StringBuilder();
+        for (int y = board.size() - 1; y >= 0; y--) {
+            for (int x = 0; x < board.size(); x++) {
+                int tick = timeline.at(x, y);
+                result.append(tick == BlastTimeline.NEVER ? '.' : (char) ('0' + tick));
+            }
+            result.append('\n');
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void shouldBurn_whenTimerRunsOut() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼  2  ☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼☼☼☼☼☼☼");
+
+        // then
+        assertEquals(
+                ".......\n" +
+                "...2...\n" +
+                "...2...\n" +
+                ".22222.\n" +
+                "...2...\n" +
+                "...2...\n" +
+                ".......\n",
+                timeline());
+    }
+
+    @Test
+    public void shouldStopAtBarriers() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼☼☼☼" +
+                "☼       ☼" +
+                "☼   ☼   ☼" +
+                "☼       ☼" +
+                "☼#  1 & ☼" +
+                "☼       ☼" +
+                "☼   ♥   ☼" +
+                "☼       ☼" +
+                "☼☼☼☼☼☼☼☼☼");
+
+        // then
+        assertEquals(
+                ".........\n" +
+                ".........\n" +
+                ".........\n" +
+                "....1....\n" +
+                ".111111..\n" +
+                "....1....\n" +
+                "....1....\n" +
+                ".........\n" +
+                ".........\n",
+                timeline());
+    }
+
+    @Test
+    public void shouldExplodeChain() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼☼☼☼" +
+                "☼1  5   ☼" +
+                "☼ ☼  ☼  ☼" +
+                "☼       ☼" +
+                "☼   4  3☼" +
+                "☼       ☼" +
+                "☼ 3     ☼" +
+                "☼       ☼" +
+                "☼☼☼☼☼☼☼☼☼");
+
+        // then
+        assertEquals(
+                ".........\n" +
+                ".1111111.\n" +
+                ".1..1..1.\n" +
+                ".13.1..1.\n" +
+                ".1111111.\n" +
+                "..3.1..1.\n" +
+                ".33313.1.\n" +
+                "..3.1..1.\n" +
+                ".........\n",
+                timeline());
+
+        BlastTimeline timeline = board.getBlastTimeline();
+        assertEquals(1, timeline.explodesAt(pt(4, 7)));
+        assertEquals(1, timeline.explodesAt(pt(4, 4)));
+        assertEquals(1, timeline.explodesAt(pt(7, 4)));
+        assertEquals(3, timeline.explodesAt(pt(2, 2)));
+        assertEquals(BlastTimeline.NEVER, timeline.explodesAt(pt(3, 3)));
+    }
+
+    @Test
+    public void shouldBurnSeveralTimes() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼☼" +
+                "☼1    ☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼   4 ☼" +
+                "☼     ☼" +
+                "☼☼☼☼☼☼☼");
+
+        // when
+        BlastTimeline timeline = board.getBlastTimeline();
+
+        // then
+        assertEquals(1, timeline.at(4, 5));
+        assertEquals(true, timeline.isBurning(4, 5, 1));
+        assertEquals(false, timeline.isBurning(4, 5, 2));
+        assertEquals(true, timeline.isBurning(4, 5, 4));
+        assertEquals(4, timeline.at(4, 4));
+        assertEquals(4, timeline.explodesAt(4, 2));
+
+        assertEquals(BlastTimeline.NEVER, timeline.at(3, 3));
+        assertEquals(BlastTimeline.NEVER, timeline.at(-1, 2));
+        assertEquals(false, timeline.isBurning(10, 2, 1));
+    }
+
+    @Test
+    public void shouldShowBlastsNow_andHeroPotionsAsLatest() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼" +
+                "☼҉   ☼" +
+                "☼    ☼" +
+                "☼  ☻ ☼" +
+                "☼    ☼" +
+                "☼☼☼☼☼☼");
+
+        // then
+        assertEquals(
+                "......\n" +
+                ".0.5..\n" +
+                "...5..\n" +
+                ".5555.\n" +
+                "...5..\n" +
+                "......\n",
+                timeline());
+    }
+
+    @Test
+    public void shouldRebuild_whenNewTick() {
+        // given
+        board = board(
+                "☼☼☼☼☼" +
+                "☼ 1 ☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼");
+        assertEquals(true, board.isFutureBlastAt(pt(2, 1), 1));
+
+        // when
+        board.forString(
+                "☼☼☼☼☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼ 2 ☼" +
+                "☼☼☼☼☼");
+
+        // then
+        assertEquals(false, board.isFutureBlastAt(pt(2, 1), 1));
+        assertEquals(true, board.isFutureBlastAt(pt(2, 3), 2));
+    }
+}
@@ -268,6 +268,51 @@ public class BoardTest {
         assertEquals(false, board.isFutureBlastAt(pt(2, 8)));
     }
 
+    @Test
+    public void shouldWork_isFutureBlastAt_sameAsGetFutureBlasts() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼☼☼" +
+                "☼1  #  ☼" +
+                "☼ ☼ 1  ☼" +
+                "☼   ☺ 2☼" +
+                "☼1   1 ☼" +
+                "☼ ♥    ☼" +
+                "☼    3 ☼" +
+                "☼☼☼☼☼☼☼☼");
+
+        // when
+        List<Point> blasts = board.getFutureBlasts();
+
+        // then
+        for (int x = -1; x <= board.size(); x++) {
+            for (int y = -1; y <= board.size(); y++) {
+                assertEquals("[" + x + "," + y + "]",
+                        blasts.contains(pt(x, y)),
+                        board.isFutureBlastAt(pt(x, y)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldWork_isFutureBlastAt_withTick_includesChainReaction() {
+        // given
+        board = board(
+                "☼☼☼☼☼☼☼" +
+                "☼     ☼" +
+                "☼ 1 5 ☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼☼☼☼☼☼☼");
+
+        // when then
+        // зелье с таймером 5 взрывается цепной реакцией на следующем тике
+        assertEquals(false, board.isFutureBlastAt(pt(4, 3)));
+        assertEquals(true, board.isFutureBlastAt(pt(4, 3), 1));
+        assertEquals(false, board.getFutureBlasts().contains(pt(4, 3)));
+    }
+
     @Test
     public void shouldWork_getGhosts() {
         assertEquals("[[1,1], [1,2], [3,1], [5,6]]",
@@ -0,0 +1,92 @@
+package com.codenjoy.dojo.games.rawelbbub;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TorpedoHazardTest {
+
+    private Board board(String boardString) {
+        return (Board) new Board().forString(boardString);
+    }
+
+    @Test
+    public void shouldMarkTorpedoPath() {
+        // given
+        Board board = board(
+                "☼☼☼☼☼☼☼" +
+                "☼     ☼" +
+                "☼ ×   ☼" +
+                "☼     ☼" +
+                "☼  ~ •☼" +
+                "☼ ╬   ☼" +
+                "☼☼☼☼☼☼☼");
+
+        // when
+        TorpedoHazard hazard = board.getTorpedoHazard();
+
+        // then
+        // торпеда вниз останавливается у айсберга
+        assertEquals(true, hazard.isHazard(2, 4, 0));
+        assertEquals(true, hazard.isHazard(2, 3, 1));
+        assertEquals(true, hazard.isHazard(2, 2, 1));
+        assertEquals(false, hazard.isHazard(2, 3, 2));
+        assertEquals(false, hazard.isHazard(2, 1, 2));
+
+        // торпеда влево проходит над сетью и останавливается у рифа
+        assertEquals(true, hazard.isHazard(4, 2, 1));
+        assertEquals(true, hazard.isHazard(3, 2, 1));
+        assertEquals(true, hazard.isHazard(2, 2, 2));
+        assertEquals(true, hazard.isHazard(1, 2, 2));
+        assertEquals(false, hazard.isHazard(0, 2, 3));
+
+        assertEquals(false, hazard.isHazard(4, 4, 1));
+        assertEquals(false, hazard.isHazard(-1, 2, 1));
+    }
+
+    @Test
+    public void shouldRebuild_whenNewTick() {
+        // given
+        Board board = board(
+                "☼☼☼☼☼" +
+                "☼ ¤ ☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼");
+        assertEquals(true, board.getTorpedoHazard().isHazard(3, 3, 1));
+
+        // when
+        board.forString(
+                "☼☼☼☼☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼   ☼" +
+                "☼☼☼☼☼");
+
+        // then
+        assertEquals(false, board.getTorpedoHazard().isHazard(3, 3, 1));
+    }
+}
@@ -0,0 +1,239 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PointBitSetTest {
+
+    @Test
+    public void shouldAddAndRemove() {
+        // given
+        PointBitSet set = new PointBitSet(5);
+
+        // when
+        assertEquals(true, set.add(1, 2));
+        assertEquals(false, set.add(1, 2));
+        assertEquals(true, set.add(pt(4, 4)));
+        assertEquals(false, set.add(5, 1));
+
+        // then
+        assertEquals(2, set.size());
+        assertEquals(true, set.contains(1, 2));
+        assertEquals(true, set.contains(pt(4, 4)));
+        assertEquals(false, set.contains(2, 1));
+        assertEquals(false, set.contains(-1, 0));
+
+        // when
+        assertEquals(true, set.remove(1, 2));
+        assertEquals(false, set.remove(1, 2));
+
+        // then
+        assertEquals(1, set.size());
+        assertEquals(false, set.contains(1, 2));
+        assertEquals("[[4,4]]", set.toString());
+    }
+
+    @Test
+    public void shouldIterate_inCellIdOrder() {
+        // given
+        PointBitSet set = new PointBitSet(100);
+        set.add(99, 0);
+        set.add(0, 99);
+        set.add(50, 50);
+
+        // when
+        StringBuilder result = new StringBuilder();
+        set.forEach((x, y) -> result.append(String.format("[%s,%s]", x, y)));
+
+        // then
+        assertEquals("[0,99][50,50][99,0]", result.toString());
+    }
+
+    @Test
+    public void shouldIterate_byNext() {
+        // given
+        PointBitSet set = new PointBitSet(10);
+        set.add(63);
+        set.add(64);
+        set.add(99);
+
+        // when
+        StringBuilder result = new StringBuilder();
+        for (int id = set.next(0); id != -1; id = set.next(id + 1)) {
+            result.append(id).append(' ');
+        }
+
+        // then
+        assertEquals("63 64 99 ", result.toString());
+        assertEquals(-1, set.next(100));
+        assertEquals(-1, new PointBitSet(10).next(0));
+    }
+
+    @Test
+    public void shouldAddAll() {
+        // given
+        PointBitSet set = new PointBitSet(5);
+        set.add(1, 1);
+
+        PointBitSet other = new PointBitSet(5);
+        other.add(1, 1);
+        other.add(2, 2);
+
+        IntPointList list = new IntPointList(5);
+        list.add(3, 3);
+        list.add(3, 3);
+
+        // when
+        set.addAll(other);
+        set.addAll(list);
+
+        // then
+        assertEquals(3, set.size());
+        assertEquals("[[3,3], [2,2], [1,1]]", set.toString());
+
+        // when
+        set.clear();
+
+        // then
+        assertEquals(true, set.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrow_whenAddAllFromOtherBoardSize() {
+        // given
+        PointBitSet set = new PointBitSet(5);
+        PointBitSet other = new PointBitSet(9);
+        other.add(8, 8);
+
+        // when
+        set.addAll(other);
+    }
+
+    @Test
+    public void shouldNotAdd_intPointList_whenOutOfBoard() {
+        // given
+        IntPointList list = new IntPointList(3);
+
+        // when then
+        assertEquals(false, list.add(3, 0));
+        assertEquals(false, list.add(-1, 1));
+        assertEquals(false, list.add(0, 3));
+        assertEquals(true, list.add(2, 2));
+
+        // then
+        assertEquals(1, list.size());
+        assertEquals("[[2,2]]", list.toString());
+    }
+
+    @Test
+    public void shouldWork_intPointList() {
+        // given
+        IntPointList list = new IntPointList(3);
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            list.add(i % 3, i / 3 % 3);
+        }
+
+        // then
+        assertEquals(20, list.size());
+        assertEquals(2, list.x(5));
+        assertEquals(1, list.y(5));
+        assertEquals(true, list.contains(2, 1));
+        assertEquals(false, list.contains(3, 1));
+        assertEquals(5, list.indexOf(new LengthToXY(3).length(2, 1)));
+        assertEquals("[[0,0], [1,0], [2,0]]", subList(list, 3));
+
+        // when
+        list.clear();
+
+        // then
+        assertEquals(true, list.isEmpty());
+        assertEquals("[]", list.toString());
+    }
+
+    private String subList(IntPointList list, int count) {
+        return list.points().subList(0, count).toString();
+    }
+
+    @Test
+    public void shouldWork_intPointMap() {
+        // given
+        IntPointMap map = new IntPointMap(4, -1);
+
+        // when
+        assertEquals(-1, map.put(1, 2, 10));
+        assertEquals(10, map.put(1, 2, 11));
+        map.put(3, 0, 5);
+
+        // then
+        assertEquals(2, map.size());
+        assertEquals(11, map.get(1, 2));
+        assertEquals(5, map.get(3, 0));
+        assertEquals(-1, map.get(0, 0));
+        assertEquals(-1, map.get(4, 0));
+        assertEquals(true, map.containsKey(1, 2));
+        assertEquals(false, map.containsKey(0, 0));
+        assertEquals("{[1,2]=11, [3,0]=5}", map.toString());
+
+        // when
+        assertEquals(11, map.remove(1, 2));
+
+        // then
+        assertEquals(1, map.size());
+        assertEquals(-1, map.get(1, 2));
+
+        // when
+        map.clear();
+
+        // then
+        assertEquals(true, map.isEmpty());
+        assertEquals(-1, map.get(3, 0));
+    }
+
+    @Test
+    public void shouldNotChangeMap_whenChangeKeys() {
+        // given
+        IntPointMap map = new IntPointMap(4, -1);
+        map.put(1, 2, 10);
+
+        // when
+        PointBitSet keys = map.keys();
+        keys.add(0, 0);
+        keys.remove(1, 2);
+
+        // then
+        assertEquals(1, map.size());
+        assertEquals(true, map.containsKey(1, 2));
+        assertEquals(false, map.containsKey(0, 0));
+        assertEquals("[[1,2]]", map.keys().toString());
+    }
+
+    private Point pt(int x, int y) {
+        return new PointImpl(x, y);
+    }
+}
@@ -0,0 +1,188 @@
+package com.codenjoy.dojo.services;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PointPoolTest {
+
+    @Test
+    public void shouldCacheInBoundsPoints() {
+        // given
+        PointPool.reserve(10);
+
+        // when then
+        assertSame(PointPool.pt(3, 4), PointPool.pt(3, 4));
+        assertSame(PointPool.pt(0, 0), PointPool.pt(0, 0));
+        assertSame(PointPool.pt(9, 9), PointPool.pt(9, 9));
+    }
+
+    @Test
+    public void shouldNotCacheOutOfBoundsPoints() {
+        // given
+        PointPool.reserve(10);
+
+        // when then
+        assertNotSame(PointPool.pt(-1, 4), PointPool.pt(-1, 4));
+        assertNotSame(PointPool.pt(3, PointPool.MAX_SIZE), PointPool.pt(3, PointPool.MAX_SIZE));
+        assertEquals(PointPool.pt(-1, 4), PointPool.pt(-1, 4));
+    }
+
+    @Test
+    public void shouldKeepInstances_whenGrow() {
+        // given
+        PointPool.reserve(5);
+        Point pt = PointPool.pt(2, 3);
+
+        // when
+        PointPool.reserve(PointPool.size() + 10);
+
+        // then
+        assertSame(pt, PointPool.pt(2, 3));
+    }
+
+    @Test
+    public void shouldLimitSize() {
+        // when
+        PointPool.reserve(PointPool.MAX_SIZE * 2);
+
+        // then
+        assertEquals(PointPool.MAX_SIZE, PointPool.size());
+    }
+
+    @Test
+    public void shouldBeEqualToPointImpl() {
+        // given
+        Point immutable = PointPool.pt(3, 4);
+        Point mutable = PointImpl.pt(3, 4);
+
+        // when then
+        assertEquals(immutable, mutable);
+        assertEquals(mutable, immutable);
+        assertEquals(mutable.hashCode(), immutable.hashCode());
+        assertEquals(0, immutable.compareTo(mutable));
+        assertEquals("[3,4]", immutable.toString());
+
+        Set<Point> set = new HashSet<>();
+        set.add(mutable);
+        assertTrue(set.contains(immutable));
+    }
+
+    @Test
+    public void shouldBeImmutable() {
+        // given
+        Point pt = PointPool.pt(3, 4);
+
+        // when
+        try {
+            pt.move(1, 2);
+            fail("Expected exception");
+        } catch (UnsupportedOperationException e) {
+            // then
+            assertEquals("Point [3,4] is immutable, please use copy()", e.getMessage());
+        }
+        assertEquals("[3,4]", pt.toString());
+    }
+
+    @Test
+    public void shouldCopyToMutable() {
+        // given
+        Point pt = PointPool.pt(3, 4);
+
+        // when
+        Point copy = pt.copy();
+        copy.move(Direction.UP);
+
+        // then
+        assertEquals("[3,4]", pt.toString());
+        assertEquals("[3,5]", copy.toString());
+    }
+
+    @Test
+    public void shouldCalculate() {
+        // given
+        Point pt = PointPool.pt(3, 4);
+
+        // when then
+        assertEquals(Direction.RIGHT, pt.direction(PointPool.pt(4, 4)));
+        assertEquals(null, pt.direction(PointPool.pt(5, 4)));
+        assertEquals("[2,3]", pt.relative(PointImpl.pt(1, 1)).toString());
+        assertEquals(5.0, pt.distance(PointPool.pt(0, 0)), 0.001);
+        assertEquals(false, pt.isOutOf(5));
+        assertEquals(true, pt.isOutOf(4));
+    }
+
+    @Test
+    public void shouldReturnMutablePoints_fromExistingApis() {
+        // given
+        PointPool.reserve(10);
+        Point changed = Direction.UP.change(PointPool.pt(3, 4));
+        Point changedQ = QDirection.RIGHT_UP.change(PointPool.pt(3, 4));
+        Point point = new LengthToXY(10).point(0);
+
+        // when
+        changed.move(0, 0);
+        changedQ.move(1, 1);
+        point.move(2, 2);
+
+        // then
+        assertEquals("[0,0]", changed.toString());
+        assertEquals("[1,1]", changedQ.toString());
+        assertEquals("[2,2]", point.toString());
+    }
+
+    @Test
+    public void shouldNotReserve_whenCreateLengthToXY() {
+        // given
+        int before = PointPool.size();
+
+        // when
+        new LengthToXY(before + 10);
+        new PointBitSet(before + 10);
+
+        // then
+        assertEquals(before, PointPool.size());
+    }
+
+    @Test
+    public void shouldReserve_whenGetPointsOfBitSet() {
+        // given
+        int size = Math.min(PointPool.size() + 10, PointPool.MAX_SIZE);
+        PointBitSet set = new PointBitSet(size);
+        set.add(size - 1, size - 1);
+
+        // when
+        List<Point> points = set.points();
+
+        // then
+        assertEquals(true, PointPool.size() >= size);
+        assertSame(points.get(0), PointPool.pt(size - 1, size - 1));
+    }
+}
@@ -0,0 +1,282 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.PointBitSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DistanceCacheTest {
+
+    private DistanceCache cache = new DistanceCache(1024 * 1024);
+    private String map;
+    private int size;
+    private int walls;
+
+    // первая строка карты - верх поля (y = size - 1)
+    private void givenMap(String map) {
+        this.map = map;
+        this.size = (int) Math.sqrt(map.length());
+        this.walls = cache.profile(is('#'));
+    }
+
+    private IntIntPredicate is(char ch) {
+        return (x, y) -> map.charAt(new LengthToXY(size).length(x, y)) == ch;
+    }
+
+    private PointBitSet all(char ch) {
+        PointBitSet result = new PointBitSet(size);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (is(ch).test(x, y)) {
+                    result.add(x, y);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void shouldBuildFieldOnce_perSource() {
+        // given
+        givenMap("#####" +
+                 "#   #" +
+                 "# # #" +
+                 "#   #" +
+                 "#####");
+
+        // when
+        int first = cache.distance(size, walls, 1, 1, 3, 3);
+        int second = cache.distance(size, walls, 1, 1, 3, 1);
+        int third = cache.distance(size, walls, 1, 1, 2, 2);
+
+        // then
+        assertEquals(4, first);
+        assertEquals(2, second);
+        assertEquals(DistanceCache.UNREACHABLE, third);
+        assertEquals(1, cache.misses());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.fields());
+    }
+
+    @Test
+    public void shouldUseFieldFromTarget_becauseMovesAreReversible() {
+        // given
+        givenMap("#####" +
+                 "#   #" +
+                 "# # #" +
+                 "#   #" +
+                 "#####");
+        cache.distance(size, walls, 1, 1, 3, 3);
+
+        // when
+        int distance = cache.distance(size, walls, 3, 3, 1, 1);
+
+        // then
+        assertEquals(4, distance);
+        assertEquals(1, cache.fields());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void shouldNotUseFieldFromTarget_whenEndpointIsBarrier() {
+        // given
+        givenMap("#####" +
+                 "#P  #" +
+                 "#   #" +
+                 "#   #" +
+                 "#####");
+        int potions = cache.profile((x, y) -> is('#').test(x, y) || is('P').test(x, y));
+
+        // when
+        // с зелья уйти можно, а прийти на него нельзя
+        int toPotion = cache.distance(size, potions, 3, 1, 1, 3);
+        int fromPotion = cache.distance(size, potions, 1, 3, 3, 1);
+        int toPotionAgain = cache.distance(size, potions, 3, 1, 1, 3);
+
+        // then
+        assertEquals(DistanceCache.UNREACHABLE, toPotion);
+        assertEquals(4, fromPotion);
+        assertEquals(DistanceCache.UNREACHABLE, toPotionAgain);
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void shouldNotDependOnOrder_whenEndpointIsBarrier() {
+        // given
+        givenMap("#####" +
+                 "#P  #" +
+                 "#   #" +
+                 "#   #" +
+                 "#####");
+        int potions = cache.profile((x, y) -> is('#').test(x, y) || is('P').test(x, y));
+
+        // when
+        int fromPotion = cache.distance(size, potions, 1, 3, 3, 1);
+        int toPotion = cache.distance(size, potions, 3, 1, 1, 3);
+
+        // then
+        assertEquals(4, fromPotion);
+        assertEquals(DistanceCache.UNREACHABLE, toPotion);
+    }
+
+    @Test
+    public void shouldSeparateProfiles() {
+        // given
+        givenMap("#####" +
+                 "#   #" +
+                 "# ~ #" +
+                 "#   #" +
+                 "#####");
+        int water = cache.profile((x, y) -> is('#').test(x, y) || is('~').test(x, y));
+
+        // when then
+        assertEquals(2, cache.distance(size, walls, 2, 1, 2, 3));
+        assertEquals(4, cache.distance(size, water, 2, 1, 2, 3));
+        assertEquals(2, cache.fields());
+    }
+
+    @Test
+    public void shouldInvalidate_andReuseArrays() {
+        // given
+        givenMap("#####" +
+                 "#   #" +
+                 "#   #" +
+                 "#   #" +
+                 "#####");
+        char[] field = cache.distances(size, walls, 1, 1);
+
+        // when
+        cache.invalidate();
+
+        // then
+        assertEquals(0, cache.fields());
+        assertEquals(0, cache.used());
+
+        // when
+        char[] next = cache.distances(size, walls, 3, 3);
+
+        // then
+        assertSame(field, next);
+        assertEquals(0, next[new LengthToXY(size).length(3, 3)]);
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed_whenBudgetExceeded() {
+        // given
+        givenMap("#####" +
+                 "#   #" +
+                 "#   #" +
+                 "#   #" +
+                 "#####");
+        // 25 клеток по 2 байта - влезает только два поля
+        cache = new DistanceCache(100);
+        walls = cache.profile(is('#'));
+
+        cache.distances(size, walls, 1, 1);
+        cache.distances(size, walls, 2, 2);
+        cache.distances(size, walls, 1, 1);
+
+        // when
+        cache.distances(size, walls, 3, 3);
+
+        // then
+        assertEquals(2, cache.fields());
+        assertEquals(100, cache.used());
+
+        // when
+        cache.distances(size, walls, 1, 1);
+
+        // then
+        assertEquals(3, cache.misses());
+
+        // when
+        cache.distances(size, walls, 2, 2);
+
+        // then
+        assertEquals(4, cache.misses());
+    }
+
+    @Test
+    public void shouldMoveToNearestTarget_byGradient() {
+        // given
+        givenMap("#######" +
+                 "#$    #" +
+                 "### # #" +
+                 "#   @ #" +
+                 "# ### #" +
+                 "#    $#" +
+                 "#######");
+        PointBitSet targets = all('$');
+
+        // when then
+        assertEquals(Direction.RIGHT, cache.next(size, walls, 4, 3, targets));
+        assertEquals(3, cache.distance(size, walls, 4, 3, targets));
+        assertEquals(Direction.DOWN, cache.next(size, walls, 5, 3, targets));
+        assertEquals(null, cache.next(size, walls, 5, 1, targets));
+        assertEquals(0, cache.distance(size, walls, 1, 5, targets));
+        assertEquals(1, cache.fields());
+    }
+
+    @Test
+    public void shouldNotMove_whenNoReachableTargets() {
+        // given
+        givenMap("#####" +
+                 "#$# #" +
+                 "### #" +
+                 "#  @#" +
+                 "#####");
+        PointBitSet targets = all('$');
+
+        // when then
+        assertEquals(null, cache.next(size, walls, 3, 1, targets));
+        assertEquals(DistanceCache.UNREACHABLE, cache.distance(size, walls, 3, 1, targets));
+    }
+
+    @Test
+    public void shouldDropAll_whenSizeChanged() {
+        // given
+        givenMap("###" +
+                 "# #" +
+                 "###");
+        cache.distances(size, walls, 1, 1);
+
+        // when
+        givenMap("####" +
+                 "#  #" +
+                 "#  #" +
+                 "####");
+        cache.distances(size, walls, 1, 1);
+
+        // then
+        assertEquals(1, cache.fields());
+        assertEquals(32, cache.used());
+    }
+}
@@ -0,0 +1,266 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.PointBitSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathFinderTest {
+
+    private PathFinder finder = new PathFinder();
+    private String map;
+    private int size;
+
+    // первая строка карты - верх поля (y = size - 1)
+    private void givenMap(String map) {
+        this.map = map;
+        this.size = (int) Math.sqrt(map.length());
+    }
+
+    private char at(int x, int y) {
+        return map.charAt(new LengthToXY(size).length(x, y));
+    }
+
+    private IntIntPredicate is(char ch) {
+        return (x, y) -> at(x, y) == ch;
+    }
+
+    private Cost costs() {
+        return (x, y) -> {
+            char ch = at(x, y);
+            if (ch == '#') {
+                return Cost.BARRIER;
+            }
+            return (ch == '~') ? 5 : Cost.MIN;
+        };
+    }
+
+    @Test
+    public void shouldBfs_distances() {
+        // given
+        givenMap("#####" +
+                 "#  $#" +
+                 "# # #" +
+                 "#@  #" +
+                 "#####");
+
+        // when
+        int reached = finder.bfs(size, 1, 1, is('#'));
+
+        // then
+        assertEquals(8, reached);
+        assertEquals(0, finder.distance(1, 1));
+        assertEquals(2, finder.distance(1, 3));
+        assertEquals(4, finder.distance(3, 3));
+        assertEquals(PathFinder.UNREACHABLE, finder.distance(2, 2));
+        assertEquals(PathFinder.UNREACHABLE, finder.distance(0, 0));
+        assertEquals(PathFinder.UNREACHABLE, finder.distance(-1, 0));
+        assertEquals("[[2,1], [3,1], [3,2], [3,3]]", finder.path(3, 3).toString());
+        assertEquals(Direction.RIGHT, finder.direction(3, 3));
+        assertEquals("[]", finder.path(1, 1).toString());
+        assertEquals(null, finder.direction(1, 1));
+    }
+
+    @Test
+    public void shouldBfs_unreachable() {
+        // given
+        givenMap("#####" +
+                 "# # #" +
+                 "# #$#" +
+                 "#@# #" +
+                 "#####");
+
+        // when
+        finder.bfs(size, 1, 1, is('#'));
+
+        // then
+        assertEquals(false, finder.isReachable(3, 3));
+        assertEquals("[]", finder.path(3, 3).toString());
+        assertEquals(-1, finder.firstStep(3, 3));
+        assertEquals(null, finder.direction(3, 3));
+    }
+
+    @Test
+    public void shouldFindNearest() {
+        // given
+        givenMap("######" +
+                 "#$   #" +
+                 "#    #" +
+                 "#  @ #" +
+                 "#   $#" +
+                 "######");
+
+        // when
+        int target = finder.nearest(size, 3, 2, is('#'), is('$'));
+
+        // then
+        assertEquals("[4,1]", finder.xy().point(target).toString());
+        assertEquals(2, finder.distance(target));
+        assertEquals(-1, finder.nearest(size, 3, 2, is('#'), is('!')));
+    }
+
+    @Test
+    public void shouldFindNearest_whenSourceIsTarget() {
+        // given
+        givenMap("###" +
+                 "#$#" +
+                 "###");
+
+        // when
+        int target = finder.nearest(size, 1, 1, is('#'), is('$'));
+
+        // then
+        assertEquals(finder.source(), target);
+        assertEquals(0, finder.distance(target));
+    }
+
+    @Test
+    public void shouldDijkstra_preferCheapCells() {
+        // given
+        givenMap("#######" +
+                 "#     #" +
+                 "# ### #" +
+                 "#@~~~ #" +
+                 "#######" +
+                 "#######" +
+                 "#######");
+
+        // when
+        finder.dijkstra(size, 1, 3, costs());
+
+        // then
+        assertEquals(8, finder.distance(5, 3));
+        assertEquals(Direction.UP, finder.direction(5, 3));
+        assertEquals(5, finder.distance(2, 3));
+    }
+
+    @Test
+    public void shouldAStar_sameAsDijkstra() {
+        // given
+        givenMap("#######" +
+                 "#     #" +
+                 "# ### #" +
+                 "#@~~~ #" +
+                 "#######" +
+                 "#######" +
+                 "#######");
+
+        // when
+        int distance = finder.aStar(size, 1, 3, 5, 3, costs());
+
+        // then
+        assertEquals(8, distance);
+        assertEquals("[[1,4], [1,5], [2,5], [3,5], [4,5], [5,5], [5,4], [5,3]]",
+                finder.path(5, 3).toString());
+        assertEquals(PathFinder.UNREACHABLE, finder.aStar(size, 1, 3, 0, 0, costs()));
+        assertEquals(PathFinder.UNREACHABLE, finder.aStar(size, 1, 3, 9, 9, costs()));
+    }
+
+    @Test
+    public void shouldMoveDiagonally_whenAllowed() {
+        // given
+        finder = new PathFinder(true);
+        givenMap("    " +
+                 "    " +
+                 "    " +
+                 "    ");
+
+        // when
+        finder.bfs(size, 0, 0, is('#'));
+
+        // then
+        assertEquals(3, finder.distance(3, 3));
+        assertEquals(null, finder.direction(3, 3));
+        assertEquals(3, finder.aStar(size, 0, 0, 3, 3, costs()));
+    }
+
+    @Test
+    public void shouldReuseArrays_betweenSearches() {
+        // given
+        givenMap("#####" +
+                 "#   #" +
+                 "#   #" +
+                 "#   #" +
+                 "#####");
+        finder.bfs(size, 1, 1, is('#'));
+
+        // when
+        finder.bfs(size, 3, 3, is('#'));
+
+        // then
+        assertEquals(0, finder.distance(3, 3));
+        assertEquals(4, finder.distance(1, 1));
+
+        // when
+        givenMap("###" +
+                 "# #" +
+                 "###");
+        finder.bfs(size, 1, 1, is('#'));
+
+        // then
+        assertEquals(1, finder.reached());
+        assertEquals(PathFinder.UNREACHABLE, finder.distance(1, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFail_whenSourceIsOut() {
+        // given
+        givenMap("   " +
+                 "   " +
+                 "   ");
+
+        // when
+        finder.bfs(size, 3, 1, is('#'));
+    }
+
+    @Test
+    public void shouldBfs_fromSeveralSources() {
+        // given
+        givenMap("#####" +
+                 "#$  #" +
+                 "#   #" +
+                 "#  $#" +
+                 "#####");
+        PointBitSet sources = new PointBitSet(size);
+        sources.add(1, 3);
+        sources.add(3, 1);
+
+        // when
+        int reached = finder.bfs(size, sources, is('#'));
+
+        // then
+        assertEquals(9, reached);
+        assertEquals(0, finder.distance(3, 1));
+        assertEquals(1, finder.distance(2, 1));
+        assertEquals(2, finder.distance(2, 2));
+        assertEquals(2, finder.distance(3, 3));
+        assertEquals("[[1,2], [1,1]]", finder.path(1, 1).toString());
+        assertEquals(-1, finder.firstStep(1, 1));
+    }
+}
@@ -0,0 +1,230 @@
+package com.codenjoy.dojo.services.path;
+
+
+/*-
+ * #%L
+ * Codenjoy - it's a dojo-like platform from developers to developers.
+ * %%
+ * Copyright (C) 2012 - 2022 Codenjoy
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+
+import com.codenjoy.dojo.games.mollymage.Board;
+import com.codenjoy.dojo.games.mollymage.Categories;
+import com.codenjoy.dojo.services.Direction;
+import com.codenjoy.dojo.services.IntIntPredicate;
+import com.codenjoy.dojo.services.LengthToXY;
+import com.codenjoy.dojo.services.Point;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.codenjoy.dojo.games.mollymage.BoardTest.board;
+import static com.codenjoy.dojo.services.Direction.*;
+import static org.junit.Assert.assertEquals;
+
+public class SpaceTimeFinderTest {
+
+    private SpaceTimeFinder finder = new SpaceTimeFinder();
+    private String map;
+    private int size;
+
+    // первая строка карты - верх поля (y = size - 1)
+    private void givenMap(String map) {
+        this.map = map;
+        this.size = (int) Math.sqrt(map.length());
+    }
+
+    private char at(int x, int y) {
+        return map.charAt(new LengthToXY(size).length(x, y));
+    }
+
+    private IntIntPredicate is(char ch) {
+        return (x, y) -> at(x, y) == ch;
+    }
+
+    // клетка опасна только на указанных тиках
+    private HazardOracle hazard(int hx, int hy, int... ticks) {
+        return (x, y, tick) -> x == hx && y == hy
+                && Arrays.stream(ticks).anyMatch(it -> it == tick);
+    }
+
+    @Test
+    public void shouldFindShortest_whenNoHazards() {
+        // given
+        givenMap("#####" +
+                 "#  $#" +
+                 "# # #" +
+                 "#@  #" +
+                 "#####");
+
+        // when
+        Direction move = finder.nearest(size, 1, 1, is('#'), HazardOracle.NONE, is('$'));
+
+        // then
+        assertEquals(UP, move);
+        assertEquals(4, finder.arrival());
+        assertEquals(4, finder.survived());
+    }
+
+    @Test
+    public void shouldWait_whenHazardOnTheWay() {
+        // given
+        givenMap("#####" +
+                 "#####" +
+                 "#@ $#" +
+                 "#####" +
+                 "#####");
+
+        // when
+        Direction move = finder.nearest(size, 1, 2, is('#'), hazard(2, 2, 1), is('$'));
+
+        // then
+        assertEquals(STOP, move);
+        assertEquals(3, finder.arrival());
+    }
+
+    @Test
+    public void shouldGoAround_whenHazardOnTheWay() {
+        // given
+        givenMap("#####" +
+                 "#####" +
+                 "#@ $#" +
+                 "#   #" +
+                 "#####");
+
+        // средняя строка опасна два тика, ждать на месте нельзя
+        HazardOracle hazard = (x, y, tick) -> y == 2 && tick <= 2;
+
+        // when
+        Direction move = finder.aStar(size, 1, 2, 3, 2, is('#'), hazard);
+
+        // then
+        assertEquals(DOWN, move);
+        assertEquals(4, finder.arrival());
+    }
+
+    @Test
+    public void shouldReturnNull_whenCantSurvive() {
+        // given
+        givenMap("###" +
+                 "#@#" +
+                 "###");
+
+        // when
+        Direction move = finder.escape(size, 1, 1, is('#'), hazard(1, 1, 1));
+
+        // then
+        assertEquals(null, move);
+        assertEquals(0, finder.survived());
+        assertEquals(SpaceTimeFinder.UNREACHABLE, finder.arrival());
+    }
+
+    @Test
+    public void shouldSurviveAsLongAsPossible_whenTargetUnreachable() {
+        // given
+        givenMap("#####" +
+                 "#  ##" +
+                 "#@#$#" +
+                 "#  ##" +
+                 "#####");
+
+        // when
+        Direction move = finder.nearest(size, 1, 2, is('#'), hazard(1, 2, 1, 2, 3), is('$'));
+
+        // then
+        assertEquals(true, move == UP || move == DOWN);
+        assertEquals(SpaceTimeFinder.UNREACHABLE, finder.arrival());
+        assertEquals(finder.horizon(), finder.survived());
+    }
+
+    @Test
+    public void shouldStop_whenSourceIsTarget() {
+        // given
+        givenMap("###" +
+                 "#@#" +
+                 "###");
+
+        // when
+        Direction move = finder.nearest(size, 1, 1, is('#'), HazardOracle.NONE, is('@'));
+
+        // then
+        assertEquals(STOP, move);
+        assertEquals(0, finder.arrival());
+    }
+
+    @Test
+    public void shouldLeaveAndComeBack_whenSourceIsTargetUnderHazard() {
+        // given
+        givenMap("#####" +
+                 "#####" +
+                 "#@  #" +
+                 "#####" +
+                 "#####");
+
+        // when
+        Direction move = finder.nearest(size, 1, 2, is('#'), hazard(1, 2, 1), is('@'));
+
+        // then
+        assertEquals(RIGHT, move);
+        assertEquals(2, finder.arrival());
+    }
+
+    @Test
+    public void shouldReturnNull_whenSourceIsTargetAndCantSurvive() {
+        // given
+        givenMap("###" +
+                 "#@#" +
+                 "###");
+
+        // when
+        Direction move = finder.nearest(size, 1, 1, is('#'), hazard(1, 1, 1), is('@'));
+
+        // then
+        assertEquals(null, move);
+        assertEquals(SpaceTimeFinder.UNREACHABLE, finder.arrival());
+    }
+
+    @Test
+    public void shouldEscapeFromBlast_mollymage() {
+        // given
+        Board board = board(
+                "☼☼☼☼☼☼☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼1☺   ☼" +
+                "☼     ☼" +
+                "☼     ☼" +
+                "☼☼☼☼☼☼☼");
+        Point hero = board.getHero();
+
+        // when
+        Direction move = finder.aStar(board.size(), hero.getX(), hero.getY(), 5, 3,
+                board.predicate(Categories.BARRIERS), board.getBlastTimeline());
+
+        // then
+        assertEquals(true, move == UP || move == DOWN);
+        assertEquals(5, finder.arrival());
+
+        // when
+        move = finder.escape(board.size(), hero.getX(), hero.getY(),
+                board.predicate(Categories.BARRIERS), board.getBlastTimeline());
+
+        // then
+        assertEquals(true, move == UP || move == DOWN);
+    }
+}